@@ -3,9 +3,13 @@ package me.devupdates.vaultPayday;
 import me.devupdates.vaultPayday.commands.PaydayCommand;
 import me.devupdates.vaultPayday.commands.VaultPaydayCommand;
 import me.devupdates.vaultPayday.data.DataManager;
+import me.devupdates.vaultPayday.data.FlatFileDataManager;
+import me.devupdates.vaultPayday.data.MySQLDataManager;
 import me.devupdates.vaultPayday.data.SQLiteDataManager;
 import me.devupdates.vaultPayday.integration.JobsIntegrationManager;
+import me.devupdates.vaultPayday.integration.LuckPermsIntegration;
 import me.devupdates.vaultPayday.integration.PlaceholderAPIIntegration;
+import me.devupdates.vaultPayday.manager.BackupManager;
 import me.devupdates.vaultPayday.manager.ConfigManager;
 import me.devupdates.vaultPayday.manager.PaydayManager;
 import me.devupdates.vaultPayday.metrics.MetricsManager;
@@ -13,6 +17,7 @@ import me.devupdates.vaultPayday.util.DependencyDownloader;
 import org.bukkit.Bukkit;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.plugin.java.JavaPlugin;
@@ -22,9 +27,11 @@ public final class VaultPayday extends JavaPlugin implements Listener {
     // Core managers
     private ConfigManager configManager;
     private DataManager dataManager;
+    private BackupManager backupManager;
     private PaydayManager paydayManager;
     private JobsIntegrationManager jobsIntegrationManager;
     private PlaceholderAPIIntegration placeholderAPIIntegration;
+    private LuckPermsIntegration luckPermsIntegration;
     private MetricsManager metricsManager;
     
     @Override
@@ -84,6 +91,10 @@ public final class VaultPayday extends JavaPlugin implements Listener {
             getLogger().info("PlaceholderAPI integration unregistered.");
         }
         
+        if (luckPermsIntegration != null) {
+            luckPermsIntegration.shutdown();
+        }
+        
         if (jobsIntegrationManager != null) {
             jobsIntegrationManager.shutdown();
         }
@@ -92,6 +103,10 @@ public final class VaultPayday extends JavaPlugin implements Listener {
             paydayManager.shutdown();
         }
         
+        if (backupManager != null) {
+            backupManager.shutdown();
+        }
+        
         if (dataManager != null) {
             dataManager.close().join(); // Wait for completion
         }
@@ -133,7 +148,11 @@ public final class VaultPayday extends JavaPlugin implements Listener {
         // Initialize DataManager based on config
         String storageType = configManager.getStorageType();
         if ("sqlite".equalsIgnoreCase(storageType)) {
-            dataManager = new SQLiteDataManager(this, configManager.getSqliteFilename());
+            dataManager = new SQLiteDataManager(this, configManager);
+        } else if ("yaml".equalsIgnoreCase(storageType)) {
+            dataManager = new FlatFileDataManager(this, configManager);
+        } else if ("mysql".equalsIgnoreCase(storageType)) {
+            dataManager = new MySQLDataManager(this, configManager);
         } else {
             throw new RuntimeException("Unsupported storage type: " + storageType);
         }
@@ -141,6 +160,10 @@ public final class VaultPayday extends JavaPlugin implements Listener {
         // Initialize database
         dataManager.initialize().join(); // Wait for completion
         
+        // Initialize scheduled backups
+        backupManager = new BackupManager(this, dataManager, configManager);
+        backupManager.start();
+        
         // Initialize PaydayManager
         paydayManager = new PaydayManager(this, dataManager, configManager);
         paydayManager.initialize();
@@ -171,6 +194,21 @@ public final class VaultPayday extends JavaPlugin implements Listener {
             getLogger().info("PlaceholderAPI integration disabled or plugin not found.");
         }
         
+        // Initialize LuckPerms integration (only if LuckPerms is available), otherwise cached multipliers expire by TTL
+        if (getServer().getPluginManager().getPlugin("LuckPerms") != null) {
+            try {
+                luckPermsIntegration = new LuckPermsIntegration(this, paydayManager.getMultiplierCache());
+                if (!luckPermsIntegration.initialize()) {
+                    getLogger().warning("Failed to hook into LuckPerms, multipliers refresh every " +
+                        configManager.getMultiplierCacheTtlSeconds() + "s");
+                    luckPermsIntegration = null;
+                }
+            } catch (Exception e) {
+                getLogger().warning("Failed to initialize LuckPerms integration: " + e.getMessage());
+                luckPermsIntegration = null;
+            }
+        }
+        
         getLogger().info("All managers initialized successfully!");
     }
     
@@ -196,16 +234,26 @@ public final class VaultPayday extends JavaPlugin implements Listener {
         paydayManager.onPlayerJoin(event.getPlayer());
     }
     
+    @EventHandler
+    public void onPlayerChangedWorld(PlayerChangedWorldEvent event) {
+        paydayManager.onPlayerChangedWorld(event.getPlayer());
+    }
+    
     @EventHandler
     public void onPlayerQuit(PlayerQuitEvent event) {
         paydayManager.onPlayerLeave(event.getPlayer());
+        if (placeholderAPIIntegration != null) {
+            placeholderAPIIntegration.invalidate(event.getPlayer().getUniqueId());
+        }
     }
     
     // Getters for managers
     public ConfigManager getConfigManager() { return configManager; }
     public DataManager getDataManager() { return dataManager; }
+    public BackupManager getBackupManager() { return backupManager; }
     public PaydayManager getPaydayManager() { return paydayManager; }
     public JobsIntegrationManager getJobsIntegrationManager() { return jobsIntegrationManager; }
     public PlaceholderAPIIntegration getPlaceholderAPIIntegration() { return placeholderAPIIntegration; }
+    public LuckPermsIntegration getLuckPermsIntegration() { return luckPermsIntegration; }
     public MetricsManager getMetricsManager() { return metricsManager; }
 }
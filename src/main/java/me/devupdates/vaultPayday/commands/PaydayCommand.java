@@ -4,6 +4,10 @@ import me.devupdates.vaultPayday.VaultPayday;
 import me.devupdates.vaultPayday.manager.ConfigManager;
 import me.devupdates.vaultPayday.manager.PaydayManager;
 import me.devupdates.vaultPayday.model.PaydayData;
+import me.devupdates.vaultPayday.util.Money;
+import me.devupdates.vaultPayday.util.ProgressTables;
+import net.kyori.adventure.text.Component;
+import org.bukkit.Bukkit;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
@@ -66,17 +70,29 @@ public class PaydayCommand implements CommandExecutor {
         // Set cooldown
         setCooldown(player);
         
-        // Get player data
+        // Get player data, answering immediately when cached
         UUID playerUUID = player.getUniqueId();
-        PaydayData paydayData = paydayManager.getPlayerData(playerUUID);
-        
-        if (paydayData == null) {
-            player.sendMessage(configManager.getFormattedMessage("data_not_loaded"));
+        PaydayData cachedData = paydayManager.getIfCached(playerUUID);
+        if (cachedData != null) {
+            displayPaydayInfo(player, cachedData);
             return true;
         }
         
-        // Display payday information
-        displayPaydayInfo(player, paydayData);
+        // Cache miss - load in the background and reply on the main thread
+        paydayManager.getPlayerDataAsync(playerUUID).whenComplete((paydayData, throwable) ->
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                if (!player.isOnline()) {
+                    return;
+                }
+                
+                if (paydayData == null) {
+                    player.sendMessage(configManager.getFormattedMessage("data_not_loaded"));
+                    return;
+                }
+                
+                // Display payday information
+                displayPaydayInfo(player, paydayData);
+            }));
         
         return true;
     }
@@ -89,24 +105,21 @@ public class PaydayCommand implements CommandExecutor {
         long currentMinutes = paydayData.getMinutesPlayed();
         long remainingMinutes = paydayData.getRemainingMinutes(requiredMinutes);
         double progressPercentage = paydayData.getProgressPercentage(requiredMinutes);
-        double pendingBalance = paydayData.getPendingBalance();
+        long pendingBalance = paydayData.getPendingMicros();
         int totalPaydays = paydayData.getTotalPaydays();
         
-        // Create progress bar
-        String progressBar = createProgressBar(progressPercentage);
-        
-        // Get the formatted message and replace placeholders
-        String message = configManager.getMessage("payday_info")
-            .replace("%time%", String.valueOf(currentMinutes))
-            .replace("%required%", String.valueOf(requiredMinutes))
-            .replace("%remaining%", String.valueOf(remainingMinutes))
-            .replace("%percentage%", String.format("%.1f", progressPercentage))
-            .replace("%pending%", String.format("%.2f", pendingBalance))
-            .replace("%total_paydays%", String.valueOf(totalPaydays))
-            .replace("%progress_bar%", progressBar)
-            .replace("&", "§");
+        // Progress bar from the precomputed table
+        Component progressBar = configManager.getProgressTables().componentBar(progressPercentage, ProgressTables.MAX_BAR_LENGTH);
         
-        player.sendMessage(message);
+        // Render the compiled message with its placeholders
+        player.sendMessage(configManager.getMessageTemplate("payday_info").render(
+            "time", currentMinutes,
+            "required", requiredMinutes,
+            "remaining", remainingMinutes,
+            "percentage", String.format("%.1f", progressPercentage),
+            "pending", Money.format(pendingBalance),
+            "total_paydays", totalPaydays,
+            "progress_bar", progressBar));
         
         // Additional information based on status
         if (paydayData.isReadyForPayday(requiredMinutes)) {
@@ -116,30 +129,6 @@ public class PaydayCommand implements CommandExecutor {
         }
     }
     
-    /**
-     * Create a visual progress bar
-     */
-    private String createProgressBar(double percentage) {
-        int totalBars = 20;
-        int filledBars = (int) (percentage / 100.0 * totalBars);
-        int emptyBars = totalBars - filledBars;
-        
-        StringBuilder progressBar = new StringBuilder("§a");
-        
-        // Add filled bars
-        for (int i = 0; i < filledBars; i++) {
-            progressBar.append("█");
-        }
-        
-        // Add empty bars
-        progressBar.append("§7");
-        for (int i = 0; i < emptyBars; i++) {
-            progressBar.append("█");
-        }
-        
-        return progressBar.toString();
-    }
-    
     /**
      * Check if player is on cooldown
      */
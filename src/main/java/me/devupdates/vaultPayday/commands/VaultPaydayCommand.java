@@ -4,6 +4,7 @@ import me.devupdates.vaultPayday.VaultPayday;
 import me.devupdates.vaultPayday.manager.ConfigManager;
 import me.devupdates.vaultPayday.manager.PaydayManager;
 import me.devupdates.vaultPayday.model.PaydayData;
+import me.devupdates.vaultPayday.util.Money;
 import org.bukkit.Bukkit;
 import org.bukkit.OfflinePlayer;
 import org.bukkit.command.Command;
@@ -71,6 +72,10 @@ public class VaultPaydayCommand implements CommandExecutor, TabCompleter {
                 handleStats(sender);
                 break;
                 
+            case "debug":
+                handleDebug(sender);
+                break;
+                
             case "help":
                 showHelp(sender);
                 break;
@@ -90,6 +95,15 @@ public class VaultPaydayCommand implements CommandExecutor, TabCompleter {
     private void handleReload(CommandSender sender) {
         try {
             configManager.reloadConfig();
+            
+            // Multiplier nodes may have changed, resolve them again for everyone online
+            paydayManager.getMultiplierCache().invalidateAll(Bukkit.getOnlinePlayers());
+            Bukkit.getOnlinePlayers().forEach(paydayManager::refreshPlayer);
+            plugin.getBackupManager().start();
+            paydayManager.getAfkDetector().start();
+            if (plugin.getJobsIntegrationManager() != null) {
+                plugin.getJobsIntegrationManager().invalidateAll();
+            }
             sender.sendMessage(configManager.getFormattedMessage("reload_success"));
             
             if (configManager.isDebugMode()) {
@@ -213,51 +227,90 @@ public class VaultPaydayCommand implements CommandExecutor, TabCompleter {
         }
         
         UUID targetUUID = targetPlayer.getUniqueId();
-        PaydayData paydayData = paydayManager.getPlayerData(targetUUID);
-        
-        if (paydayData == null) {
-            sender.sendMessage(configManager.getFormattedMessage("player_data_not_found"));
-            return;
-        }
-        
-        // Display detailed player information
-        displayPlayerInfo(sender, targetPlayer, paydayData);
+        paydayManager.getPlayerDataAsync(targetUUID).whenComplete((paydayData, throwable) ->
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                if (paydayData == null) {
+                    sender.sendMessage(configManager.getFormattedMessage("player_data_not_found"));
+                    return;
+                }
+                
+                // Display detailed player information
+                displayPlayerInfo(sender, targetPlayer, paydayData);
+            }));
     }
     
     /**
      * Handle stats subcommand
      */
     private void handleStats(CommandSender sender) {
-        // Get statistics asynchronously to avoid blocking main thread
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
-            try {
-                int onlinePlayers = Bukkit.getOnlinePlayers().size();
-                int trackedPlayers = plugin.getDataManager().getTotalPlayersCount().get();
-                int pendingPayouts = plugin.getDataManager().getPendingPayoutsCount().get();
-                long totalPaydays = plugin.getDataManager().getTotalPaydaysGiven().get();
-                
-                // Send statistics on main thread
-                Bukkit.getScheduler().runTask(plugin, () -> {
-                    String message = configManager.getMessage("plugin_info")
-                        .replace("%version%", plugin.getPluginMeta().getVersion())
-                        .replace("%online_players%", String.valueOf(onlinePlayers))
-                        .replace("%tracked_players%", String.valueOf(trackedPlayers))
-                        .replace("%pending_payouts%", String.valueOf(pendingPayouts))
-                        .replace("%total_paydays%", String.valueOf(totalPaydays))
-                        .replace("&", "§");
-                    
-                    sender.sendMessage(message);
-                });
-                
-            } catch (Exception e) {
+        // Get statistics asynchronously to avoid blocking main thread, one read of the maintained aggregates
+        plugin.getDataManager().getStatisticsSnapshot().whenComplete((stats, throwable) -> {
+            if (throwable != null) {
                 Bukkit.getScheduler().runTask(plugin, () -> {
                     sender.sendMessage(configManager.getFormattedMessage("stats_error"));
                 });
-                plugin.getLogger().severe("Failed to retrieve statistics: " + e.getMessage());
+                plugin.getLogger().severe("Failed to retrieve statistics: " + throwable.getMessage());
+                return;
             }
+            
+            // Send statistics on main thread
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                sender.sendMessage(configManager.getMessageTemplate("plugin_info").render(
+                    "version", plugin.getPluginMeta().getVersion(),
+                    "online_players", Bukkit.getOnlinePlayers().size(),
+                    "tracked_players", stats.totalPlayers(),
+                    "pending_payouts", stats.pendingPayouts(),
+                    "pending_total", Money.format(stats.totalPendingMicros()),
+                    "total_paydays", stats.totalPaydays()));
+            });
         });
     }
     
+    /**
+     * Handle debug subcommand - internal performance counters
+     */
+    private void handleDebug(CommandSender sender) {
+        var writeBehindQueue = paydayManager.getWriteBehindQueue();
+        var storageExecutor = plugin.getDataManager().getStorageExecutor();
+        var playerStates = paydayManager.getPlayerStates();
+        var settlementQueue = paydayManager.getSettlementQueue();
+        
+        sender.sendMessage("§8▬▬▬▬▬▬▬▬▬▬▬ §6VaultPayday Debug §8▬▬▬▬▬▬▬▬▬▬▬");
+        sender.sendMessage("§7Cached Players: §e" + paydayManager.getActivePlayersCount() +
+            " §8(" + playerStates.getType() + " store, ~" + playerStates.estimateFootprintBytes() / 1024 + " KiB)");
+        sender.sendMessage("§7Sync Loads Avoided: §e" + paydayManager.getAvoidedSyncLoads());
+        sender.sendMessage("§7Settlement Queue: §e" + settlementQueue.getQueueLength() + " §8(§e" + settlementQueue.getSettledCount() +
+            " §7settled, §e" + settlementQueue.getFailedCount() + " §7failed§8)");
+        sender.sendMessage("§7Settlement Latency: §e" + String.format("%.1f", settlementQueue.getAverageLatencyMillis()) + "ms §7avg, §e" +
+            String.format("%.1f", settlementQueue.getMaxLatencyMillis()) + "ms §7max §8(§7last slice §e" +
+            String.format("%.2f", settlementQueue.getLastSliceMillis()) + "ms§8)");
+        sender.sendMessage("§7Cached Multipliers: §e" + paydayManager.getMultiplierCache().size() +
+            " §8(" + (paydayManager.getMultiplierCache().isEventDriven() ? "LuckPerms events" : "TTL " + configManager.getMultiplierCacheTtlSeconds() + "s") + ")");
+        if (plugin.getJobsIntegrationManager() != null) {
+            var notifier = plugin.getJobsIntegrationManager().getNotifier();
+            var batcher = plugin.getJobsIntegrationManager().getBatcher();
+            sender.sendMessage("§7Interceptions Drained: §e" + batcher.getDrainedPayments() +
+                " §7payments in §e" + batcher.getDrainedCredits() + " §7credits");
+            sender.sendMessage("§7Interception Notices: §e" + notifier.getSentNotifications() +
+                " §7for §e" + notifier.getCoalescedPayments() + " §7payments");
+        }
+        sender.sendMessage("§7Write-Behind Pending: §e" + writeBehindQueue.getPendingCount());
+        sender.sendMessage("§7Write-Behind Flushed: §e" + writeBehindQueue.getFlushedEntries() +
+            " §7in §e" + writeBehindQueue.getFlushedBatches() + " §7batches §8(§e" + writeBehindQueue.getCoalescedWrites() + " §7coalesced§8)");
+        sender.sendMessage("§7Storage Queues: §e" + storageExecutor.getWriterQueueDepth() + " §7writes, §e" +
+            storageExecutor.getReaderQueueDepth() + " §7reads §8(§e" + storageExecutor.getActiveReaders() + " §7active" +
+            (storageExecutor.isVirtualReaders() ? ", virtual" : "") + "§8)");
+        sender.sendMessage("§7Storage Completed: §e" + storageExecutor.getCompletedWrites() + " §7writes, §e" +
+            storageExecutor.getCompletedReads() + " §7reads");
+        sender.sendMessage("§7Back-Pressure Events: §e" + storageExecutor.getBackPressureEvents() +
+            " §8(§e" + storageExecutor.getRejectedTasks() + " §7rejected§8)");
+        var lastBackup = plugin.getBackupManager().getLastResult();
+        sender.sendMessage("§7Last Backup: §e" + (lastBackup == null ? "none this session" :
+            lastBackup.fileName() + " §8(§e" + lastBackup.bytes() / 1024 + " KiB§7, §e" + lastBackup.durationMillis() + "ms§8)") +
+            (plugin.getBackupManager().isRunning() ? " §7(running)" : ""));
+        sender.sendMessage("§8▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬");
+    }
+    
     /**
      * Display detailed player information
      */
@@ -266,14 +319,14 @@ public class VaultPaydayCommand implements CommandExecutor, TabCompleter {
         long currentMinutes = paydayData.getMinutesPlayed();
         long remainingMinutes = paydayData.getRemainingMinutes(requiredMinutes);
         double progressPercentage = paydayData.getProgressPercentage(requiredMinutes);
-        double pendingBalance = paydayData.getPendingBalance();
+        long pendingBalance = paydayData.getPendingMicros();
         int totalPaydays = paydayData.getTotalPaydays();
         
         sender.sendMessage("§8▬▬▬▬▬▬▬▬▬▬▬ §6Player Info: " + targetPlayer.getName() + " §8▬▬▬▬▬▬▬▬▬▬▬");
         sender.sendMessage("§7UUID: §e" + targetPlayer.getUniqueId());
         sender.sendMessage("§7Status: " + (targetPlayer.isOnline() ? "§aOnline" : "§cOffline"));
         sender.sendMessage("§7Time Played: §e" + currentMinutes + "§7/§e" + requiredMinutes + " §7minutes §8(§a" + String.format("%.1f", progressPercentage) + "%§8)");
-        sender.sendMessage("§7Pending Balance: §a$" + String.format("%.2f", pendingBalance));
+        sender.sendMessage("§7Pending Balance: §a$" + Money.format(pendingBalance));
         sender.sendMessage("§7Remaining Time: §e" + remainingMinutes + " §7minutes");
         sender.sendMessage("§7Total Paydays: §e" + totalPaydays);
         sender.sendMessage("§7Last Updated: §e" + new java.util.Date(paydayData.getLastUpdated()));
@@ -290,6 +343,7 @@ public class VaultPaydayCommand implements CommandExecutor, TabCompleter {
         sender.sendMessage("§e/vaultpayday settime <player> <minutes> §7- Set player's playtime");
         sender.sendMessage("§e/vaultpayday info <player> §7- Show detailed player information");
         sender.sendMessage("§e/vaultpayday stats §7- Show plugin statistics");
+        sender.sendMessage("§e/vaultpayday debug §7- Show internal performance counters");
         sender.sendMessage("§e/vaultpayday help §7- Show this help message");
         sender.sendMessage("§8▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬");
     }
@@ -302,7 +356,7 @@ public class VaultPaydayCommand implements CommandExecutor, TabCompleter {
         
         if (args.length == 1) {
             // First argument - subcommands
-            List<String> subCommands = Arrays.asList("reload", "reset", "settime", "info", "stats", "help");
+            List<String> subCommands = Arrays.asList("reload", "reset", "settime", "info", "stats", "debug", "help");
             return subCommands.stream()
                 .filter(sub -> sub.toLowerCase().startsWith(args[0].toLowerCase()))
                 .collect(Collectors.toList());
@@ -2,14 +2,23 @@ package me.devupdates.vaultPayday.data;
 
 import me.devupdates.vaultPayday.model.PaydayData;
 
+import java.io.File;
+import java.util.Collection;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 /**
  * Interface for data storage operations
  */
 public interface DataManager {
     
+    /**
+     * Aggregate statistics over all stored players
+     * @param totalPendingMicros Sum of all pending balances in micro-units
+     */
+    record StatisticsSnapshot(int totalPlayers, int pendingPayouts, long totalPendingMicros, long totalPaydays) {}
+    
     /**
      * Initialize the data storage system
      * @return CompletableFuture that completes when initialization is done
@@ -31,6 +40,40 @@ public interface DataManager {
      */
     CompletableFuture<Void> savePlayerData(PaydayData data);
     
+    /**
+     * Save several players in a single transaction
+     * @param batch PaydayData entries to save
+     * @return CompletableFuture that completes when the whole batch is committed
+     */
+    CompletableFuture<Void> savePlayerDataBatch(Collection<PaydayData> batch);
+    
+    /**
+     * Whether several servers share this store and hand players over to each other
+     */
+    default boolean isShared() {
+        return false;
+    }
+    
+    /**
+     * Save a leaving player's final state and give up this server's claim on them
+     * Shared stores make other servers wait for this before loading the player, local stores just save
+     * @param data The player's final PaydayData
+     * @return CompletableFuture that completes when the handoff is written
+     */
+    default CompletableFuture<Void> releasePlayer(PaydayData data) {
+        return savePlayerData(data);
+    }
+    
+    /**
+     * Give up this server's claim on a player without writing anything, for a load that finished after they left
+     * Only shared stores claim players, local stores have nothing to do
+     * @param data The PaydayData as loaded, its version identifies the claim
+     * @return CompletableFuture that completes when the claim is released
+     */
+    default CompletableFuture<Void> releaseClaim(PaydayData data) {
+        return CompletableFuture.completedFuture(null);
+    }
+    
     /**
      * Delete player data from storage
      * @param playerUUID Player's UUID
@@ -38,23 +81,50 @@ public interface DataManager {
      */
     CompletableFuture<Void> deletePlayerData(UUID playerUUID);
     
+    /**
+     * Visit every stored player once, streamed on a storage thread, used to seed the leaderboards
+     * @param action Called for each player, must not call back into the data manager
+     * @return CompletableFuture that completes after the last player was visited
+     */
+    CompletableFuture<Void> forEachPlayer(Consumer<PaydayData> action);
+    
+    /**
+     * Get all aggregate statistics at once, maintained incrementally so this never scans the data
+     * @return CompletableFuture containing the snapshot
+     */
+    CompletableFuture<StatisticsSnapshot> getStatisticsSnapshot();
+    
     /**
      * Get total number of players in the system
      * @return CompletableFuture containing the count
      */
-    CompletableFuture<Integer> getTotalPlayersCount();
+    default CompletableFuture<Integer> getTotalPlayersCount() {
+        return getStatisticsSnapshot().thenApply(StatisticsSnapshot::totalPlayers);
+    }
     
     /**
      * Get total number of pending payouts
      * @return CompletableFuture containing the count
      */
-    CompletableFuture<Integer> getPendingPayoutsCount();
+    default CompletableFuture<Integer> getPendingPayoutsCount() {
+        return getStatisticsSnapshot().thenApply(StatisticsSnapshot::pendingPayouts);
+    }
+    
+    /**
+     * Get the sum of all pending balances
+     * @return CompletableFuture containing the total in micro-units
+     */
+    default CompletableFuture<Long> getTotalPendingMicros() {
+        return getStatisticsSnapshot().thenApply(StatisticsSnapshot::totalPendingMicros);
+    }
     
     /**
      * Get total number of paydays given
      * @return CompletableFuture containing the count
      */
-    CompletableFuture<Long> getTotalPaydaysGiven();
+    default CompletableFuture<Long> getTotalPaydaysGiven() {
+        return getStatisticsSnapshot().thenApply(StatisticsSnapshot::totalPaydays);
+    }
     
     /**
      * Close/cleanup the data storage system
@@ -63,8 +133,22 @@ public interface DataManager {
     CompletableFuture<Void> close();
     
     /**
-     * Create a backup of the data
-     * @return CompletableFuture that completes when backup is done
+     * Write a consistent copy of the data to the given file without blocking the storage writer
+     * Called on the backup thread, the file must not exist yet
+     * @param target File to write the snapshot to
+     */
+    void writeSnapshot(File target) throws Exception;
+    
+    /**
+     * File extension for snapshots written by {@link #writeSnapshot(File)}
+     */
+    default String getSnapshotExtension() {
+        return ".db";
+    }
+    
+    /**
+     * Get the dedicated executor running this data manager's I/O
+     * @return StorageExecutor owned by this data manager
      */
-    CompletableFuture<Boolean> createBackup();
+    StorageExecutor getStorageExecutor();
 }
\ No newline at end of file
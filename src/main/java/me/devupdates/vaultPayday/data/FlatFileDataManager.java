@@ -0,0 +1,362 @@
+package me.devupdates.vaultPayday.data;
+
+import me.devupdates.vaultPayday.VaultPayday;
+import me.devupdates.vaultPayday.manager.ConfigManager;
+import me.devupdates.vaultPayday.model.PaydayData;
+import me.devupdates.vaultPayday.util.Money;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Flat-file implementation of DataManager, selected with storage type 'yaml'
+ * Saves are appended to a memory-mapped record log, an in-memory index points at each player's latest record
+ * The log is compacted and a human-readable YAML export refreshed every yaml_save_interval seconds
+ */
+public class FlatFileDataManager implements DataManager {
+    private static final String BASE_NAME = "payday_data";
+    private static final int COMPACTION_MIN_BYTES = 1024 * 1024;
+    
+    private final VaultPayday plugin;
+    private final ConfigManager configManager;
+    private final StorageExecutor executor;
+    private final RecordLog log;
+    private final File exportFile;
+    private final ScheduledExecutorService maintenance;
+    
+    // Latest record offset per player, rebuilt from the log on startup
+    private final Map<UUID, Integer> index = new HashMap<>();
+    
+    // Reads share the mapping, appends and compaction take it exclusively
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    
+    // Aggregates for /vaultpayday stats and the compaction threshold, maintained on every put and delete
+    private int pendingPayouts;
+    private long totalPendingMicros;
+    private long totalPaydays;
+    private long liveBytes;
+    
+    public FlatFileDataManager(VaultPayday plugin, ConfigManager configManager) {
+        this.plugin = plugin;
+        this.configManager = configManager;
+        this.executor = new StorageExecutor(plugin, "FlatFile", configManager);
+        this.log = new RecordLog(plugin.getDataFolder(), BASE_NAME);
+        this.exportFile = new File(plugin.getDataFolder(), BASE_NAME + ".yml");
+        this.maintenance = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "VaultPayday-FlatFile-Maintenance");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    @Override
+    public CompletableFuture<Void> initialize() {
+        return write(() -> {
+            try {
+                // Create plugin data folder if it doesn't exist
+                if (!plugin.getDataFolder().exists()) {
+                    plugin.getDataFolder().mkdirs();
+                }
+                
+                boolean torn = log.open((playerUUID, offset) -> {
+                    if (offset >= 0) {
+                        put(playerUUID, offset);
+                    } else {
+                        remove(playerUUID);
+                    }
+                });
+                if (torn) {
+                    plugin.getLogger().warning("Flat-file log had an incomplete record at its end, it was discarded");
+                }
+                
+                plugin.getLogger().info("Flat-file storage initialized: " + index.size() + " players, generation " +
+                    log.getGeneration() + ", " + log.getWritePosition() / 1024 + " KiB");
+            
+            } catch (IOException e) {
+                plugin.getLogger().severe("Failed to initialize flat-file storage: " + e.getMessage());
+                throw new RuntimeException(e);
+            }
+        }).thenRun(() -> {
+            long intervalSeconds = configManager.getYamlSaveInterval();
+            maintenance.scheduleWithFixedDelay(this::runMaintenance, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+        });
+    }
+    
+    @Override
+    public CompletableFuture<PaydayData> loadPlayerData(UUID playerUUID, String playerName) {
+        return read(() -> {
+            Integer offset = index.get(playerUUID);
+            return offset != null ? log.read(offset) : null;
+        }).thenApply(data -> {
+            if (data != null) {
+                return data;
+            }
+            
+            // Player not found, create new data, saved once the read lock is released (it can't be upgraded)
+            PaydayData newData = new PaydayData(playerUUID, playerName);
+            savePlayerData(newData); // Save immediately
+            return newData;
+        });
+    }
+    
+    @Override
+    public CompletableFuture<Void> savePlayerData(PaydayData data) {
+        return write(() -> {
+            try {
+                put(data.getPlayerUUID(), log.appendPut(data));
+                log.force();
+            } catch (IOException e) {
+                plugin.getLogger().severe("Failed to save player data for " +
+                    data.getPlayerUUID() + ": " + e.getMessage());
+                throw new RuntimeException(e);
+            }
+        });
+    }
+    
+    @Override
+    public CompletableFuture<Void> savePlayerDataBatch(Collection<PaydayData> batch) {
+        return write(() -> {
+            if (batch.isEmpty()) {
+                return;
+            }
+            
+            try {
+                for (PaydayData data : batch) {
+                    put(data.getPlayerUUID(), log.appendPut(data));
+                }
+                log.force(); // One flush for the whole batch
+            } catch (IOException e) {
+                plugin.getLogger().severe("Failed to save batch of " + batch.size() + " players: " + e.getMessage());
+                throw new RuntimeException(e);
+            }
+        });
+    }
+    
+    @Override
+    public CompletableFuture<Void> deletePlayerData(UUID playerUUID) {
+        return write(() -> {
+            if (!index.containsKey(playerUUID)) {
+                plugin.getLogger().warning("No data found to delete for player " + playerUUID);
+                return;
+            }
+            
+            try {
+                log.appendDelete(playerUUID);
+                log.force();
+                remove(playerUUID);
+                plugin.getLogger().info("Deleted data for player " + playerUUID);
+            } catch (IOException e) {
+                plugin.getLogger().severe("Failed to delete player data for " +
+                    playerUUID + ": " + e.getMessage());
+                throw new RuntimeException(e);
+            }
+        });
+    }
+    
+    @Override
+    public CompletableFuture<Void> forEachPlayer(Consumer<PaydayData> action) {
+        return read(() -> {
+            for (int offset : index.values()) {
+                action.accept(log.read(offset));
+            }
+            return null;
+        });
+    }
+    
+    @Override
+    public CompletableFuture<StatisticsSnapshot> getStatisticsSnapshot() {
+        return read(() -> new StatisticsSnapshot(index.size(), pendingPayouts, totalPendingMicros, totalPaydays));
+    }
+    
+    @Override
+    public CompletableFuture<Void> close() {
+        // Let queued reads and writes finish before the log goes away
+        maintenance.shutdownNow();
+        executor.shutdown();
+        
+        lock.writeLock().lock();
+        try {
+            exportYaml(snapshot());
+            log.close();
+            plugin.getLogger().info("Flat-file storage closed");
+        } catch (IOException e) {
+            plugin.getLogger().severe("Failed to close flat-file storage: " + e.getMessage());
+        } finally {
+            lock.writeLock().unlock();
+        }
+        
+        return CompletableFuture.completedFuture(null);
+    }
+    
+    @Override
+    public void writeSnapshot(File target) throws IOException {
+        // Only the live records, so a backup is already compacted
+        RecordLog.Snapshot snapshot;
+        lock.readLock().lock();
+        try {
+            snapshot = snapshot();
+        } finally {
+            lock.readLock().unlock();
+        }
+        
+        // Copied without the lock, saves and compaction go on meanwhile
+        RecordLog.copyTo(target, snapshot);
+    }
+    
+    @Override
+    public String getSnapshotExtension() {
+        return ".log";
+    }
+    
+    @Override
+    public StorageExecutor getStorageExecutor() {
+        return executor;
+    }
+    
+    /**
+     * Compact the log when most of it is superseded records, then refresh the YAML export
+     * Runs on the maintenance thread, the export reads a snapshot and holds no lock
+     */
+    private void runMaintenance() {
+        try {
+            write(this::compactIfWorthwhile).join();
+            exportYaml(read(this::snapshot).join());
+        } catch (IOException e) {
+            plugin.getLogger().warning("Failed to write " + exportFile.getName() + ": " + e.getMessage());
+        } catch (RuntimeException e) {
+            plugin.getLogger().severe("Flat-file maintenance failed: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Compact the log when most of it is superseded records, called with the write lock held
+     */
+    private void compactIfWorthwhile() {
+        int size = log.getWritePosition();
+        if (size < COMPACTION_MIN_BYTES || size < 2 * (liveBytes + RecordLog.HEADER_SIZE)) {
+            return;
+        }
+        
+        try {
+            UUID[] players = index.keySet().toArray(new UUID[0]);
+            int[] offsets = log.compact(liveOffsets(players));
+            for (int i = 0; i < players.length; i++) {
+                index.put(players[i], offsets[i]);
+            }
+            
+            plugin.getLogger().info("Compacted flat-file log: " + size / 1024 + " KiB -> " +
+                log.getWritePosition() / 1024 + " KiB (generation " + log.getGeneration() + ")");
+        } catch (IOException e) {
+            plugin.getLogger().severe("Failed to compact flat-file log: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Write every player to the YAML export, for humans and external tools, never read back
+     * Synchronized as close() may export while the maintenance thread is still writing the file
+     */
+    private synchronized void exportYaml(RecordLog.Snapshot snapshot) throws IOException {
+        YamlConfiguration yaml = new YamlConfiguration();
+        for (int i = 0; i < snapshot.size(); i++) {
+            PaydayData data = snapshot.read(i);
+            ConfigurationSection section = yaml.createSection("players." + data.getPlayerUUID());
+            section.set("name", data.getPlayerName());
+            section.set("minutes_played", data.getMinutesPlayed());
+            section.set("pending_balance", Money.format(data.getPendingMicros()));
+            section.set("total_paydays", data.getTotalPaydays());
+            section.set("last_updated", data.getLastUpdated());
+        }
+        
+        File temp = new File(exportFile.getPath() + ".tmp");
+        yaml.save(temp);
+        Files.move(temp.toPath(), exportFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+    
+    /**
+     * Point the index at a new record and update the aggregates, called with the write lock held
+     */
+    private void put(UUID playerUUID, int offset) {
+        remove(playerUUID);
+        
+        PaydayData data = log.read(offset);
+        index.put(playerUUID, offset);
+        pendingPayouts += data.getPendingMicros() > 0 ? 1 : 0;
+        totalPendingMicros += data.getPendingMicros();
+        totalPaydays += data.getTotalPaydays();
+        liveBytes += log.recordSize(offset);
+    }
+    
+    /**
+     * Drop a player from the index and the aggregates, called with the write lock held
+     */
+    private void remove(UUID playerUUID) {
+        Integer offset = index.remove(playerUUID);
+        if (offset == null) {
+            return;
+        }
+        
+        PaydayData data = log.read(offset);
+        pendingPayouts -= data.getPendingMicros() > 0 ? 1 : 0;
+        totalPendingMicros -= data.getPendingMicros();
+        totalPaydays -= data.getTotalPaydays();
+        liveBytes -= log.recordSize(offset);
+    }
+    
+    /**
+     * Capture the live records, called with the lock held
+     */
+    private RecordLog.Snapshot snapshot() {
+        return log.snapshot(liveOffsets(index.keySet().toArray(new UUID[0])));
+    }
+    
+    private int[] liveOffsets(UUID[] players) {
+        int[] offsets = new int[players.length];
+        for (int i = 0; i < players.length; i++) {
+            offsets[i] = index.get(players[i]);
+        }
+        return offsets;
+    }
+    
+    /**
+     * Run a mutation on the writer thread while holding the log exclusively
+     */
+    private CompletableFuture<Void> write(Runnable task) {
+        return executor.runWrite(() -> {
+            lock.writeLock().lock();
+            try {
+                task.run();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+    
+    /**
+     * Run a query on the reader pool while holding the log shared
+     */
+    private <T> CompletableFuture<T> read(Supplier<T> task) {
+        return executor.supplyRead(() -> {
+            lock.readLock().lock();
+            try {
+                return task.get();
+            } finally {
+                lock.readLock().unlock();
+            }
+        });
+    }
+}
\ No newline at end of file
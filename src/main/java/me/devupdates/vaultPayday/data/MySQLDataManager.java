@@ -0,0 +1,657 @@
+package me.devupdates.vaultPayday.data;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import me.devupdates.vaultPayday.VaultPayday;
+import me.devupdates.vaultPayday.manager.ConfigManager;
+import me.devupdates.vaultPayday.model.PaydayData;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * MySQL/MariaDB implementation of DataManager, for several servers sharing one database
+ * Connections come from a HikariCP pool, write-behind batches are sent as multi-row upserts
+ * 
+ * Players are handed between servers through the row itself: the server a player is on holds a
+ * renewable lease (owner, lease_until), a loading server waits until the previous one released the
+ * row with its final save, and every save is conditional on the version it last read or wrote
+ */
+public class MySQLDataManager implements DataManager {
+    private static final long STATISTICS_TTL_MILLIS = 30_000L;
+    private static final long HANDOFF_POLL_MILLIS = 100L;
+    
+    private final VaultPayday plugin;
+    private final ConfigManager configManager;
+    private final StorageExecutor executor;
+    private final int batchRows;
+    private final String fullBatchUpsert; // Statement for a full chunk of batchRows players, built once
+    private final String serverId;
+    private final long leaseMillis;
+    private final ScheduledExecutorService leaseRenewal;
+    private HikariDataSource dataSource;
+    
+    // Other servers write to the same table, so aggregates can't be kept in sync locally and are cached instead
+    private volatile StatisticsSnapshot cachedStatistics;
+    private volatile long statisticsExpireAt;
+    
+    // SQL statements, same schema as SQLite
+    private static final String CREATE_TABLE = """
+        CREATE TABLE IF NOT EXISTS payday_data (
+            uuid CHAR(36) NOT NULL PRIMARY KEY,
+            player_name VARCHAR(32) NOT NULL,
+            minutes_played BIGINT NOT NULL DEFAULT 0,
+            pending_micros BIGINT NOT NULL DEFAULT 0,
+            last_updated BIGINT NOT NULL,
+            total_paydays INT NOT NULL DEFAULT 0,
+            version BIGINT NOT NULL DEFAULT 0,
+            owner VARCHAR(64) NULL,
+            lease_until BIGINT NOT NULL DEFAULT 0,
+            carried_millis BIGINT NOT NULL DEFAULT 0
+        ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4
+        """;
+    
+    private static final String MIGRATE_ADD_HANDOFF_COLUMNS = """
+        ALTER TABLE payday_data
+            ADD COLUMN version BIGINT NOT NULL DEFAULT 0,
+            ADD COLUMN owner VARCHAR(64) NULL,
+            ADD COLUMN lease_until BIGINT NOT NULL DEFAULT 0
+        """;
+    
+    private static final String MIGRATE_ADD_CARRIED_MILLIS =
+        "ALTER TABLE payday_data ADD COLUMN carried_millis BIGINT NOT NULL DEFAULT 0";
+    
+    private static final String SELECT_PLAYER =
+        "SELECT * FROM payday_data WHERE uuid = ?";
+    
+    private static final String SELECT_ALL_PLAYERS =
+        "SELECT uuid, player_name, minutes_played, pending_micros, last_updated, total_paydays, carried_millis FROM payday_data";
+    
+    private static final String COLUMNS =
+        "(uuid, player_name, minutes_played, pending_micros, last_updated, total_paydays, version, owner, lease_until, carried_millis)";
+    
+    private static final String UPSERT_PREFIX = "INSERT INTO payday_data " + COLUMNS + " VALUES ";
+    
+    private static final String UPSERT_ROW = "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    
+    // Rows only change while this server still owns them at the version it expects, the new version is bound
+    // VALUES() rather than a row alias, MariaDB doesn't support the alias syntax
+    // CASE and a plain owner comparison (the bound owner is never null) rather than IF() and <=>,
+    // so the statement also runs on H2 in MySQL mode for the tests
+    // version must stay last, MySQL evaluates the assignments left to right
+    private static final String UPSERT_SUFFIX = """
+         ON DUPLICATE KEY UPDATE
+            player_name = CASE WHEN %1$s THEN VALUES(player_name) ELSE player_name END,
+            minutes_played = CASE WHEN %1$s THEN VALUES(minutes_played) ELSE minutes_played END,
+            pending_micros = CASE WHEN %1$s THEN VALUES(pending_micros) ELSE pending_micros END,
+            last_updated = CASE WHEN %1$s THEN VALUES(last_updated) ELSE last_updated END,
+            total_paydays = CASE WHEN %1$s THEN VALUES(total_paydays) ELSE total_paydays END,
+            carried_millis = CASE WHEN %1$s THEN VALUES(carried_millis) ELSE carried_millis END,
+            lease_until = CASE WHEN %1$s THEN VALUES(lease_until) ELSE lease_until END,
+            version = CASE WHEN %1$s THEN VALUES(version) ELSE version END
+        """.formatted("version + 1 = VALUES(version) AND owner = VALUES(owner)");
+    
+    private static final String LOCK_VERSIONS_PREFIX =
+        "SELECT uuid, version, owner FROM payday_data WHERE uuid IN ";
+    private static final String LOCK_VERSIONS_SUFFIX = " FOR UPDATE";
+    
+    // A new player, claimed in the same statement
+    private static final String INSERT_PLAYER = "INSERT IGNORE INTO payday_data " + COLUMNS + " VALUES " + UPSERT_ROW;
+    
+    // Take over a row that is free, ours, expired, or (with an unlimited last argument) overdue
+    private static final String CLAIM_PLAYER = 
+        "UPDATE payday_data SET owner = ?, lease_until = ? WHERE uuid = ? AND version = ? AND (owner IS NULL OR owner = ? OR lease_until < ?)";
+    
+    private static final String RELEASE_PLAYER = """
+        UPDATE payday_data SET
+            player_name = ?, minutes_played = ?, pending_micros = ?, last_updated = ?, total_paydays = ?, carried_millis = ?,
+            version = version + 1, owner = NULL, lease_until = 0
+        WHERE uuid = ? AND version = ? AND owner = ?
+        """;
+    
+    // A claim whose load finished after the player left, nothing was written under it
+    private static final String RELEASE_CLAIM =
+        "UPDATE payday_data SET owner = NULL, lease_until = 0 WHERE uuid = ? AND version = ? AND owner = ?";
+    
+    private static final String RENEW_LEASES = 
+        "UPDATE payday_data SET lease_until = ? WHERE owner = ?";
+    
+    private static final String RELEASE_ALL = 
+        "UPDATE payday_data SET owner = NULL, lease_until = 0 WHERE owner = ?";
+    
+    private static final String DELETE_PLAYER =
+        "DELETE FROM payday_data WHERE uuid = ?";
+    
+    private static final String SELECT_STATS = """
+        SELECT COUNT(*), COUNT(CASE WHEN pending_micros > 0 THEN 1 END),
+               COALESCE(SUM(pending_micros), 0), COALESCE(SUM(total_paydays), 0)
+        FROM payday_data
+        """;
+    
+    public MySQLDataManager(VaultPayday plugin, ConfigManager configManager) {
+        this.plugin = plugin;
+        this.configManager = configManager;
+        this.executor = new StorageExecutor(plugin, "MySQL", configManager);
+        this.batchRows = configManager.getMysqlBatchRows();
+        this.fullBatchUpsert = upsertStatement(batchRows);
+        this.serverId = configManager.getMysqlServerId();
+        this.leaseMillis = configManager.getMysqlLeaseSeconds() * 1000L;
+        this.leaseRenewal = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "VaultPayday-MySQL-Lease");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    @Override
+    public CompletableFuture<Void> initialize() {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("VaultPayday-MySQL");
+        config.setJdbcUrl("jdbc:mysql://" + configManager.getMysqlHost() + ":" + configManager.getMysqlPort() +
+            "/" + configManager.getMysqlDatabase());
+        config.setUsername(configManager.getMysqlUsername());
+        config.setPassword(configManager.getMysqlPassword());
+        config.setMaximumPoolSize(configManager.getMysqlMaximumPoolSize());
+        config.setMinimumIdle(configManager.getMysqlMinimumIdle());
+        config.setConnectionTimeout(configManager.getMysqlConnectionTimeoutMillis());
+        config.setMaxLifetime(configManager.getMysqlMaxLifetimeMillis());
+        
+        // Driver-side statement cache and batch rewriting
+        config.addDataSourceProperty("useSSL", configManager.isMysqlUseSsl());
+        config.addDataSourceProperty("cachePrepStmts", true);
+        config.addDataSourceProperty("prepStmtCacheSize", 64);
+        config.addDataSourceProperty("prepStmtCacheSqlLimit", 2048);
+        config.addDataSourceProperty("useServerPrepStmts", true);
+        config.addDataSourceProperty("rewriteBatchedStatements", true);
+        config.addDataSourceProperty("characterEncoding", "utf8");
+        
+        return initialize(config);
+    }
+    
+    /**
+     * Open the pool and create or migrate the table, the tests point this at H2 in MySQL mode
+     */
+    CompletableFuture<Void> initialize(HikariConfig config) {
+        return executor.runWrite(() -> {
+            try {
+                dataSource = new HikariDataSource(config);
+                
+                try (Connection connection = dataSource.getConnection();
+                     Statement stmt = connection.createStatement()) {
+                    stmt.execute(CREATE_TABLE);
+                    
+                    // Tables created before the handoff columns existed
+                    try (ResultSet rs = connection.getMetaData().getColumns(connection.getCatalog(), null, "payday_data", "version")) {
+                        if (!rs.next()) {
+                            stmt.execute(MIGRATE_ADD_HANDOFF_COLUMNS);
+                            plugin.getLogger().info("Added handoff columns to payday_data");
+                        }
+                    }
+                    try (ResultSet rs = connection.getMetaData().getColumns(connection.getCatalog(), null, "payday_data", "carried_millis")) {
+                        if (!rs.next()) {
+                            stmt.execute(MIGRATE_ADD_CARRIED_MILLIS);
+                        }
+                    }
+                }
+                
+                // Keep the claims on our online players alive
+                long renewMillis = leaseMillis / 3;
+                leaseRenewal.scheduleWithFixedDelay(() -> executor.runWrite(this::renewLeases),
+                    renewMillis, renewMillis, TimeUnit.MILLISECONDS);
+                
+                plugin.getLogger().info("MySQL database initialized: " + configManager.getMysqlHost() + ":" +
+                    configManager.getMysqlPort() + "/" + configManager.getMysqlDatabase() + " (server id " + serverId + ")");
+            
+            } catch (Exception e) {
+                plugin.getLogger().severe("Failed to initialize MySQL database: " + e.getMessage());
+                throw new RuntimeException(e);
+            }
+        });
+    }
+    
+    @Override
+    public CompletableFuture<PaydayData> loadPlayerData(UUID playerUUID, String playerName) {
+        return acquire(playerUUID, playerName, System.currentTimeMillis() + configManager.getMysqlHandoffWaitMillis());
+    }
+    
+    /**
+     * Load and claim the player, polling while another server still holds them
+     * Runs on the writer so it is ordered after this server's own release of the same player
+     */
+    private CompletableFuture<PaydayData> acquire(UUID playerUUID, String playerName, long deadline) {
+        return executor.supplyWrite(() -> tryAcquire(playerUUID, playerName, System.currentTimeMillis() >= deadline))
+            .thenCompose(data -> {
+                if (data != null) {
+                    return CompletableFuture.completedFuture(data);
+                }
+                
+                // Held elsewhere or claimed concurrently, wait for the final save without blocking a storage thread
+                return CompletableFuture.runAsync(() -> {}, CompletableFuture.delayedExecutor(HANDOFF_POLL_MILLIS, TimeUnit.MILLISECONDS))
+                    .thenCompose(ignored -> acquire(playerUUID, playerName, deadline));
+            });
+    }
+    
+    /**
+     * One attempt to load and claim the player
+     * @param overdue The wait is over, take the player from a server that never released them
+     * @return The claimed data, or null to try again
+     */
+    private PaydayData tryAcquire(UUID playerUUID, String playerName, boolean overdue) {
+        long now = System.currentTimeMillis();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(SELECT_PLAYER)) {
+            stmt.setString(1, playerUUID.toString());
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next()) {
+                    // Player not found, create and claim new data
+                    PaydayData newData = new PaydayData(playerUUID, playerName);
+                    try (PreparedStatement insert = connection.prepareStatement(INSERT_PLAYER)) {
+                        bindRow(insert, 0, newData, 0L, now + leaseMillis);
+                        return insert.executeUpdate() > 0 ? newData : null;
+                    }
+                }
+                
+                String owner = rs.getString("owner");
+                boolean heldElsewhere = owner != null && !owner.equals(serverId) && rs.getLong("lease_until") > now;
+                if (heldElsewhere && !overdue) {
+                    return null;
+                }
+                if (heldElsewhere) {
+                    plugin.getLogger().warning("Server " + owner + " did not hand off " + playerName + " in time, taking over");
+                }
+                
+                PaydayData data = readPlayer(rs);
+                data.setVersion(rs.getLong("version"));
+                
+                try (PreparedStatement claim = connection.prepareStatement(CLAIM_PLAYER)) {
+                    claim.setString(1, serverId);
+                    claim.setLong(2, now + leaseMillis);
+                    claim.setString(3, playerUUID.toString());
+                    claim.setLong(4, data.getVersion());
+                    claim.setString(5, serverId);
+                    claim.setLong(6, overdue ? Long.MAX_VALUE : now);
+                    return claim.executeUpdate() > 0 ? data : null;
+                }
+            }
+        } catch (SQLException e) {
+            plugin.getLogger().severe("Failed to load player data for " + playerUUID + ": " + e.getMessage());
+            throw new RuntimeException(e);
+        }
+    }
+    
+    @Override
+    public CompletableFuture<Void> savePlayerData(PaydayData data) {
+        return savePlayerDataBatch(List.of(data));
+    }
+    
+    @Override
+    public CompletableFuture<Void> savePlayerDataBatch(Collection<PaydayData> batch) {
+        return executor.runWrite(() -> {
+            if (batch.isEmpty()) {
+                return;
+            }
+            
+            List<PaydayData> rows = new ArrayList<>(batch);
+            try (Connection connection = dataSource.getConnection()) {
+                connection.setAutoCommit(false);
+                try {
+                    Map<UUID, Long> written = lockWrites(connection, rows);
+                    long leaseUntil = System.currentTimeMillis() + leaseMillis;
+                    
+                    // Full chunks share one statement, the remainder gets its own
+                    int fullChunks = rows.size() / batchRows;
+                    if (fullChunks > 0) {
+                        try (PreparedStatement stmt = connection.prepareStatement(fullBatchUpsert)) {
+                            for (int chunk = 0; chunk < fullChunks; chunk++) {
+                                bindChunk(stmt, rows, chunk * batchRows, batchRows, leaseUntil);
+                                stmt.executeUpdate();
+                            }
+                        }
+                    }
+                    
+                    int remainder = rows.size() - fullChunks * batchRows;
+                    if (remainder > 0) {
+                        try (PreparedStatement stmt = connection.prepareStatement(upsertStatement(remainder))) {
+                            bindChunk(stmt, rows, fullChunks * batchRows, remainder, leaseUntil);
+                            stmt.executeUpdate();
+                        }
+                    }
+                    
+                    connection.commit();
+                    
+                    // Only advance after the commit, a rolled back batch is retried at the old version
+                    for (PaydayData data : rows) {
+                        Long version = written.get(data.getPlayerUUID());
+                        if (version != null) {
+                            data.setVersion(version);
+                        } else {
+                            plugin.getLogger().warning("Discarded a stale save for " + data.getPlayerName() +
+                                ", another server has taken the player over");
+                        }
+                    }
+                } catch (SQLException e) {
+                    connection.rollback();
+                    throw e;
+                } finally {
+                    connection.setAutoCommit(true);
+                }
+            
+            } catch (SQLException e) {
+                plugin.getLogger().severe("Failed to save batch of " + batch.size() + " players: " + e.getMessage());
+                throw new RuntimeException(e);
+            }
+        });
+    }
+    
+    /**
+     * Lock the batch's rows and work out which of them will take our write, the upsert silently keeps rows we no
+     * longer own or that are ahead of our copy, and reading them back afterwards can't tell those from our own write
+     * @return The new version of every row that will be written
+     */
+    private Map<UUID, Long> lockWrites(Connection connection, List<PaydayData> rows) throws SQLException {
+        StringBuilder sql = new StringBuilder(LOCK_VERSIONS_PREFIX.length() + rows.size() * 3 + LOCK_VERSIONS_SUFFIX.length())
+            .append(LOCK_VERSIONS_PREFIX).append('(');
+        for (int i = 0; i < rows.size(); i++) {
+            sql.append(i > 0 ? ", ?" : "?");
+        }
+        sql.append(')').append(LOCK_VERSIONS_SUFFIX);
+        
+        // Rows we don't own are kept as -1, rows that don't exist yet are inserted by the upsert
+        Map<UUID, Long> versions = new HashMap<>(rows.size() * 2);
+        try (PreparedStatement stmt = connection.prepareStatement(sql.toString())) {
+            for (int i = 0; i < rows.size(); i++) {
+                stmt.setString(i + 1, rows.get(i).getPlayerUUID().toString());
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    long version = serverId.equals(rs.getString("owner")) ? rs.getLong("version") : -1L;
+                    versions.put(UUID.fromString(rs.getString("uuid")), version);
+                }
+            }
+        }
+        
+        Map<UUID, Long> written = new HashMap<>(rows.size() * 2);
+        for (PaydayData data : rows) {
+            Long version = versions.get(data.getPlayerUUID());
+            if (version == null || version == data.getVersion()) {
+                written.put(data.getPlayerUUID(), data.getVersion() + 1);
+            }
+        }
+        return written;
+    }
+    
+    /**
+     * Write the leaving player's final state and free the row in one conditional statement
+     */
+    @Override
+    public CompletableFuture<Void> releasePlayer(PaydayData data) {
+        return executor.runWrite(() -> {
+            try (Connection connection = dataSource.getConnection();
+                 PreparedStatement stmt = connection.prepareStatement(RELEASE_PLAYER)) {
+                stmt.setString(1, data.getPlayerName());
+                stmt.setLong(2, data.getMinutesPlayed());
+                stmt.setLong(3, data.getPendingMicros());
+                stmt.setLong(4, data.getLastUpdated());
+                stmt.setInt(5, data.getTotalPaydays());
+                stmt.setLong(6, data.getCarriedMillis());
+                stmt.setString(7, data.getPlayerUUID().toString());
+                stmt.setLong(8, data.getVersion());
+                stmt.setString(9, serverId);
+                
+                if (stmt.executeUpdate() > 0) {
+                    data.setVersion(data.getVersion() + 1);
+                } else {
+                    plugin.getLogger().warning("Discarded the final save for " + data.getPlayerName() +
+                        ", another server has taken the player over");
+                }
+            
+            } catch (SQLException e) {
+                plugin.getLogger().severe("Failed to release player data for " +
+                    data.getPlayerUUID() + ": " + e.getMessage());
+                throw new RuntimeException(e);
+            }
+        });
+    }
+    
+    @Override
+    public CompletableFuture<Void> releaseClaim(PaydayData data) {
+        return executor.runWrite(() -> {
+            try (Connection connection = dataSource.getConnection();
+                 PreparedStatement stmt = connection.prepareStatement(RELEASE_CLAIM)) {
+                stmt.setString(1, data.getPlayerUUID().toString());
+                stmt.setLong(2, data.getVersion());
+                stmt.setString(3, serverId);
+                stmt.executeUpdate();
+            
+            } catch (SQLException e) {
+                plugin.getLogger().severe("Failed to release the claim on " +
+                    data.getPlayerUUID() + ": " + e.getMessage());
+                throw new RuntimeException(e);
+            }
+        });
+    }
+    
+    @Override
+    public boolean isShared() {
+        return true;
+    }
+    
+    /**
+     * Extend the lease on every player this server holds, runs on the writer thread
+     */
+    private void renewLeases() {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(RENEW_LEASES)) {
+            stmt.setLong(1, System.currentTimeMillis() + leaseMillis);
+            stmt.setString(2, serverId);
+            stmt.executeUpdate();
+        
+        } catch (SQLException e) {
+            plugin.getLogger().warning("Failed to renew player leases: " + e.getMessage());
+        }
+    }
+    
+    @Override
+    public CompletableFuture<Void> deletePlayerData(UUID playerUUID) {
+        return executor.runWrite(() -> {
+            try (Connection connection = dataSource.getConnection();
+                 PreparedStatement stmt = connection.prepareStatement(DELETE_PLAYER)) {
+                stmt.setString(1, playerUUID.toString());
+                int affectedRows = stmt.executeUpdate();
+                
+                if (affectedRows > 0) {
+                    plugin.getLogger().info("Deleted data for player " + playerUUID);
+                } else {
+                    plugin.getLogger().warning("No data found to delete for player " + playerUUID);
+                }
+            
+            } catch (SQLException e) {
+                plugin.getLogger().severe("Failed to delete player data for " +
+                    playerUUID + ": " + e.getMessage());
+                throw new RuntimeException(e);
+            }
+        });
+    }
+    
+    /**
+     * Stream every row, other servers keep changing the table so this is a point-in-time view
+     */
+    @Override
+    public CompletableFuture<Void> forEachPlayer(Consumer<PaydayData> action) {
+        return executor.supplyRead(() -> {
+            try (Connection connection = dataSource.getConnection();
+                 Statement stmt = connection.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                stmt.setFetchSize(Integer.MIN_VALUE); // Connector/J streams rows with this fetch size
+                
+                try (ResultSet rs = stmt.executeQuery(SELECT_ALL_PLAYERS)) {
+                    while (rs.next()) {
+                        action.accept(readPlayer(rs));
+                    }
+                }
+                return null;
+            
+            } catch (SQLException e) {
+                plugin.getLogger().severe("Failed to scan player data: " + e.getMessage());
+                throw new RuntimeException(e);
+            }
+        });
+    }
+    
+    @Override
+    public CompletableFuture<StatisticsSnapshot> getStatisticsSnapshot() {
+        StatisticsSnapshot cached = cachedStatistics;
+        if (cached != null && System.currentTimeMillis() < statisticsExpireAt) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        
+        return executor.supplyRead(() -> {
+            try (Connection connection = dataSource.getConnection();
+                 PreparedStatement stmt = connection.prepareStatement(SELECT_STATS);
+                 ResultSet rs = stmt.executeQuery()) {
+                
+                StatisticsSnapshot snapshot = rs.next()
+                    ? new StatisticsSnapshot(rs.getInt(1), rs.getInt(2), rs.getLong(3), rs.getLong(4))
+                    : new StatisticsSnapshot(0, 0, 0L, 0L);
+                cachedStatistics = snapshot;
+                statisticsExpireAt = System.currentTimeMillis() + STATISTICS_TTL_MILLIS;
+                return snapshot;
+            
+            } catch (SQLException e) {
+                plugin.getLogger().severe("Failed to get statistics: " + e.getMessage());
+                return new StatisticsSnapshot(0, 0, 0L, 0L);
+            }
+        });
+    }
+    
+    @Override
+    public CompletableFuture<Void> close() {
+        // Let queued reads and writes finish before the pool goes away
+        leaseRenewal.shutdownNow();
+        executor.shutdown();
+        
+        if (dataSource != null && !dataSource.isClosed()) {
+            // Free anything the final saves didn't, so other servers don't wait for our leases to run out
+            try (Connection connection = dataSource.getConnection();
+                 PreparedStatement stmt = connection.prepareStatement(RELEASE_ALL)) {
+                stmt.setString(1, serverId);
+                stmt.executeUpdate();
+            } catch (SQLException e) {
+                plugin.getLogger().warning("Failed to release player leases: " + e.getMessage());
+            }
+            
+            dataSource.close();
+            plugin.getLogger().info("MySQL connection pool closed");
+        }
+        
+        return CompletableFuture.completedFuture(null);
+    }
+    
+    /**
+     * Dump the table as SQL statements, read in one consistent transaction and streamed row by row
+     * Restored rows come back unclaimed, so any server can pick the players up again
+     */
+    @Override
+    public void writeSnapshot(File target) throws Exception {
+        try (Connection connection = dataSource.getConnection();
+             BufferedWriter out = Files.newBufferedWriter(target.toPath(), StandardCharsets.UTF_8)) {
+            connection.setAutoCommit(false);
+            connection.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+            
+            try (Statement stmt = connection.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                stmt.setFetchSize(Integer.MIN_VALUE); // Connector/J streams rows with this fetch size
+                
+                out.write(CREATE_TABLE.strip());
+                out.write(";\n");
+                try (ResultSet rs = stmt.executeQuery("SELECT * FROM payday_data")) {
+                    while (rs.next()) {
+                        out.write("REPLACE INTO payday_data " + COLUMNS + " VALUES ('" + rs.getString("uuid") + "', '" +
+                            rs.getString("player_name").replace("'", "''") + "', " +
+                            rs.getLong("minutes_played") + ", " + rs.getLong("pending_micros") + ", " +
+                            rs.getLong("last_updated") + ", " + rs.getInt("total_paydays") + ", " +
+                            rs.getLong("version") + ", NULL, 0, " + rs.getLong("carried_millis") + ");\n");
+                    }
+                }
+            } finally {
+                connection.commit();
+                connection.setAutoCommit(true);
+            }
+        }
+    }
+    
+    @Override
+    public String getSnapshotExtension() {
+        return ".sql";
+    }
+    
+    @Override
+    public StorageExecutor getStorageExecutor() {
+        return executor;
+    }
+    
+    /**
+     * Build an upsert for the given number of rows
+     */
+    private static String upsertStatement(int rows) {
+        StringBuilder sql = new StringBuilder(UPSERT_PREFIX.length() + rows * (UPSERT_ROW.length() + 2) + UPSERT_SUFFIX.length());
+        sql.append(UPSERT_PREFIX);
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(UPSERT_ROW);
+        }
+        return sql.append(UPSERT_SUFFIX).toString();
+    }
+    
+    private void bindChunk(PreparedStatement stmt, List<PaydayData> rows, int from, int count, long leaseUntil) throws SQLException {
+        for (int i = 0; i < count; i++) {
+            PaydayData data = rows.get(from + i);
+            bindRow(stmt, i, data, data.getVersion() + 1, leaseUntil);
+        }
+    }
+    
+    private void bindRow(PreparedStatement stmt, int row, PaydayData data, long version, long leaseUntil) throws SQLException {
+        int base = row * 10;
+        stmt.setString(base + 1, data.getPlayerUUID().toString());
+        stmt.setString(base + 2, data.getPlayerName());
+        stmt.setLong(base + 3, data.getMinutesPlayed());
+        stmt.setLong(base + 4, data.getPendingMicros());
+        stmt.setLong(base + 5, data.getLastUpdated());
+        stmt.setInt(base + 6, data.getTotalPaydays());
+        stmt.setLong(base + 7, version);
+        stmt.setString(base + 8, serverId);
+        stmt.setLong(base + 9, leaseUntil);
+        stmt.setLong(base + 10, data.getCarriedMillis());
+    }
+    
+    /**
+     * Read the payday_data row the result set is on
+     */
+    private static PaydayData readPlayer(ResultSet rs) throws SQLException {
+        PaydayData data = new PaydayData(
+            UUID.fromString(rs.getString("uuid")),
+            rs.getString("player_name"),
+            rs.getLong("minutes_played"),
+            rs.getLong("pending_micros"),
+            rs.getLong("last_updated"),
+            rs.getInt("total_paydays")
+        );
+        data.setCarriedMillis(rs.getLong("carried_millis"));
+        return data;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,377 @@
+package me.devupdates.vaultPayday.data;
+
+import me.devupdates.vaultPayday.model.PaydayData;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only binary log of player records, written through a memory-mapped file
+ * Every record carries a CRC32, so a torn tail after a crash is detected and cut off when the log is opened
+ * Compaction writes the live records into the next generation file, which only counts once its header is sealed
+ * Not thread-safe, callers serialize appends and guard reads against compaction
+ * A {@link Snapshot} taken under the caller's lock can be read after releasing it
+ */
+class RecordLog {
+    private static final int MAGIC = 0x5650444C; // "VPDL"
+    private static final int FORMAT_VERSION = 1;
+    private static final int INITIAL_CAPACITY = 1024 * 1024;
+    
+    // Header: magic, format version, generation, sealed flag, reserved
+    static final int HEADER_SIZE = 24;
+    private static final int SEALED_OFFSET = 16;
+    
+    // Record: body length, CRC32 of the body, body
+    private static final int RECORD_OVERHEAD = 8;
+    private static final byte TYPE_PUT = 1;
+    private static final byte TYPE_DELETE = 2;
+    private static final int PUT_FIXED_SIZE = 1 + 16 + 8 + 8 + 8 + 4 + 2; // Type, UUID, counters, name length
+    private static final int CARRIED_SIZE = 8; // After the name, records written before it existed end at the name
+    private static final int DELETE_SIZE = 1 + 16;
+    
+    private final File directory;
+    private final String baseName;
+    private final CRC32 crc = new CRC32();
+    private ByteBuffer scratch = ByteBuffer.allocate(256);
+    
+    private FileChannel channel;
+    private volatile MappedByteBuffer buffer;
+    private File file;
+    private long generation;
+    private int writePosition;
+    
+    /**
+     * Receives every valid record while the log is opened, in write order
+     */
+    interface RecordVisitor {
+        /**
+         * @param offset Offset of a put record, or -1 if the player was deleted
+         */
+        void visit(UUID playerUUID, int offset);
+    }
+    
+    /**
+     * The given records as of one point in time, readable without the caller's lock
+     * Records are never changed in place and compaction maps a new file, so the captured mapping stays valid
+     */
+    record Snapshot(ByteBuffer buffer, long generation, int[] offsets) {
+        PaydayData read(int index) {
+            return decode(buffer, offsets[index]);
+        }
+        
+        int size() {
+            return offsets.length;
+        }
+    }
+    
+    RecordLog(File directory, String baseName) {
+        this.directory = directory;
+        this.baseName = baseName;
+    }
+    
+    /**
+     * Open the newest sealed generation and replay it
+     * @return true if a torn tail was found and cut off
+     */
+    boolean open(RecordVisitor visitor) throws IOException {
+        long newest = 0;
+        for (long candidate : listGenerations()) {
+            if (candidate > newest && isSealed(generationFile(candidate))) {
+                newest = candidate;
+            }
+        }
+        
+        if (newest == 0) {
+            newest = 1;
+            writeGeneration(generationFile(newest), newest, ByteBuffer.allocate(0), new int[0]);
+        }
+        
+        // Older generations were compacted away, unsealed newer ones are from an interrupted compaction
+        for (long other : listGenerations()) {
+            if (other != newest) {
+                generationFile(other).delete();
+            }
+        }
+        
+        mapGeneration(newest);
+        return replay(visitor);
+    }
+    
+    private boolean replay(RecordVisitor visitor) {
+        MappedByteBuffer map = buffer;
+        int position = HEADER_SIZE;
+        
+        while (position + RECORD_OVERHEAD <= map.capacity()) {
+            int length = map.getInt(position);
+            if (length == 0) {
+                writePosition = position;
+                return false; // Clean end of the log
+            }
+            if (length < DELETE_SIZE || position + RECORD_OVERHEAD + length > map.capacity() ||
+                map.getInt(position + 4) != checksum(map, position + RECORD_OVERHEAD, length)) {
+                break;
+            }
+            
+            UUID playerUUID = new UUID(map.getLong(position + 9), map.getLong(position + 17));
+            visitor.visit(playerUUID, map.get(position + RECORD_OVERHEAD) == TYPE_PUT ? position : -1);
+            position += RECORD_OVERHEAD + length;
+        }
+        
+        // Anything past the last valid record is torn, clear it so stale records can't resurface after new appends
+        writePosition = position;
+        for (int i = position; i < map.capacity(); i++) {
+            map.put(i, (byte) 0);
+        }
+        map.force();
+        return position + RECORD_OVERHEAD <= map.capacity();
+    }
+    
+    /**
+     * Append the player's current state
+     * @return Offset of the new record
+     */
+    int appendPut(PaydayData data) throws IOException {
+        byte[] name = data.getPlayerName().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer body = scratch(PUT_FIXED_SIZE + name.length + CARRIED_SIZE);
+        body.put(TYPE_PUT)
+            .putLong(data.getPlayerUUID().getMostSignificantBits())
+            .putLong(data.getPlayerUUID().getLeastSignificantBits())
+            .putLong(data.getMinutesPlayed())
+            .putLong(data.getPendingMicros())
+            .putLong(data.getLastUpdated())
+            .putInt(data.getTotalPaydays())
+            .putShort((short) name.length)
+            .put(name)
+            .putLong(data.getCarriedMillis());
+        return append(body);
+    }
+    
+    /**
+     * Append a tombstone for the player
+     */
+    void appendDelete(UUID playerUUID) throws IOException {
+        ByteBuffer body = scratch(DELETE_SIZE);
+        body.put(TYPE_DELETE)
+            .putLong(playerUUID.getMostSignificantBits())
+            .putLong(playerUUID.getLeastSignificantBits());
+        append(body);
+    }
+    
+    private int append(ByteBuffer body) throws IOException {
+        int length = body.position();
+        ensureCapacity(RECORD_OVERHEAD + length);
+        
+        MappedByteBuffer map = buffer;
+        int offset = writePosition;
+        crc.reset();
+        crc.update(body.array(), 0, length);
+        
+        // Length goes in last, a record is only visible to replay once it is complete
+        map.put(offset + RECORD_OVERHEAD, body.array(), 0, length);
+        map.putInt(offset + 4, (int) crc.getValue());
+        map.putInt(offset, length);
+        
+        writePosition += RECORD_OVERHEAD + length;
+        return offset;
+    }
+    
+    /**
+     * Decode the put record at the given offset
+     */
+    PaydayData read(int offset) {
+        return decode(buffer, offset);
+    }
+    
+    private static PaydayData decode(ByteBuffer map, int offset) {
+        int body = offset + RECORD_OVERHEAD;
+        
+        byte[] name = new byte[map.getShort(body + PUT_FIXED_SIZE - 2)];
+        map.get(body + PUT_FIXED_SIZE, name);
+        PaydayData data = new PaydayData(
+            new UUID(map.getLong(body + 1), map.getLong(body + 9)),
+            new String(name, StandardCharsets.UTF_8),
+            map.getLong(body + 17),
+            map.getLong(body + 25),
+            map.getLong(body + 33),
+            map.getInt(body + 41)
+        );
+        if (map.getInt(offset) >= PUT_FIXED_SIZE + name.length + CARRIED_SIZE) {
+            data.setCarriedMillis(map.getLong(body + PUT_FIXED_SIZE + name.length));
+        }
+        return data;
+    }
+    
+    /**
+     * Size of the record at the given offset, overhead included
+     */
+    int recordSize(int offset) {
+        return recordSize(buffer, offset);
+    }
+    
+    private static int recordSize(ByteBuffer map, int offset) {
+        return RECORD_OVERHEAD + map.getInt(offset);
+    }
+    
+    /**
+     * Flush written records to disk
+     */
+    void force() {
+        buffer.force();
+    }
+    
+    /**
+     * Rewrite the given records into the next generation and switch to it
+     * @return New offsets, in the order of the given ones
+     */
+    int[] compact(int[] liveOffsets) throws IOException {
+        long next = generation + 1;
+        File previous = file;
+        int[] offsets = writeGeneration(generationFile(next), next, buffer, liveOffsets);
+        
+        channel.close();
+        mapGeneration(next);
+        writePosition = offsets.length == 0 ? HEADER_SIZE : offsets[offsets.length - 1] + recordSize(offsets[offsets.length - 1]);
+        
+        // May fail while the old mapping is still alive on some platforms, open() removes it next time
+        previous.delete();
+        return offsets;
+    }
+    
+    /**
+     * Capture the given records for reading outside the caller's lock
+     */
+    Snapshot snapshot(int[] liveOffsets) {
+        return new Snapshot(buffer, generation, liveOffsets);
+    }
+    
+    /**
+     * Write a snapshot into a standalone sealed log, used for backups
+     * Only touches the snapshot, so it needs no lock
+     */
+    static void copyTo(File target, Snapshot snapshot) throws IOException {
+        writeGeneration(target, snapshot.generation(), snapshot.buffer(), snapshot.offsets());
+    }
+    
+    /**
+     * Write a complete generation file, sealing the header only after the records are on disk
+     */
+    private static int[] writeGeneration(File target, long targetGeneration, ByteBuffer source, int[] liveOffsets) throws IOException {
+        int[] offsets = new int[liveOffsets.length];
+        
+        try (FileChannel out = FileChannel.open(target.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+                .putInt(MAGIC).putInt(FORMAT_VERSION).putLong(targetGeneration).putInt(0).putInt(0)
+                .flip();
+            out.write(header);
+            
+            int position = HEADER_SIZE;
+            for (int i = 0; i < liveOffsets.length; i++) {
+                int size = recordSize(source, liveOffsets[i]);
+                offsets[i] = position;
+                out.write(source.slice(liveOffsets[i], size));
+                position += size;
+            }
+            out.force(true);
+            
+            out.write(ByteBuffer.allocate(4).putInt(0, 1), SEALED_OFFSET);
+            out.force(true);
+        }
+        return offsets;
+    }
+    
+    private void mapGeneration(long target) throws IOException {
+        file = generationFile(target);
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = Math.max(INITIAL_CAPACITY, channel.size());
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Log file too large to map: " + file.getName());
+        }
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        generation = target;
+    }
+    
+    private void ensureCapacity(int needed) throws IOException {
+        long required = (long) writePosition + needed;
+        if (required <= buffer.capacity()) {
+            return;
+        }
+        
+        long capacity = Math.max(required, buffer.capacity() * 2L);
+        if (capacity > Integer.MAX_VALUE) {
+            throw new IOException("Log file full, compaction required: " + file.getName());
+        }
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+    }
+    
+    private ByteBuffer scratch(int size) {
+        if (scratch.capacity() < size) {
+            scratch = ByteBuffer.allocate(Integer.highestOneBit(size) << 1);
+        }
+        return scratch.clear();
+    }
+    
+    private int checksum(MappedByteBuffer map, int offset, int length) {
+        crc.reset();
+        crc.update(map.slice(offset, length));
+        return (int) crc.getValue();
+    }
+    
+    private boolean isSealed(File candidate) {
+        try (FileChannel in = FileChannel.open(candidate.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            if (in.read(header, 0) < HEADER_SIZE) {
+                return false;
+            }
+            return header.getInt(0) == MAGIC && header.getInt(4) == FORMAT_VERSION && header.getInt(SEALED_OFFSET) == 1;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+    
+    private long[] listGenerations() {
+        String prefix = baseName + ".";
+        File[] files = directory.listFiles((dir, name) -> name.startsWith(prefix) && name.endsWith(".log"));
+        if (files == null) {
+            return new long[0];
+        }
+        
+        long[] generations = new long[files.length];
+        int count = 0;
+        for (File candidate : files) {
+            String name = candidate.getName();
+            try {
+                generations[count++] = Long.parseLong(name.substring(prefix.length(), name.length() - 4));
+            } catch (NumberFormatException e) {
+                count--; // Not one of ours
+            }
+        }
+        return Arrays.copyOf(generations, count);
+    }
+    
+    private File generationFile(long target) {
+        return new File(directory, baseName + "." + target + ".log");
+    }
+    
+    /**
+     * Flush and close the file, the log can't be used afterwards
+     */
+    void close() throws IOException {
+        if (channel != null && channel.isOpen()) {
+            buffer.force();
+            channel.close();
+        }
+    }
+    
+    // Getters
+    int getWritePosition() { return writePosition; }
+    long getGeneration() { return generation; }
+}
\ No newline at end of file
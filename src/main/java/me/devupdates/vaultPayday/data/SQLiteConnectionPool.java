@@ -0,0 +1,216 @@
+package me.devupdates.vaultPayday.data;
+
+import me.devupdates.vaultPayday.VaultPayday;
+import me.devupdates.vaultPayday.manager.ConfigManager;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed set of tuned SQLite connections: one writer and a few query-only readers
+ * Every connection keeps its prepared statements, so hot queries are compiled once per connection
+ */
+public class SQLiteConnectionPool {
+    private final VaultPayday plugin;
+    private final String url;
+    private final ConfigManager configManager;
+    private final int readConnections;
+    
+    // The writer is normally only used by the writer thread, the lock covers back-pressure caller runs
+    private final ReentrantLock writerLock = new ReentrantLock();
+    private PooledConnection writer;
+    private final BlockingQueue<PooledConnection> readers;
+    private int openReaders; // Readers handed to the queue, borrowed ones included
+    
+    /**
+     * A connection with its own prepared statement cache, only ever used by one thread at a time
+     */
+    public static final class PooledConnection {
+        private final Connection connection;
+        private final Map<String, PreparedStatement> statements = new HashMap<>();
+        
+        private PooledConnection(Connection connection) {
+            this.connection = connection;
+        }
+        
+        /**
+         * Get the cached statement for the given SQL, preparing it on first use
+         * The statement is owned by the cache and must not be closed by the caller
+         */
+        public PreparedStatement prepare(String sql) throws SQLException {
+            PreparedStatement stmt = statements.get(sql);
+            if (stmt == null) {
+                stmt = connection.prepareStatement(sql);
+                statements.put(sql, stmt);
+            } else {
+                stmt.clearParameters();
+            }
+            return stmt;
+        }
+        
+        public Connection getConnection() {
+            return connection;
+        }
+        
+        private void close() throws SQLException {
+            for (PreparedStatement stmt : statements.values()) {
+                stmt.close();
+            }
+            statements.clear();
+            connection.close();
+        }
+    }
+    
+    public SQLiteConnectionPool(VaultPayday plugin, String databasePath, ConfigManager configManager) {
+        this.plugin = plugin;
+        this.url = "jdbc:sqlite:" + databasePath;
+        this.configManager = configManager;
+        this.readConnections = configManager.getSqliteReadConnections();
+        this.readers = new ArrayBlockingQueue<>(readConnections);
+    }
+    
+    /**
+     * Open the writer and then the readers, the writer sets the journal mode before anyone reads
+     */
+    public void open() throws SQLException {
+        writer = new PooledConnection(openConnection(true, false));
+        for (int i = 0; i < readConnections; i++) {
+            readers.add(new PooledConnection(openConnection(false, true)));
+            openReaders++;
+        }
+        
+        plugin.getLogger().info("SQLite pool opened (1 writer, " + readConnections + " readers, journal_mode " +
+            configManager.getSqliteJournalMode() + ", synchronous " + configManager.getSqliteSynchronous() + ")");
+    }
+    
+    /**
+     * Open a standalone connection outside the pool, used for backup snapshots
+     * The caller owns and closes it, in WAL mode its reads never block the writer
+     */
+    public Connection openSnapshotConnection() throws SQLException {
+        return openConnection(false, false);
+    }
+    
+    private Connection openConnection(boolean writer, boolean readOnly) throws SQLException {
+        Connection connection = DriverManager.getConnection(url);
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("PRAGMA busy_timeout = " + configManager.getSqliteBusyTimeoutMillis());
+            if (writer) {
+                // Persistent in the file for WAL, readers pick it up from there
+                stmt.execute("PRAGMA journal_mode = " + configManager.getSqliteJournalMode());
+            }
+            stmt.execute("PRAGMA synchronous = " + configManager.getSqliteSynchronous());
+            stmt.execute("PRAGMA cache_size = -" + configManager.getSqliteCacheSizeKb()); // Negative means KiB
+            stmt.execute("PRAGMA mmap_size = " + configManager.getSqliteMmapSizeMb() * 1024L * 1024L);
+            stmt.execute("PRAGMA temp_store = MEMORY");
+            if (readOnly) {
+                stmt.execute("PRAGMA query_only = ON");
+            }
+        } catch (SQLException e) {
+            connection.close();
+            throw e;
+        }
+        connection.setAutoCommit(true);
+        return connection;
+    }
+    
+    /**
+     * Lock and return the writer connection, must be paired with releaseWriter
+     */
+    public PooledConnection acquireWriter() {
+        writerLock.lock();
+        return writer;
+    }
+    
+    public void releaseWriter() {
+        writerLock.unlock();
+    }
+    
+    /**
+     * Borrow a reader connection, waiting if all are in use, must be paired with releaseReader
+     */
+    public PooledConnection acquireReader() {
+        try {
+            return readers.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a SQLite reader", e);
+        }
+    }
+    
+    public void releaseReader(PooledConnection reader) {
+        readers.offer(reader);
+    }
+    
+    /**
+     * Check if the writer connection is still usable
+     */
+    public boolean isValid() {
+        writerLock.lock();
+        try {
+            return writer != null && !writer.getConnection().isClosed() && writer.getConnection().isValid(5);
+        } catch (SQLException e) {
+            return false;
+        } finally {
+            writerLock.unlock();
+        }
+    }
+    
+    /**
+     * Close every connection and open a fresh set, waits for borrowed readers to come back
+     */
+    public void reopen() throws SQLException {
+        writerLock.lock();
+        try {
+            closeAll();
+            open();
+        } finally {
+            writerLock.unlock();
+        }
+    }
+    
+    /**
+     * Close every connection, waits for borrowed readers to come back
+     */
+    public void close() throws SQLException {
+        writerLock.lock();
+        try {
+            closeAll();
+        } finally {
+            writerLock.unlock();
+        }
+    }
+    
+    private void closeAll() throws SQLException {
+        List<PooledConnection> connections = new ArrayList<>(readConnections + 1);
+        for (; openReaders > 0; openReaders--) {
+            connections.add(acquireReader());
+        }
+        if (writer != null) {
+            connections.add(writer);
+            writer = null;
+        }
+        
+        SQLException failure = null;
+        for (PooledConnection connection : connections) {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                failure = e;
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
\ No newline at end of file
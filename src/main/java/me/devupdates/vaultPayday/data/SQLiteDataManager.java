@@ -1,12 +1,18 @@
 package me.devupdates.vaultPayday.data;
 
 import me.devupdates.vaultPayday.VaultPayday;
+import me.devupdates.vaultPayday.data.SQLiteConnectionPool.PooledConnection;
+import me.devupdates.vaultPayday.manager.ConfigManager;
 import me.devupdates.vaultPayday.model.PaydayData;
+import me.devupdates.vaultPayday.util.Money;
 
 import java.io.File;
 import java.sql.*;
+import java.util.Collection;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * SQLite implementation of DataManager
@@ -14,7 +20,16 @@ import java.util.concurrent.CompletableFuture;
 public class SQLiteDataManager implements DataManager {
     private final VaultPayday plugin;
     private final String databasePath;
-    private Connection connection;
+    private final StorageExecutor executor;
+    
+    // One writer and query-only readers, each with its own statement cache
+    private final SQLiteConnectionPool pool;
+    
+    // Schema version stored in PRAGMA user_version
+    // 1: pending balance moved from pending_balance REAL to pending_micros INTEGER
+    // 2: payday_stats aggregates maintained by triggers
+    // 3: carried_millis, sub-minute playtime carried to the next session
+    private static final int SCHEMA_VERSION = 3;
     
     // SQL statements
     private static final String CREATE_TABLE = """
@@ -22,41 +37,111 @@ public class SQLiteDataManager implements DataManager {
             uuid TEXT PRIMARY KEY,
             player_name TEXT NOT NULL,
             minutes_played INTEGER NOT NULL DEFAULT 0,
-            pending_balance REAL NOT NULL DEFAULT 0.0,
+            pending_micros INTEGER NOT NULL DEFAULT 0,
             last_updated INTEGER NOT NULL,
-            total_paydays INTEGER NOT NULL DEFAULT 0
+            total_paydays INTEGER NOT NULL DEFAULT 0,
+            carried_millis INTEGER NOT NULL DEFAULT 0
         )
         """;
     
+    private static final String MIGRATE_ADD_PENDING_MICROS = 
+        "ALTER TABLE payday_data ADD COLUMN pending_micros INTEGER NOT NULL DEFAULT 0";
+    
+    private static final String MIGRATE_COPY_PENDING_MICROS = 
+        "UPDATE payday_data SET pending_micros = CAST(ROUND(pending_balance * " + Money.MICROS_PER_UNIT + ") AS INTEGER)";
+    
+    private static final String MIGRATE_ADD_CARRIED_MILLIS = 
+        "ALTER TABLE payday_data ADD COLUMN carried_millis INTEGER NOT NULL DEFAULT 0";
+    
     private static final String SELECT_PLAYER = 
         "SELECT * FROM payday_data WHERE uuid = ?";
     
+    private static final String SELECT_ALL_PLAYERS = 
+        "SELECT * FROM payday_data";
+    
+    // A true upsert, REPLACE would delete the old row without firing the statistics triggers
     private static final String INSERT_OR_UPDATE_PLAYER = """
-        INSERT OR REPLACE INTO payday_data 
-        (uuid, player_name, minutes_played, pending_balance, last_updated, total_paydays) 
-        VALUES (?, ?, ?, ?, ?, ?)
+        INSERT INTO payday_data 
+        (uuid, player_name, minutes_played, pending_micros, last_updated, total_paydays, carried_millis) 
+        VALUES (?, ?, ?, ?, ?, ?, ?)
+        ON CONFLICT(uuid) DO UPDATE SET
+            player_name = excluded.player_name,
+            minutes_played = excluded.minutes_played,
+            pending_micros = excluded.pending_micros,
+            last_updated = excluded.last_updated,
+            total_paydays = excluded.total_paydays,
+            carried_millis = excluded.carried_millis
         """;
     
     private static final String DELETE_PLAYER = 
         "DELETE FROM payday_data WHERE uuid = ?";
     
-    private static final String COUNT_PLAYERS = 
-        "SELECT COUNT(*) FROM payday_data";
+    private static final String CREATE_STATS_TABLE = """
+        CREATE TABLE IF NOT EXISTS payday_stats (
+            id INTEGER PRIMARY KEY CHECK (id = 1),
+            players INTEGER NOT NULL DEFAULT 0,
+            pending_payouts INTEGER NOT NULL DEFAULT 0,
+            pending_micros INTEGER NOT NULL DEFAULT 0,
+            total_paydays INTEGER NOT NULL DEFAULT 0
+        )
+        """;
+    
+    // One full scan when the aggregates are first created, the triggers keep them current afterwards
+    private static final String SEED_STATS = """
+        INSERT OR REPLACE INTO payday_stats (id, players, pending_payouts, pending_micros, total_paydays)
+        SELECT 1, COUNT(*), COUNT(CASE WHEN pending_micros > 0 THEN 1 END),
+               COALESCE(SUM(pending_micros), 0), COALESCE(SUM(total_paydays), 0)
+        FROM payday_data
+        """;
+    
+    private static final String CREATE_STATS_INSERT_TRIGGER = """
+        CREATE TRIGGER IF NOT EXISTS payday_stats_insert AFTER INSERT ON payday_data
+        BEGIN
+            UPDATE payday_stats SET
+                players = players + 1,
+                pending_payouts = pending_payouts + (NEW.pending_micros > 0),
+                pending_micros = pending_micros + NEW.pending_micros,
+                total_paydays = total_paydays + NEW.total_paydays
+            WHERE id = 1;
+        END
+        """;
+    
+    private static final String CREATE_STATS_UPDATE_TRIGGER = """
+        CREATE TRIGGER IF NOT EXISTS payday_stats_update AFTER UPDATE OF pending_micros, total_paydays ON payday_data
+        BEGIN
+            UPDATE payday_stats SET
+                pending_payouts = pending_payouts + (NEW.pending_micros > 0) - (OLD.pending_micros > 0),
+                pending_micros = pending_micros + NEW.pending_micros - OLD.pending_micros,
+                total_paydays = total_paydays + NEW.total_paydays - OLD.total_paydays
+            WHERE id = 1;
+        END
+        """;
     
-    private static final String COUNT_PENDING_PAYOUTS = 
-        "SELECT COUNT(*) FROM payday_data WHERE pending_balance > 0";
+    private static final String CREATE_STATS_DELETE_TRIGGER = """
+        CREATE TRIGGER IF NOT EXISTS payday_stats_delete AFTER DELETE ON payday_data
+        BEGIN
+            UPDATE payday_stats SET
+                players = players - 1,
+                pending_payouts = pending_payouts - (OLD.pending_micros > 0),
+                pending_micros = pending_micros - OLD.pending_micros,
+                total_paydays = total_paydays - OLD.total_paydays
+            WHERE id = 1;
+        END
+        """;
     
-    private static final String SUM_TOTAL_PAYDAYS = 
-        "SELECT SUM(total_paydays) FROM payday_data";
+    private static final String SELECT_STATS = 
+        "SELECT players, pending_payouts, pending_micros, total_paydays FROM payday_stats WHERE id = 1";
     
-    public SQLiteDataManager(VaultPayday plugin, String filename) {
+    public SQLiteDataManager(VaultPayday plugin, ConfigManager configManager) {
         this.plugin = plugin;
-        this.databasePath = new File(plugin.getDataFolder(), filename).getAbsolutePath();
+        this.databasePath = new File(plugin.getDataFolder(), configManager.getSqliteFilename()).getAbsolutePath();
+        this.executor = new StorageExecutor(plugin, "SQLite", configManager);
+        this.pool = new SQLiteConnectionPool(plugin, databasePath, configManager);
     }
     
     @Override
     public CompletableFuture<Void> initialize() {
-        return CompletableFuture.runAsync(() -> {
+        return executor.runWrite(() -> {
             try {
                 // Create plugin data folder if it doesn't exist
                 if (!plugin.getDataFolder().exists()) {
@@ -66,13 +151,19 @@ public class SQLiteDataManager implements DataManager {
                 // Load SQLite JDBC driver
                 Class.forName("org.sqlite.JDBC");
                 
-                // Create connection
-                connection = DriverManager.getConnection("jdbc:sqlite:" + databasePath);
-                connection.setAutoCommit(true);
+                // Open the writer and readers with the configured pragmas
+                pool.open();
                 
-                // Create table if it doesn't exist
-                try (Statement stmt = connection.createStatement()) {
-                    stmt.execute(CREATE_TABLE);
+                PooledConnection writer = pool.acquireWriter();
+                try {
+                    // Create table if it doesn't exist
+                    try (Statement stmt = writer.getConnection().createStatement()) {
+                        stmt.execute(CREATE_TABLE);
+                    }
+                    
+                    migrateSchema(writer.getConnection());
+                } finally {
+                    pool.releaseWriter();
                 }
                 
                 plugin.getLogger().info("SQLite database initialized: " + databasePath);
@@ -86,20 +177,14 @@ public class SQLiteDataManager implements DataManager {
     
     @Override
     public CompletableFuture<PaydayData> loadPlayerData(UUID playerUUID, String playerName) {
-        return CompletableFuture.supplyAsync(() -> {
-            try (PreparedStatement stmt = connection.prepareStatement(SELECT_PLAYER)) {
+        return read(reader -> {
+            try {
+                PreparedStatement stmt = reader.prepare(SELECT_PLAYER);
                 stmt.setString(1, playerUUID.toString());
                 
                 try (ResultSet rs = stmt.executeQuery()) {
                     if (rs.next()) {
-                        return new PaydayData(
-                            UUID.fromString(rs.getString("uuid")),
-                            rs.getString("player_name"),
-                            rs.getLong("minutes_played"),
-                            rs.getDouble("pending_balance"),
-                            rs.getLong("last_updated"),
-                            rs.getInt("total_paydays")
-                        );
+                        return readPlayer(rs);
                     } else {
                         // Player not found, create new data
                         PaydayData newData = new PaydayData(playerUUID, playerName);
@@ -116,14 +201,16 @@ public class SQLiteDataManager implements DataManager {
     
     @Override
     public CompletableFuture<Void> savePlayerData(PaydayData data) {
-        return CompletableFuture.runAsync(() -> {
-            try (PreparedStatement stmt = connection.prepareStatement(INSERT_OR_UPDATE_PLAYER)) {
+        return write(writer -> {
+            try {
+                PreparedStatement stmt = writer.prepare(INSERT_OR_UPDATE_PLAYER);
                 stmt.setString(1, data.getPlayerUUID().toString());
                 stmt.setString(2, data.getPlayerName());
                 stmt.setLong(3, data.getMinutesPlayed());
-                stmt.setDouble(4, data.getPendingBalance());
+                stmt.setLong(4, data.getPendingMicros());
                 stmt.setLong(5, data.getLastUpdated());
                 stmt.setInt(6, data.getTotalPaydays());
+                stmt.setLong(7, data.getCarriedMillis());
                 
                 stmt.executeUpdate();
                 
@@ -138,10 +225,53 @@ public class SQLiteDataManager implements DataManager {
         });
     }
     
+    @Override
+    public CompletableFuture<Void> savePlayerDataBatch(Collection<PaydayData> batch) {
+        return write(writer -> {
+            if (batch.isEmpty()) {
+                return;
+            }
+            
+            Connection connection = writer.getConnection();
+            try {
+                // Same cached statement as single saves, prepared once per connection
+                PreparedStatement batchUpsertStatement = writer.prepare(INSERT_OR_UPDATE_PLAYER);
+                
+                connection.setAutoCommit(false);
+                try {
+                    for (PaydayData data : batch) {
+                        batchUpsertStatement.setString(1, data.getPlayerUUID().toString());
+                        batchUpsertStatement.setString(2, data.getPlayerName());
+                        batchUpsertStatement.setLong(3, data.getMinutesPlayed());
+                        batchUpsertStatement.setLong(4, data.getPendingMicros());
+                        batchUpsertStatement.setLong(5, data.getLastUpdated());
+                        batchUpsertStatement.setInt(6, data.getTotalPaydays());
+                        batchUpsertStatement.setLong(7, data.getCarriedMillis());
+                        batchUpsertStatement.addBatch();
+                    }
+                    
+                    batchUpsertStatement.executeBatch();
+                    connection.commit();
+                } catch (SQLException e) {
+                    batchUpsertStatement.clearBatch();
+                    connection.rollback();
+                    throw e;
+                } finally {
+                    connection.setAutoCommit(true);
+                }
+            
+            } catch (SQLException e) {
+                plugin.getLogger().severe("Failed to save batch of " + batch.size() + " players: " + e.getMessage());
+                throw new RuntimeException(e);
+            }
+        });
+    }
+    
     @Override
     public CompletableFuture<Void> deletePlayerData(UUID playerUUID) {
-        return CompletableFuture.runAsync(() -> {
-            try (PreparedStatement stmt = connection.prepareStatement(DELETE_PLAYER)) {
+        return write(writer -> {
+            try {
+                PreparedStatement stmt = writer.prepare(DELETE_PLAYER);
                 stmt.setString(1, playerUUID.toString());
                 int affectedRows = stmt.executeUpdate();
                 
@@ -160,124 +290,156 @@ public class SQLiteDataManager implements DataManager {
     }
     
     @Override
-    public CompletableFuture<Integer> getTotalPlayersCount() {
-        return CompletableFuture.supplyAsync(() -> {
-            try (PreparedStatement stmt = connection.prepareStatement(COUNT_PLAYERS);
-                 ResultSet rs = stmt.executeQuery()) {
-                
-                if (rs.next()) {
-                    return rs.getInt(1);
+    public CompletableFuture<Void> forEachPlayer(Consumer<PaydayData> action) {
+        return read(reader -> {
+            try (ResultSet rs = reader.prepare(SELECT_ALL_PLAYERS).executeQuery()) {
+                while (rs.next()) {
+                    action.accept(readPlayer(rs));
                 }
-                return 0;
-                
+                return null;
+            
             } catch (SQLException e) {
-                plugin.getLogger().severe("Failed to get total players count: " + e.getMessage());
-                return 0;
+                plugin.getLogger().severe("Failed to scan player data: " + e.getMessage());
+                throw new RuntimeException(e);
             }
         });
     }
     
     @Override
-    public CompletableFuture<Integer> getPendingPayoutsCount() {
-        return CompletableFuture.supplyAsync(() -> {
-            try (PreparedStatement stmt = connection.prepareStatement(COUNT_PENDING_PAYOUTS);
-                 ResultSet rs = stmt.executeQuery()) {
+    public CompletableFuture<StatisticsSnapshot> getStatisticsSnapshot() {
+        return read(reader -> {
+            try (ResultSet rs = reader.prepare(SELECT_STATS).executeQuery()) {
                 
                 if (rs.next()) {
-                    return rs.getInt(1);
+                    return new StatisticsSnapshot(rs.getInt(1), rs.getInt(2), rs.getLong(3), rs.getLong(4));
                 }
-                return 0;
+                return new StatisticsSnapshot(0, 0, 0L, 0L);
                 
             } catch (SQLException e) {
-                plugin.getLogger().severe("Failed to get pending payouts count: " + e.getMessage());
-                return 0;
+                plugin.getLogger().severe("Failed to get statistics: " + e.getMessage());
+                return new StatisticsSnapshot(0, 0, 0L, 0L);
             }
         });
     }
     
     @Override
-    public CompletableFuture<Long> getTotalPaydaysGiven() {
-        return CompletableFuture.supplyAsync(() -> {
-            try (PreparedStatement stmt = connection.prepareStatement(SUM_TOTAL_PAYDAYS);
-                 ResultSet rs = stmt.executeQuery()) {
-                
-                if (rs.next()) {
-                    return rs.getLong(1);
-                }
-                return 0L;
-                
-            } catch (SQLException e) {
-                plugin.getLogger().severe("Failed to get total paydays given: " + e.getMessage());
-                return 0L;
-            }
-        });
+    public CompletableFuture<Void> close() {
+        // Let queued reads and writes finish before the connection goes away
+        executor.shutdown();
+        
+        try {
+            pool.close();
+            plugin.getLogger().info("SQLite database connections closed");
+        } catch (SQLException e) {
+            plugin.getLogger().severe("Failed to close database connections: " + e.getMessage());
+        }
+        
+        return CompletableFuture.completedFuture(null);
     }
     
     @Override
-    public CompletableFuture<Void> close() {
-        return CompletableFuture.runAsync(() -> {
-            try {
-                if (connection != null && !connection.isClosed()) {
-                    connection.close();
-                    plugin.getLogger().info("SQLite database connection closed");
-                }
-            } catch (SQLException e) {
-                plugin.getLogger().severe("Failed to close database connection: " + e.getMessage());
+    public void writeSnapshot(File target) throws SQLException {
+        // VACUUM INTO reads one consistent snapshot on its own connection, the writer keeps committing meanwhile
+        try (Connection connection = pool.openSnapshotConnection();
+             PreparedStatement stmt = connection.prepareStatement("VACUUM INTO ?")) {
+            stmt.setString(1, target.getAbsolutePath());
+            stmt.execute();
+        }
+    }
+    
+    /**
+     * Bring an existing database up to SCHEMA_VERSION, runs on the writer during initialize
+     */
+    private void migrateSchema(Connection connection) throws SQLException {
+        int version;
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA user_version")) {
+            version = rs.next() ? rs.getInt(1) : 0;
+        }
+        
+        if (version >= SCHEMA_VERSION) {
+            return;
+        }
+        
+        connection.setAutoCommit(false);
+        try (Statement stmt = connection.createStatement()) {
+            // Version 1: exact fixed-point pending balance, the legacy REAL column is kept but no longer used
+            if (version < 1 && !hasColumn(connection, "pending_micros")) {
+                stmt.execute(MIGRATE_ADD_PENDING_MICROS);
+                int migrated = stmt.executeUpdate(MIGRATE_COPY_PENDING_MICROS);
+                plugin.getLogger().info("Migrated pending balances of " + migrated + " players to fixed-point");
             }
-        });
+            
+            // Version 2: aggregates for /vaultpayday stats, seeded once and kept current by triggers
+            if (version < 2) {
+                stmt.execute(CREATE_STATS_TABLE);
+                stmt.executeUpdate(SEED_STATS);
+                stmt.execute(CREATE_STATS_INSERT_TRIGGER);
+                stmt.execute(CREATE_STATS_UPDATE_TRIGGER);
+                stmt.execute(CREATE_STATS_DELETE_TRIGGER);
+            }
+            
+            // Version 3: sub-minute playtime carried from one session to the next
+            if (version < 3 && !hasColumn(connection, "carried_millis")) {
+                stmt.execute(MIGRATE_ADD_CARRIED_MILLIS);
+            }
+            
+            stmt.execute("PRAGMA user_version = " + SCHEMA_VERSION);
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(true);
+        }
     }
     
-    @Override
-    public CompletableFuture<Boolean> createBackup() {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                File backupDir = new File(plugin.getDataFolder(), "backups");
-                if (!backupDir.exists()) {
-                    backupDir.mkdirs();
+    /**
+     * Read the payday_data row the result set is on
+     */
+    private PaydayData readPlayer(ResultSet rs) throws SQLException {
+        PaydayData data = new PaydayData(
+            UUID.fromString(rs.getString("uuid")),
+            rs.getString("player_name"),
+            rs.getLong("minutes_played"),
+            rs.getLong("pending_micros"),
+            rs.getLong("last_updated"),
+            rs.getInt("total_paydays")
+        );
+        data.setCarriedMillis(rs.getLong("carried_millis"));
+        return data;
+    }
+    
+    /**
+     * Check whether payday_data has the given column
+     */
+    private boolean hasColumn(Connection connection, String column) throws SQLException {
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA table_info(payday_data)")) {
+            while (rs.next()) {
+                if (column.equalsIgnoreCase(rs.getString("name"))) {
+                    return true;
                 }
-                
-                String timestamp = String.valueOf(System.currentTimeMillis());
-                File backupFile = new File(backupDir, "payday_backup_" + timestamp + ".db");
-                
-                // Simple file copy for SQLite database
-                java.nio.file.Files.copy(
-                    new File(databasePath).toPath(),
-                    backupFile.toPath()
-                );
-                
-                plugin.getLogger().info("Database backup created: " + backupFile.getName());
-                return true;
-                
-            } catch (Exception e) {
-                plugin.getLogger().severe("Failed to create database backup: " + e.getMessage());
-                return false;
             }
-        });
+            return false;
+        }
     }
     
     /**
      * Check if the database connection is valid
      */
     public boolean isConnectionValid() {
-        try {
-            return connection != null && !connection.isClosed() && connection.isValid(5);
-        } catch (SQLException e) {
-            return false;
-        }
+        return pool.isValid();
     }
     
     /**
      * Reconnect to the database if connection is lost
      */
     public CompletableFuture<Void> reconnect() {
-        return CompletableFuture.runAsync(() -> {
+        return executor.runWrite(() -> {
             try {
-                if (connection != null && !connection.isClosed()) {
-                    connection.close();
-                }
-                
-                connection = DriverManager.getConnection("jdbc:sqlite:" + databasePath);
-                connection.setAutoCommit(true);
+                // Cached statements belong to the old connections and are closed with them
+                pool.reopen();
                 
                 plugin.getLogger().info("Database reconnected successfully");
                 
@@ -287,4 +449,37 @@ public class SQLiteDataManager implements DataManager {
             }
         });
     }
+    
+    @Override
+    public StorageExecutor getStorageExecutor() {
+        return executor;
+    }
+    
+    /**
+     * Run a mutation on the writer thread while holding the writer connection
+     */
+    private CompletableFuture<Void> write(Consumer<PooledConnection> task) {
+        return executor.runWrite(() -> {
+            PooledConnection writer = pool.acquireWriter();
+            try {
+                task.accept(writer);
+            } finally {
+                pool.releaseWriter();
+            }
+        });
+    }
+    
+    /**
+     * Run a query on the reader pool with a borrowed read-only connection
+     */
+    private <T> CompletableFuture<T> read(Function<PooledConnection, T> task) {
+        return executor.supplyRead(() -> {
+            PooledConnection reader = pool.acquireReader();
+            try {
+                return task.apply(reader);
+            } finally {
+                pool.releaseReader(reader);
+            }
+        });
+    }
 }
\ No newline at end of file
@@ -0,0 +1,183 @@
+package me.devupdates.vaultPayday.data;
+
+import me.devupdates.vaultPayday.VaultPayday;
+import me.devupdates.vaultPayday.manager.ConfigManager;
+import org.bukkit.Bukkit;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Dedicated, bounded executor for storage I/O.
+ * One writer thread serializes all mutations, a small reader pool serves loads and queries.
+ * Tasks never run on the submitting thread, a full queue fails the main thread's future instead of blocking it.
+ */
+public class StorageExecutor {
+    private static final long BACK_PRESSURE_WAIT_MILLIS = 50;
+    
+    // Pool the current thread works for, so a storage thread never waits on its own full queue
+    private static final ThreadLocal<ThreadPoolExecutor> CURRENT_POOL = new ThreadLocal<>();
+    
+    private final VaultPayday plugin;
+    private final ThreadPoolExecutor writer;
+    private final ThreadPoolExecutor readers;
+    private final boolean virtualReaders;
+    
+    // Metrics
+    private final AtomicLong backPressureEvents = new AtomicLong();
+    private final AtomicLong rejectedTasks = new AtomicLong();
+    
+    public StorageExecutor(VaultPayday plugin, String name, ConfigManager configManager) {
+        this.plugin = plugin;
+        int queueCapacity = configManager.getStorageQueueCapacity();
+        int readerThreads = configManager.getStorageReaderThreads();
+        
+        this.writer = newPool(1, queueCapacity, platformThreadFactory("VaultPayday-" + name + "-Writer"));
+        
+        ThreadFactory readerFactory = configManager.isStorageVirtualThreads() ? virtualThreadFactory("VaultPayday-" + name + "-Reader-") : null;
+        this.virtualReaders = readerFactory != null;
+        if (readerFactory == null) {
+            readerFactory = platformThreadFactory("VaultPayday-" + name + "-Reader-%d");
+        }
+        
+        this.readers = newPool(readerThreads, queueCapacity, readerFactory);
+        
+        plugin.getLogger().info("Storage executor started (1 writer, " + readerThreads +
+            (virtualReaders ? " virtual" : "") + " readers, queue capacity " + queueCapacity + ")");
+    }
+    
+    /**
+     * Run a mutation on the single writer thread
+     */
+    public CompletableFuture<Void> runWrite(Runnable task) {
+        try {
+            return CompletableFuture.runAsync(task, writer);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+    
+    /**
+     * Run a mutation with a result on the single writer thread
+     */
+    public <T> CompletableFuture<T> supplyWrite(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, writer);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+    
+    /**
+     * Run a read-only operation on the reader pool
+     */
+    public <T> CompletableFuture<T> supplyRead(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, readers);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+    
+    /**
+     * Stop accepting work and wait for queued operations to finish
+     */
+    public void shutdown() {
+        readers.shutdown();
+        writer.shutdown();
+        
+        try {
+            if (!readers.awaitTermination(10, TimeUnit.SECONDS)) {
+                plugin.getLogger().warning("Storage readers did not finish in time, " + readers.getQueue().size() + " tasks dropped");
+                readers.shutdownNow();
+            }
+            if (!writer.awaitTermination(30, TimeUnit.SECONDS)) {
+                plugin.getLogger().warning("Storage writer did not finish in time, " + writer.getQueue().size() + " tasks dropped");
+                writer.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private ThreadPoolExecutor newPool(int threads, int queueCapacity, ThreadFactory threadFactory) {
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), threadFactory, new BackPressurePolicy()) {
+            @Override
+            protected void beforeExecute(Thread thread, Runnable task) {
+                CURRENT_POOL.set(this);
+            }
+        };
+    }
+    
+    /**
+     * Create a named platform thread factory, %d is replaced by a counter
+     */
+    private static ThreadFactory platformThreadFactory(String nameFormat) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, String.format(nameFormat, counter.getAndIncrement()));
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+    
+    /**
+     * Create a virtual thread factory, or null if the runtime does not support virtual threads
+     */
+    private ThreadFactory virtualThreadFactory(String namePrefix) {
+        try {
+            return Thread.ofVirtual().name(namePrefix, 0).factory();
+        } catch (UnsupportedOperationException e) {
+            plugin.getLogger().warning("Virtual threads not supported, using platform threads for storage readers");
+            return null;
+        }
+    }
+    
+    /**
+     * Bounded queue back-pressure, tasks never run on the submitting thread so the writer stays the only writer
+     * Background threads wait for space, the main thread (and a pool submitting to itself) is rejected right away,
+     * its future fails and the write-behind queue keeps the entries for the next flush
+     */
+    private class BackPressurePolicy implements RejectedExecutionHandler {
+        @Override
+        public void rejectedExecution(Runnable task, ThreadPoolExecutor executor) {
+            backPressureEvents.incrementAndGet();
+            
+            // Blocking the main thread is fine once the plugin is disabling, shutdown has to persist everything
+            boolean mayWait = !(Bukkit.isPrimaryThread() && plugin.isEnabled()) && CURRENT_POOL.get() != executor;
+            BlockingQueue<Runnable> queue = executor.getQueue();
+            try {
+                while (mayWait && !executor.isShutdown()) {
+                    if (queue.offer(task, BACK_PRESSURE_WAIT_MILLIS, TimeUnit.MILLISECONDS)) {
+                        return;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            
+            rejectedTasks.incrementAndGet();
+            throw new RejectedExecutionException("Storage queue full" + (executor.isShutdown() ? " or shut down" : ""));
+        }
+    }
+    
+    // Metrics getters
+    public int getWriterQueueDepth() { return writer.getQueue().size(); }
+    public int getReaderQueueDepth() { return readers.getQueue().size(); }
+    public int getActiveReaders() { return readers.getActiveCount(); }
+    public long getCompletedWrites() { return writer.getCompletedTaskCount(); }
+    public long getCompletedReads() { return readers.getCompletedTaskCount(); }
+    public long getBackPressureEvents() { return backPressureEvents.get(); }
+    public long getRejectedTasks() { return rejectedTasks.get(); }
+    public boolean isVirtualReaders() { return virtualReaders; }
+}
\ No newline at end of file
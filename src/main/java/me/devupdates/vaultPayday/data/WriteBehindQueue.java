@@ -0,0 +1,220 @@
+package me.devupdates.vaultPayday.data;
+
+import me.devupdates.vaultPayday.VaultPayday;
+import me.devupdates.vaultPayday.manager.ConfigManager;
+import me.devupdates.vaultPayday.model.PaydayData;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write-behind layer between PaydayManager and DataManager.
+ * Dirty entries are coalesced per player and flushed in batches on a dedicated writer thread.
+ */
+public class WriteBehindQueue {
+    private final VaultPayday plugin;
+    private final DataManager dataManager;
+    private final ConfigManager configManager;
+    
+    // Latest dirty instance per player, replaced on every enqueue
+    private final Map<UUID, PaydayData> dirtyEntries;
+    // Entries taken by the running flush, kept until their batch is committed
+    private final Map<UUID, PaydayData> inFlightEntries;
+    private final ScheduledExecutorService writer;
+    private ScheduledFuture<?> flushTask;
+    
+    // Statistics
+    private final AtomicLong flushedEntries = new AtomicLong();
+    private final AtomicLong flushedBatches = new AtomicLong();
+    private final AtomicLong coalescedWrites = new AtomicLong();
+    
+    public WriteBehindQueue(VaultPayday plugin, DataManager dataManager, ConfigManager configManager) {
+        this.plugin = plugin;
+        this.dataManager = dataManager;
+        this.configManager = configManager;
+        this.dirtyEntries = new ConcurrentHashMap<>();
+        this.inFlightEntries = new ConcurrentHashMap<>();
+        this.writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "VaultPayday-WriteBehind");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    /**
+     * Start the periodic flush task
+     */
+    public void start() {
+        long intervalMillis = configManager.getWriteBehindFlushIntervalSeconds() * 1000L;
+        flushTask = writer.scheduleWithFixedDelay(this::flushPending, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        
+        plugin.getLogger().info("Write-behind queue started (flush interval: " +
+            configManager.getWriteBehindFlushIntervalSeconds() + "s, max batch: " + configManager.getWriteBehindMaxBatchSize() + ")");
+    }
+    
+    /**
+     * Mark player data as dirty, coalescing with any pending write for the same player
+     */
+    public void enqueue(PaydayData data) {
+        if (dirtyEntries.put(data.getPlayerUUID(), data) != null) {
+            coalescedWrites.incrementAndGet();
+        }
+    }
+    
+    /**
+     * Drop a pending write, used when the player's final state is saved another way
+     */
+    public void discard(UUID playerUUID) {
+        dirtyEntries.remove(playerUUID);
+    }
+    
+    /**
+     * Get the newest state of a player that is queued or being written, storage may still hold an older one
+     * @return the queued PaydayData, or null if nothing is waiting to be written for the player
+     */
+    public PaydayData getQueued(UUID playerUUID) {
+        // An entry moves to the in-flight map before it leaves the dirty map, so it is always in one of them
+        PaydayData data = dirtyEntries.get(playerUUID);
+        return data != null ? data : inFlightEntries.get(playerUUID);
+    }
+    
+    /**
+     * Request an immediate flush on the writer thread
+     * @return CompletableFuture that completes once everything queued so far is written
+     */
+    public CompletableFuture<Void> flush() {
+        return CompletableFuture.runAsync(this::flushPending, writer);
+    }
+    
+    /**
+     * Write a single player's queued state on the writer thread, after any flush already running
+     * @return CompletableFuture that completes once the player's queued state is written
+     */
+    public CompletableFuture<Void> flush(UUID playerUUID) {
+        return CompletableFuture.runAsync(() -> {
+            PaydayData data = take(playerUUID);
+            if (data != null) {
+                writeBatch(List.of(data));
+            }
+        }, writer);
+    }
+    
+    /**
+     * Write all dirty entries, one transaction per max_batch_size entries
+     */
+    private void flushPending() {
+        if (dirtyEntries.isEmpty()) {
+            return;
+        }
+        
+        int maxBatchSize = configManager.getWriteBehindMaxBatchSize();
+        List<UUID> dirtyKeys = new ArrayList<>(dirtyEntries.keySet());
+        List<PaydayData> batch = new ArrayList<>(Math.min(dirtyKeys.size(), maxBatchSize));
+        
+        for (UUID playerUUID : dirtyKeys) {
+            PaydayData data = take(playerUUID);
+            if (data == null) {
+                continue;
+            }
+            
+            batch.add(data);
+            if (batch.size() >= maxBatchSize) {
+                writeBatch(batch);
+                batch = new ArrayList<>(maxBatchSize);
+            }
+        }
+        
+        if (!batch.isEmpty()) {
+            writeBatch(batch);
+        }
+    }
+    
+    /**
+     * Move a player's dirty entry to the in-flight map, called on the writer thread
+     * @return the entry to write, or null if none is queued
+     */
+    private PaydayData take(UUID playerUUID) {
+        while (true) {
+            PaydayData data = dirtyEntries.get(playerUUID);
+            if (data == null) {
+                return null;
+            }
+            
+            inFlightEntries.put(playerUUID, data);
+            if (dirtyEntries.remove(playerUUID, data)) {
+                return data;
+            }
+            // Replaced meanwhile, take the newer entry instead
+        }
+    }
+    
+    /**
+     * Write a single batch, re-queueing its entries if the transaction fails
+     */
+    private void writeBatch(List<PaydayData> batch) {
+        try {
+            dataManager.savePlayerDataBatch(batch).join();
+            for (PaydayData data : batch) {
+                inFlightEntries.remove(data.getPlayerUUID(), data);
+            }
+            flushedEntries.addAndGet(batch.size());
+            flushedBatches.incrementAndGet();
+            
+            if (configManager.isDebugMode()) {
+                plugin.getLogger().info("Write-behind flushed " + batch.size() + " players");
+            }
+        } catch (CompletionException e) {
+            plugin.getLogger().warning("Write-behind flush failed, re-queueing " + batch.size() + " players: " + e.getMessage());
+            
+            // Keep newer entries that were queued while the batch was in flight
+            for (PaydayData data : batch) {
+                dirtyEntries.putIfAbsent(data.getPlayerUUID(), data);
+                inFlightEntries.remove(data.getPlayerUUID(), data);
+            }
+        }
+    }
+    
+    /**
+     * Stop the writer thread and drain every pending entry before returning
+     */
+    public void shutdown() {
+        if (flushTask != null) {
+            flushTask.cancel(false);
+        }
+        
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(30, TimeUnit.SECONDS)) {
+                plugin.getLogger().warning("Write-behind writer did not finish in time, draining on shutdown thread");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        
+        // Final drain, covers entries queued after the last scheduled flush
+        flushPending();
+        
+        if (!dirtyEntries.isEmpty()) {
+            plugin.getLogger().severe("Write-behind queue could not persist " + dirtyEntries.size() + " players on shutdown!");
+        }
+        
+        plugin.getLogger().info("Write-behind queue drained (" + flushedEntries.get() + " writes in " +
+            flushedBatches.get() + " batches, " + coalescedWrites.get() + " coalesced)");
+    }
+    
+    // Getters
+    public int getPendingCount() { return dirtyEntries.size(); }
+    public long getFlushedEntries() { return flushedEntries.get(); }
+    public long getFlushedBatches() { return flushedBatches.get(); }
+    public long getCoalescedWrites() { return coalescedWrites.get(); }
+}
\ No newline at end of file
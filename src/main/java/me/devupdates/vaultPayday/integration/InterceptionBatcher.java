@@ -0,0 +1,136 @@
+package me.devupdates.vaultPayday.integration;
+
+import me.devupdates.vaultPayday.VaultPayday;
+import me.devupdates.vaultPayday.manager.ConfigManager;
+import me.devupdates.vaultPayday.manager.PaydayManager;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Buffers intercepted Jobs payments in lock-free per-player accumulators
+ * A once-per-tick drain folds them into the players' pending balances in bulk and feeds the notifier
+ */
+public class InterceptionBatcher {
+    private final VaultPayday plugin;
+    private final PaydayManager paydayManager;
+    private final ConfigManager configManager;
+    private final InterceptionNotifier notifier;
+    
+    private final Map<UUID, Credits> credits = new ConcurrentHashMap<>();
+    private final Queue<UUID> dirty = new ConcurrentLinkedQueue<>(); // Players with credits since the last drain
+    private BukkitTask drainTask;
+    
+    // Statistics, only touched on the main thread
+    private long drainedPayments;
+    private long drainedCredits;
+    
+    /**
+     * Payments intercepted for one player and not yet added to the pending balance
+     */
+    private static final class Credits {
+        final AtomicLong micros = new AtomicLong();
+        final AtomicInteger count = new AtomicInteger();
+    }
+    
+    public InterceptionBatcher(VaultPayday plugin, PaydayManager paydayManager, ConfigManager configManager,
+                               InterceptionNotifier notifier) {
+        this.plugin = plugin;
+        this.paydayManager = paydayManager;
+        this.configManager = configManager;
+        this.notifier = notifier;
+    }
+    
+    /**
+     * Start the per-tick drain task
+     */
+    public void start() {
+        drainTask = new BukkitRunnable() {
+            @Override
+            public void run() {
+                drain();
+            }
+        }.runTaskTimer(plugin, 1L, 1L);
+    }
+    
+    /**
+     * Credit an intercepted payment, safe to call from any thread
+     * @param amount Amount in micro-units, multipliers applied
+     */
+    public void add(UUID playerUUID, long amount) {
+        Credits entry = credits.get(playerUUID);
+        if (entry == null) {
+            entry = credits.computeIfAbsent(playerUUID, uuid -> new Credits());
+        }
+        
+        entry.micros.addAndGet(amount);
+        if (entry.count.getAndIncrement() == 0) {
+            dirty.offer(playerUUID); // First payment since the last drain
+        }
+    }
+    
+    /**
+     * Fold all buffered credits into pending balances
+     */
+    private void drain() {
+        UUID playerUUID;
+        while ((playerUUID = dirty.poll()) != null) {
+            Credits entry = credits.get(playerUUID);
+            if (entry != null) {
+                drain(playerUUID, entry);
+            }
+        }
+    }
+    
+    private void drain(UUID playerUUID, Credits entry) {
+        int count = entry.count.getAndSet(0);
+        long amount = entry.micros.getAndSet(0);
+        if (amount == 0 && count == 0) {
+            return;
+        }
+        
+        if (amount != 0) {
+            paydayManager.addPendingBalance(playerUUID, amount);
+        }
+        if (configManager.isShowProgressNotifications()) {
+            notifier.record(playerUUID, amount, count);
+        }
+        
+        drainedPayments += count;
+        drainedCredits++;
+    }
+    
+    /**
+     * Drain and forget a player's credits, called before their data leaves the cache
+     */
+    public void flush(UUID playerUUID) {
+        Credits entry = credits.remove(playerUUID);
+        if (entry != null) {
+            drain(playerUUID, entry);
+        }
+    }
+    
+    /**
+     * Stop the drain task and fold everything still buffered
+     */
+    public void shutdown() {
+        if (drainTask != null) {
+            drainTask.cancel();
+        }
+        
+        drain();
+        credits.clear();
+        dirty.clear();
+    }
+    
+    // Getters
+    public long getDrainedPayments() { return drainedPayments; }
+    public long getDrainedCredits() { return drainedCredits; }
+}
\ No newline at end of file
@@ -0,0 +1,128 @@
+package me.devupdates.vaultPayday.integration;
+
+import me.devupdates.vaultPayday.VaultPayday;
+import me.devupdates.vaultPayday.manager.ConfigManager;
+import me.devupdates.vaultPayday.manager.PaydayManager;
+import me.devupdates.vaultPayday.model.PaydayData;
+import me.devupdates.vaultPayday.util.Money;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Coalesces payment interception notifications per player
+ * Intercepted amounts are summed over a short window and a single sweeping task sends one action bar per player
+ */
+public class InterceptionNotifier {
+    private final VaultPayday plugin;
+    private final PaydayManager paydayManager;
+    private final ConfigManager configManager;
+    
+    private final Map<UUID, Window> windows = new ConcurrentHashMap<>();
+    private BukkitTask sweepTask;
+    
+    // Statistics, only touched on the main thread
+    private long sentNotifications;
+    private long coalescedPayments;
+    
+    /**
+     * Payments intercepted for one player since the last sweep
+     * Only mutated inside map operations on its key, so it needs no locking of its own
+     */
+    private static final class Window {
+        long micros;
+        int count;
+    }
+    
+    public InterceptionNotifier(VaultPayday plugin, PaydayManager paydayManager, ConfigManager configManager) {
+        this.plugin = plugin;
+        this.paydayManager = paydayManager;
+        this.configManager = configManager;
+    }
+    
+    /**
+     * Start the sweeping task, running once per notification window
+     */
+    public void start() {
+        long windowTicks = Math.max(1L, configManager.getInterceptionNotificationWindowMillis() / 50L);
+        
+        sweepTask = new BukkitRunnable() {
+            @Override
+            public void run() {
+                sweep();
+            }
+        }.runTaskTimer(plugin, windowTicks, windowTicks);
+    }
+    
+    /**
+     * Add intercepted payments to the player's current window
+     * @param amount Amount in micro-units
+     * @param count Number of payments making up the amount
+     */
+    public void record(UUID playerUUID, long amount, int count) {
+        windows.compute(playerUUID, (uuid, window) -> {
+            if (window == null) {
+                window = new Window();
+            }
+            window.micros += amount;
+            window.count += count;
+            return window;
+        });
+    }
+    
+    /**
+     * Send one notification per player with payments in the closed window
+     */
+    private void sweep() {
+        if (windows.isEmpty()) {
+            return;
+        }
+        
+        long requiredMinutes = configManager.getPaydayIntervalMinutes();
+        for (UUID playerUUID : windows.keySet()) {
+            // Removing closes the window, later payments start a new one
+            Window window = windows.remove(playerUUID);
+            Player player = Bukkit.getPlayer(playerUUID);
+            if (window == null || player == null) {
+                continue;
+            }
+            
+            // Get current pending balance for progress info, skip if still loading
+            PaydayData paydayData = paydayManager.getIfCached(playerUUID);
+            if (paydayData == null) {
+                continue;
+            }
+            
+            // Send as action bar, the template already carries the colors
+            player.sendActionBar(configManager.getPrefixedMessageTemplate("payment_intercepted").render(
+                "amount", Money.format(window.micros),
+                "count", window.count,
+                "pending", Money.format(paydayData.getPendingMicros()),
+                "time", paydayData.getMinutesPlayed(),
+                "required", requiredMinutes,
+                "remaining", paydayData.getRemainingMinutes(requiredMinutes)));
+            
+            sentNotifications++;
+            coalescedPayments += window.count;
+        }
+    }
+    
+    /**
+     * Stop the sweeping task and drop unsent notifications
+     */
+    public void shutdown() {
+        if (sweepTask != null) {
+            sweepTask.cancel();
+        }
+        windows.clear();
+    }
+    
+    // Getters
+    public long getSentNotifications() { return sentNotifications; }
+    public long getCoalescedPayments() { return coalescedPayments; }
+}
\ No newline at end of file
@@ -1,17 +1,24 @@
 package me.devupdates.vaultPayday.integration;
 
-import com.gamingmesh.jobs.api.JobsPaymentEvent;
+import com.gamingmesh.jobs.api.JobsPrePaymentEvent;
 import me.devupdates.vaultPayday.VaultPayday;
 import me.devupdates.vaultPayday.manager.ConfigManager;
 import me.devupdates.vaultPayday.manager.PaydayManager;
+import me.devupdates.vaultPayday.util.JobTable;
+import me.devupdates.vaultPayday.util.Money;
 import org.bukkit.Bukkit;
 import org.bukkit.OfflinePlayer;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
 import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Manages integration with JobsReborn plugin
@@ -20,11 +27,23 @@ public class JobsIntegrationManager implements Listener {
     private final VaultPayday plugin;
     private final PaydayManager paydayManager;
     private final ConfigManager configManager;
+    private final InterceptionNotifier notifier;
+    private final InterceptionBatcher batcher;
+    
+    // Bypass permission resolved per player, refreshed on join and permission events
+    private final Map<UUID, Eligibility> eligibility = new ConcurrentHashMap<>();
+    
+    /**
+     * Whether a player's payments are intercepted, valid until expiresAt unless permission events are available
+     */
+    private record Eligibility(boolean intercepted, long expiresAt) {}
     
     public JobsIntegrationManager(VaultPayday plugin, PaydayManager paydayManager, ConfigManager configManager) {
         this.plugin = plugin;
         this.paydayManager = paydayManager;
         this.configManager = configManager;
+        this.notifier = new InterceptionNotifier(plugin, paydayManager, configManager);
+        this.batcher = new InterceptionBatcher(plugin, paydayManager, configManager, notifier);
     }
     
     /**
@@ -33,140 +52,126 @@ public class JobsIntegrationManager implements Listener {
     public void initialize() {
         // Register event listener
         plugin.getServer().getPluginManager().registerEvents(this, plugin);
+        batcher.start();
+        notifier.start();
         
         plugin.getLogger().info("JobsReborn integration initialized successfully!");
     }
     
     /**
-     * Handle JobsReborn payment events
-     * This intercepts payments and adds them to pending balance instead
+     * Handle JobsReborn pre-payment events
+     * This intercepts the money part of each job payment and adds it to pending balance instead
+     * Pre-payment events carry the job, unlike the buffered JobsPaymentEvent, so per-job settings apply
      */
-    @EventHandler(priority = EventPriority.HIGH)
-    public void onJobsPayment(JobsPaymentEvent event) {
+    @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
+    public void onJobsPrePayment(JobsPrePaymentEvent event) {
         OfflinePlayer offlinePlayer = event.getPlayer();
+        UUID playerUUID = offlinePlayer.getUniqueId();
         
-        // Check if player is online
-        if (!offlinePlayer.isOnline()) {
-            return; // Skip offline players
-        }
-        
-        Player player = offlinePlayer.getPlayer();
-        if (player == null) {
-            return; // Safety check
-        }
-        
-        // Check if player has bypass permission
-        if (player.hasPermission("vaultpayday.bypass")) {
+        // Check bypass permission and world rules, both cached per player
+        if (!isIntercepted(playerUUID) || !paydayManager.isInPaydayWorld(playerUUID)) {
             // Allow normal Jobs payment
             return;
         }
         
         // Check minimum payment threshold
-        double paymentAmount = 0.0;
-        try {
-            paymentAmount = event.get(com.gamingmesh.jobs.container.CurrencyType.MONEY);
-        } catch (Exception e) {
-            // Fallback: try to get payment amount from different method
-            if (configManager.isDebugMode()) {
-                plugin.getLogger().warning("Could not get payment amount from JobsPaymentEvent: " + e.getMessage());
-            }
-            return;
-        }
-        
+        double paymentAmount = event.getAmount();
         if (paymentAmount < configManager.getMinimumPayment()) {
             // Allow small payments through normally
             return;
         }
         
-        // For now, intercept all jobs since we can't reliably get job name
-        // This can be improved later when we have access to job information
-        String jobName = "Unknown";
-        if (!shouldInterceptJob(jobName)) {
+        // Resolve per-job settings from the table built at config load
+        JobTable jobTable = configManager.getJobTable();
+        String jobName = event.getJob() != null ? event.getJob().getName() : null;
+        if (!jobTable.shouldIntercept(jobName)) {
             // Allow normal payment for this job
             return;
         }
         
-        // Check world restrictions
-        String worldName = player.getWorld().getName();
-        if (!isPaydayEnabledInWorld(worldName)) {
-            // Allow normal payment in this world
-            return;
-        }
-        
         if (configManager.isDebugMode()) {
-            plugin.getLogger().info("Intercepting Jobs payment: " + player.getName() + 
-                " - Amount: $" + String.format("%.2f", paymentAmount));
+            plugin.getLogger().info("Intercepting Jobs payment: " + offlinePlayer.getName() + 
+                " - Job: " + jobName + " - Amount: $" + String.format("%.2f", paymentAmount));
         }
         
-        // Cancel the original payment
-        event.setCancelled(true);
+        // Withhold the money, points and experience are still paid by Jobs
+        event.setAmount(0);
         
-        // Add to pending payday balance
-        UUID playerUUID = player.getUniqueId();
-        paydayManager.addPendingBalance(playerUUID, paymentAmount);
-        
-        // Optional: Send notification to player
-        if (configManager.isShowProgressNotifications()) {
-            sendInterceptionNotification(player, paymentAmount);
+        // Buffer for the pending payday balance with the job multiplier, converted to fixed-point once
+        long paymentMicros = Money.toMicros(paymentAmount);
+        if (configManager.isMultipliersEnabled()) {
+            paymentMicros = Money.multiply(paymentMicros, jobTable.getMultiplier(jobName));
         }
+        batcher.add(playerUUID, paymentMicros);
+    }
+    
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        refreshEligibility(event.getPlayer());
     }
     
     /**
-     * Check if the job should be intercepted based on configuration
+     * Fold buffered payments into the player's data before it is saved and leaves the cache
      */
-    private boolean shouldInterceptJob(String jobName) {
-        if (configManager.isInterceptAllPayments()) {
-            return true;
-        }
-        
-        // Check specific jobs list - for now, since we can't get job name reliably,
-        // we'll intercept all payments when intercept_all_payments is true
-        return configManager.getSpecificJobs().isEmpty() || configManager.getSpecificJobs().contains(jobName);
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        UUID playerUUID = event.getPlayer().getUniqueId();
+        batcher.flush(playerUUID);
+        eligibility.remove(playerUUID);
     }
     
     /**
-     * Check if payday system is enabled in the given world
+     * Check if a player's payments should be intercepted, resolving the bypass permission on a miss
      */
-    private boolean isPaydayEnabledInWorld(String worldName) {
-        // Check if using whitelist mode
-        if (configManager.isWorldWhitelistMode()) {
-            return configManager.getWhitelistedWorlds().contains(worldName);
+    private boolean isIntercepted(UUID playerUUID) {
+        Eligibility entry = eligibility.get(playerUUID);
+        if (entry == null || (!paydayManager.getMultiplierCache().isEventDriven() && System.currentTimeMillis() >= entry.expiresAt())) {
+            Player player = Bukkit.getPlayer(playerUUID);
+            if (player == null) {
+                return false; // Skip offline players
+            }
+            entry = refreshEligibility(player);
         }
+        return entry.intercepted();
+    }
+    
+    private Eligibility refreshEligibility(Player player) {
+        boolean intercepted = !player.hasPermission("vaultpayday.bypass");
         
-        // Check blacklist
-        return !configManager.getBlacklistedWorlds().contains(worldName);
+        long ttlMillis = configManager.getMultiplierCacheTtlSeconds() * 1000L;
+        Eligibility entry = new Eligibility(intercepted, System.currentTimeMillis() + ttlMillis);
+        eligibility.put(player.getUniqueId(), entry);
+        return entry;
     }
     
     /**
-     * Send notification to player about payment interception
+     * Drop a player's cached rules after a permission change, safe to call from any thread
      */
-    private void sendInterceptionNotification(Player player, double amount) {
-        // Get current pending balance for progress info
-        UUID playerUUID = player.getUniqueId();
-        var paydayData = paydayManager.getPlayerData(playerUUID);
-        
-        if (paydayData != null) {
-            String message = configManager.getMessage("payment_intercepted")
-                .replace("%amount%", String.format("%.2f", amount))
-                .replace("%pending%", String.format("%.2f", paydayData.getPendingBalance()))
-                .replace("%time%", String.valueOf(paydayData.getMinutesPlayed()))
-                .replace("%required%", String.valueOf(configManager.getPaydayIntervalMinutes()))
-                .replace("%remaining%", String.valueOf(paydayData.getRemainingMinutes(configManager.getPaydayIntervalMinutes())));
-            
-            // Send as action bar with proper color codes
-            String fullMessage = configManager.getMessagePrefix() + message;
-            String coloredMessage = fullMessage.replace("&", "§");
-            player.sendActionBar(net.kyori.adventure.text.Component.text(coloredMessage));
-        }
+    public void invalidate(UUID playerUUID) {
+        eligibility.remove(playerUUID);
+    }
+    
+    /**
+     * Drop all cached rules after a reload, they are resolved again on the next payment
+     */
+    public void invalidateAll() {
+        eligibility.clear();
     }
     
     /**
      * Shutdown the Jobs integration
      */
     public void shutdown() {
-        // Unregister events
-        JobsPaymentEvent.getHandlerList().unregister(this);
+        // Unregister events, then fold buffered payments before the payday manager saves
+        HandlerList.unregisterAll(this);
+        batcher.shutdown();
+        notifier.shutdown();
+        eligibility.clear();
         
         plugin.getLogger().info("JobsReborn integration shutdown completed");
     }
+    
+    // Getters
+    public InterceptionNotifier getNotifier() { return notifier; }
+    public InterceptionBatcher getBatcher() { return batcher; }
 }
\ No newline at end of file
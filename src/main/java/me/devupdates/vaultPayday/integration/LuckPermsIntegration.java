@@ -0,0 +1,65 @@
+package me.devupdates.vaultPayday.integration;
+
+import me.devupdates.vaultPayday.VaultPayday;
+import me.devupdates.vaultPayday.manager.MultiplierCache;
+import net.luckperms.api.LuckPerms;
+import net.luckperms.api.event.EventSubscription;
+import net.luckperms.api.event.user.UserDataRecalculateEvent;
+import org.bukkit.plugin.RegisteredServiceProvider;
+
+import java.util.UUID;
+
+/**
+ * Invalidates cached multipliers when LuckPerms recalculates a user's permissions
+ */
+public class LuckPermsIntegration {
+    private final VaultPayday plugin;
+    private final MultiplierCache multiplierCache;
+    private EventSubscription<UserDataRecalculateEvent> subscription;
+    
+    public LuckPermsIntegration(VaultPayday plugin, MultiplierCache multiplierCache) {
+        this.plugin = plugin;
+        this.multiplierCache = multiplierCache;
+    }
+    
+    /**
+     * Subscribe to LuckPerms permission changes
+     * @return true if LuckPerms is available and the listener was registered
+     */
+    public boolean initialize() {
+        RegisteredServiceProvider<LuckPerms> provider = plugin.getServer().getServicesManager().getRegistration(LuckPerms.class);
+        if (provider == null) {
+            return false;
+        }
+        
+        subscription = provider.getProvider().getEventBus().subscribe(plugin, UserDataRecalculateEvent.class,
+            event -> invalidate(event.getUser().getUniqueId()));
+        multiplierCache.setEventDriven(true);
+        
+        plugin.getLogger().info("LuckPerms integration enabled - multipliers refresh on permission changes");
+        return true;
+    }
+    
+    /**
+     * Drop everything cached from a player's permissions, called from LuckPerms threads
+     */
+    private void invalidate(UUID playerUUID) {
+        multiplierCache.invalidate(playerUUID);
+        
+        JobsIntegrationManager jobsIntegrationManager = plugin.getJobsIntegrationManager();
+        if (jobsIntegrationManager != null) {
+            jobsIntegrationManager.invalidate(playerUUID);
+        }
+    }
+    
+    /**
+     * Shutdown the LuckPerms integration
+     */
+    public void shutdown() {
+        if (subscription != null) {
+            subscription.close();
+            subscription = null;
+        }
+        multiplierCache.setEventDriven(false);
+    }
+}
\ No newline at end of file
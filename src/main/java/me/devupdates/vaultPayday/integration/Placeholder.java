@@ -0,0 +1,89 @@
+package me.devupdates.vaultPayday.integration;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Every placeholder VaultPayday provides, with the player fields its rendered value depends on
+ * Placeholder strings are resolved to a constant once, cached values are dropped only when a field they depend on changes
+ */
+enum Placeholder {
+    // Time-related placeholders
+    TIME_PLAYED("time_played", Placeholder.MINUTES),
+    TIME_REQUIRED("time_required", Placeholder.REQUIRED),
+    TIME_REMAINING("time_remaining", Placeholder.MINUTES | Placeholder.REQUIRED),
+    TIME_PROGRESS_PERCENTAGE("time_progress_percentage", Placeholder.MINUTES | Placeholder.REQUIRED),
+    TIME_PROGRESS_PERCENTAGE_ROUNDED("time_progress_percentage_rounded", Placeholder.MINUTES | Placeholder.REQUIRED),
+    
+    // Balance-related placeholders
+    PENDING_BALANCE("pending_balance", Placeholder.BALANCE),
+    PENDING_BALANCE_ROUNDED("pending_balance_rounded", Placeholder.BALANCE),
+    PENDING_BALANCE_FORMATTED("pending_balance_formatted", Placeholder.BALANCE),
+    
+    // Status placeholders
+    IS_READY("is_ready", Placeholder.MINUTES | Placeholder.REQUIRED),
+    STATUS("status", Placeholder.MINUTES | Placeholder.REQUIRED),
+    STATUS_COLOR("status_color", Placeholder.MINUTES | Placeholder.REQUIRED),
+    
+    // Statistics placeholders
+    TOTAL_PAYDAYS("total_paydays", Placeholder.PAYDAYS),
+    LAST_UPDATED("last_updated", Placeholder.UPDATED),
+    
+    // Progress bar placeholders
+    PROGRESS_BAR("progress_bar", Placeholder.MINUTES | Placeholder.REQUIRED),
+    PROGRESS_BAR_SHORT("progress_bar_short", Placeholder.MINUTES | Placeholder.REQUIRED),
+    PROGRESS_BAR_MINI("progress_bar_mini", Placeholder.MINUTES | Placeholder.REQUIRED),
+    
+    // Formatted time placeholders
+    NEXT_PAYDAY("next_payday", Placeholder.MINUTES | Placeholder.REQUIRED),
+    TIME_PLAYED_FORMATTED("time_played_formatted", Placeholder.MINUTES),
+    TIME_REQUIRED_FORMATTED("time_required_formatted", Placeholder.REQUIRED),
+    
+    // Advanced placeholders
+    EARNINGS_PER_MINUTE("earnings_per_minute", Placeholder.MINUTES | Placeholder.BALANCE),
+    ESTIMATED_TOTAL("estimated_total", Placeholder.MINUTES | Placeholder.BALANCE | Placeholder.REQUIRED);
+    
+    // Fields a rendered value can depend on
+    static final int MINUTES = 1;
+    static final int BALANCE = 1 << 1;
+    static final int PAYDAYS = 1 << 2;
+    static final int UPDATED = 1 << 3;
+    static final int REQUIRED = 1 << 4; // Configured payday interval
+    
+    private static final Placeholder[] VALUES = values();
+    private static final Map<String, Placeholder> BY_KEY = new HashMap<>();
+    
+    static {
+        for (Placeholder placeholder : VALUES) {
+            BY_KEY.put(placeholder.key, placeholder);
+        }
+    }
+    
+    private final String key;
+    private final int dependencies;
+    
+    Placeholder(String key, int dependencies) {
+        this.key = key;
+        this.dependencies = dependencies;
+    }
+    
+    /**
+     * Resolve a placeholder string, lowercase params (the usual case) are found without allocating
+     * @return The placeholder, or null if VaultPayday doesn't provide it
+     */
+    static Placeholder resolve(String params) {
+        Placeholder placeholder = BY_KEY.get(params);
+        return placeholder != null ? placeholder : BY_KEY.get(params.toLowerCase());
+    }
+    
+    static int count() {
+        return VALUES.length;
+    }
+    
+    static Placeholder[] all() {
+        return VALUES;
+    }
+    
+    // Getters
+    int getDependencies() { return dependencies; }
+}
\ No newline at end of file
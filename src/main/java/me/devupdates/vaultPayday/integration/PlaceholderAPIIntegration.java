@@ -3,13 +3,18 @@ package me.devupdates.vaultPayday.integration;
 import me.clip.placeholderapi.expansion.PlaceholderExpansion;
 import me.devupdates.vaultPayday.VaultPayday;
 import me.devupdates.vaultPayday.manager.ConfigManager;
+import me.devupdates.vaultPayday.manager.LeaderboardManager;
 import me.devupdates.vaultPayday.manager.PaydayManager;
 import me.devupdates.vaultPayday.model.PaydayData;
+import me.devupdates.vaultPayday.util.Money;
+import me.devupdates.vaultPayday.util.RankedIndex;
 import org.bukkit.OfflinePlayer;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * PlaceholderAPI integration for VaultPayday
@@ -20,6 +25,13 @@ public class PlaceholderAPIIntegration extends PlaceholderExpansion {
     private final PaydayManager paydayManager;
     private final ConfigManager configManager;
     
+    // Scoreboards and tab lists refresh the same placeholders many times a second, values are only re-rendered on change
+    private final Map<UUID, RenderedValues> renderedValues = new ConcurrentHashMap<>();
+    
+    // Parsed leaderboard placeholders by params string, positions are capped so this stays small
+    private static final int MAX_TOP_POSITION = 100;
+    private final Map<String, LeaderboardQuery> leaderboardQueries = new ConcurrentHashMap<>();
+    
     public PlaceholderAPIIntegration(VaultPayday plugin, PaydayManager paydayManager, ConfigManager configManager) {
         this.plugin = plugin;
         this.paydayManager = paydayManager;
@@ -53,190 +65,347 @@ public class PlaceholderAPIIntegration extends PlaceholderExpansion {
     
     @Override
     public @Nullable String onRequest(OfflinePlayer player, @NotNull String params) {
+        Placeholder placeholder = Placeholder.resolve(params);
+        if (placeholder == null) {
+            // Leaderboards don't need the viewer's data, they are answered from the in-memory index
+            LeaderboardQuery query = resolveLeaderboardQuery(params);
+            if (query != null) {
+                return renderLeaderboard(query, player);
+            }
+        }
+        
         if (player == null) {
             return "";
         }
         
         UUID playerUUID = player.getUniqueId();
-        PaydayData paydayData = paydayManager.getPlayerData(playerUUID);
+        PaydayData paydayData = paydayManager.getPlayerData(playerUUID); // Never blocks, loads in background
         
-        // If player data is not available, return default values
+        // If player data is not available, return loading or default values
         if (paydayData == null) {
-            return getDefaultValue(params);
+            renderedValues.remove(playerUUID);
+            return player.isOnline() ? getLoadingValue(placeholder) : getDefaultValue(placeholder);
+        }
+        if (placeholder == null) {
+            return null; // Placeholder not found
+        }
+        
+        RenderedValues values = renderedValues.computeIfAbsent(playerUUID, uuid -> new RenderedValues());
+        return values.get(placeholder, paydayData, configManager.getPaydayIntervalMinutes());
+    }
+    
+    /**
+     * A parsed leaderboard placeholder: top_<board>_<position>_name, top_<board>_<position>_value or rank_<board>
+     * @param position 1-based position, or 0 for the viewer's own rank
+     */
+    private record LeaderboardQuery(LeaderboardManager.Board board, int position, boolean name) {}
+    
+    /**
+     * Parse a leaderboard placeholder once, later requests for the same string are a map lookup
+     * @return The query, or null if params isn't a leaderboard placeholder
+     */
+    private LeaderboardQuery resolveLeaderboardQuery(String params) {
+        LeaderboardQuery query = leaderboardQueries.get(params);
+        if (query != null) {
+            return query;
+        }
+        
+        String[] parts = params.toLowerCase().split("_");
+        LeaderboardManager.Board board = parts.length >= 2 ? parseBoard(parts[1]) : null;
+        if (board == null) {
+            return null;
+        }
+        
+        if (parts.length == 2 && parts[0].equals("rank")) {
+            query = new LeaderboardQuery(board, 0, false);
+        } else if (parts.length == 4 && parts[0].equals("top") && (parts[3].equals("name") || parts[3].equals("value"))) {
+            int position;
+            try {
+                position = Integer.parseInt(parts[2]);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+            if (position < 1 || position > MAX_TOP_POSITION) {
+                return null;
+            }
+            query = new LeaderboardQuery(board, position, parts[3].equals("name"));
+        } else {
+            return null;
+        }
+        
+        leaderboardQueries.put(params, query);
+        return query;
+    }
+    
+    private LeaderboardManager.Board parseBoard(String name) {
+        switch (name) {
+            case "paydays":
+                return LeaderboardManager.Board.PAYDAYS;
+                
+            case "pending":
+                return LeaderboardManager.Board.PENDING;
+                
+            default:
+                return null;
+        }
+    }
+    
+    private String renderLeaderboard(LeaderboardQuery query, OfflinePlayer player) {
+        LeaderboardManager leaderboards = paydayManager.getLeaderboards();
+        if (query.position() == 0) {
+            if (player == null) {
+                return "";
+            }
+            int rank = leaderboards.getRank(query.board(), player.getUniqueId());
+            return rank > 0 ? String.valueOf(rank) : "-";
         }
         
-        long requiredMinutes = configManager.getPaydayIntervalMinutes();
+        RankedIndex.Entry entry = leaderboards.getTop(query.board(), query.position());
+        if (entry == null) {
+            return query.name() ? "-" : "0";
+        }
+        if (query.name()) {
+            return entry.playerName();
+        }
+        return query.board() == LeaderboardManager.Board.PENDING ? Money.format(entry.score()) : String.valueOf(entry.score());
+    }
+    
+    /**
+     * Drop a player's rendered values, called when they leave
+     */
+    public void invalidate(UUID playerUUID) {
+        renderedValues.remove(playerUUID);
+    }
+    
+    /**
+     * Rendered placeholder values of one player, with the field values they were rendered from
+     * Fields are read before rendering, so a change racing a render only costs one extra render
+     */
+    private final class RenderedValues {
+        private final String[] values = new String[Placeholder.count()];
+        private PaydayData source;
+        private long minutes;
+        private long pendingMicros;
+        private int totalPaydays;
+        private long lastUpdated;
+        private long requiredMinutes;
+        
+        synchronized String get(Placeholder placeholder, PaydayData data, long required) {
+            invalidateChanged(data, required);
+            
+            String value = values[placeholder.ordinal()];
+            if (value == null) {
+                value = render(placeholder, data, required);
+                values[placeholder.ordinal()] = value;
+            }
+            return value;
+        }
         
-        switch (params.toLowerCase()) {
+        private void invalidateChanged(PaydayData data, long required) {
+            long currentMinutes = data.getMinutesPlayed();
+            long currentPendingMicros = data.getPendingMicros();
+            int currentTotalPaydays = data.getTotalPaydays();
+            long currentLastUpdated = data.getLastUpdated();
+            
+            int changed;
+            if (data != source) {
+                changed = -1; // Reloaded, everything is stale
+                source = data;
+            } else {
+                changed = (currentMinutes != minutes ? Placeholder.MINUTES : 0)
+                    | (currentPendingMicros != pendingMicros ? Placeholder.BALANCE : 0)
+                    | (currentTotalPaydays != totalPaydays ? Placeholder.PAYDAYS : 0)
+                    | (currentLastUpdated != lastUpdated ? Placeholder.UPDATED : 0)
+                    | (required != requiredMinutes ? Placeholder.REQUIRED : 0);
+                if (changed == 0) {
+                    return;
+                }
+            }
+            
+            minutes = currentMinutes;
+            pendingMicros = currentPendingMicros;
+            totalPaydays = currentTotalPaydays;
+            lastUpdated = currentLastUpdated;
+            requiredMinutes = required;
+            
+            for (Placeholder placeholder : Placeholder.all()) {
+                if ((placeholder.getDependencies() & changed) != 0) {
+                    values[placeholder.ordinal()] = null;
+                }
+            }
+        }
+    }
+    
+    /**
+     * Render a placeholder from the player's current data
+     */
+    private String render(Placeholder placeholder, PaydayData paydayData, long requiredMinutes) {
+        switch (placeholder) {
             // Time-related placeholders
-            case "time_played":
+            case TIME_PLAYED:
                 return String.valueOf(paydayData.getMinutesPlayed());
                 
-            case "time_required":
+            case TIME_REQUIRED:
                 return String.valueOf(requiredMinutes);
                 
-            case "time_remaining":
+            case TIME_REMAINING:
                 return String.valueOf(paydayData.getRemainingMinutes(requiredMinutes));
                 
-            case "time_progress_percentage":
+            case TIME_PROGRESS_PERCENTAGE:
                 return String.format("%.1f", paydayData.getProgressPercentage(requiredMinutes));
                 
-            case "time_progress_percentage_rounded":
+            case TIME_PROGRESS_PERCENTAGE_ROUNDED:
                 return String.valueOf(Math.round(paydayData.getProgressPercentage(requiredMinutes)));
                 
             // Balance-related placeholders
-            case "pending_balance":
-                return String.format("%.2f", paydayData.getPendingBalance());
+            case PENDING_BALANCE:
+                return Money.format(paydayData.getPendingMicros());
                 
-            case "pending_balance_rounded":
+            case PENDING_BALANCE_ROUNDED:
                 return String.valueOf(Math.round(paydayData.getPendingBalance()));
                 
-            case "pending_balance_formatted":
-                return formatBalance(paydayData.getPendingBalance());
+            case PENDING_BALANCE_FORMATTED:
+                return formatBalance(paydayData.getPendingMicros());
                 
             // Status placeholders
-            case "is_ready":
+            case IS_READY:
                 return paydayData.isReadyForPayday(requiredMinutes) ? "true" : "false";
                 
-            case "status":
+            case STATUS:
                 return paydayData.isReadyForPayday(requiredMinutes) ? "Ready" : "In Progress";
                 
-            case "status_color":
+            case STATUS_COLOR:
                 return paydayData.isReadyForPayday(requiredMinutes) ? "&a" : "&e";
                 
             // Statistics placeholders
-            case "total_paydays":
+            case TOTAL_PAYDAYS:
                 return String.valueOf(paydayData.getTotalPaydays());
                 
-            case "last_updated":
+            case LAST_UPDATED:
                 return formatTimestamp(paydayData.getLastUpdated());
                 
             // Progress bar placeholders
-            case "progress_bar":
-                return createProgressBar(paydayData.getProgressPercentage(requiredMinutes), 20);
+            case PROGRESS_BAR:
+                return configManager.getProgressTables().legacyBar(paydayData.getProgressPercentage(requiredMinutes), 20);
                 
-            case "progress_bar_short":
-                return createProgressBar(paydayData.getProgressPercentage(requiredMinutes), 10);
+            case PROGRESS_BAR_SHORT:
+                return configManager.getProgressTables().legacyBar(paydayData.getProgressPercentage(requiredMinutes), 10);
                 
-            case "progress_bar_mini":
-                return createProgressBar(paydayData.getProgressPercentage(requiredMinutes), 5);
+            case PROGRESS_BAR_MINI:
+                return configManager.getProgressTables().legacyBar(paydayData.getProgressPercentage(requiredMinutes), 5);
                 
             // Formatted time placeholders
-            case "next_payday":
-                return formatMinutesToTime(paydayData.getRemainingMinutes(requiredMinutes));
+            case NEXT_PAYDAY:
+                return configManager.getProgressTables().formatTime(paydayData.getRemainingMinutes(requiredMinutes));
                 
-            case "time_played_formatted":
-                return formatMinutesToTime(paydayData.getMinutesPlayed());
+            case TIME_PLAYED_FORMATTED:
+                return configManager.getProgressTables().formatTime(paydayData.getMinutesPlayed());
                 
-            case "time_required_formatted":
-                return formatMinutesToTime(requiredMinutes);
+            case TIME_REQUIRED_FORMATTED:
+                return configManager.getProgressTables().formatTime(requiredMinutes);
                 
             // Advanced placeholders
-            case "earnings_per_minute":
+            case EARNINGS_PER_MINUTE:
                 if (paydayData.getMinutesPlayed() > 0) {
-                    double earningsPerMinute = paydayData.getPendingBalance() / paydayData.getMinutesPlayed();
-                    return String.format("%.2f", earningsPerMinute);
+                    long earningsPerMinute = paydayData.getPendingMicros() / paydayData.getMinutesPlayed();
+                    return Money.format(earningsPerMinute);
                 }
                 return "0.00";
                 
-            case "estimated_total":
+            case ESTIMATED_TOTAL:
                 if (paydayData.getMinutesPlayed() > 0) {
-                    double earningsPerMinute = paydayData.getPendingBalance() / paydayData.getMinutesPlayed();
-                    double estimatedTotal = earningsPerMinute * requiredMinutes;
-                    return String.format("%.2f", estimatedTotal);
+                    long estimatedTotal = Money.multiply(paydayData.getPendingMicros(), (double) requiredMinutes / paydayData.getMinutesPlayed());
+                    return Money.format(estimatedTotal);
                 }
-                return String.format("%.2f", paydayData.getPendingBalance());
+                return Money.format(paydayData.getPendingMicros());
+                
+            default:
+                return null;
+        }
+    }
+    
+    /**
+     * Get value for placeholders while an online player's data is still loading
+     */
+    private String getLoadingValue(Placeholder placeholder) {
+        switch (configManager.getPlaceholderLoadingPolicy().toLowerCase()) {
+            case "text":
+                return configManager.getPlaceholderLoadingText();
+                
+            case "empty":
+                return "";
                 
             default:
-                return null; // Placeholder not found
+                return getDefaultValue(placeholder);
         }
     }
     
     /**
      * Get default value for placeholders when player data is not available
      */
-    private String getDefaultValue(String params) {
-        switch (params.toLowerCase()) {
-            case "time_played":
-            case "time_remaining":
-            case "total_paydays":
+    private String getDefaultValue(Placeholder placeholder) {
+        if (placeholder == null) {
+            return "";
+        }
+        
+        switch (placeholder) {
+            case TIME_PLAYED:
+            case TIME_REMAINING:
+            case TOTAL_PAYDAYS:
                 return "0";
                 
-            case "time_required":
+            case TIME_REQUIRED:
                 return String.valueOf(configManager.getPaydayIntervalMinutes());
                 
-            case "time_progress_percentage":
-            case "time_progress_percentage_rounded":
-            case "pending_balance":
-            case "pending_balance_rounded":
-            case "earnings_per_minute":
-            case "estimated_total":
+            case TIME_PROGRESS_PERCENTAGE:
+            case TIME_PROGRESS_PERCENTAGE_ROUNDED:
+            case PENDING_BALANCE:
+            case PENDING_BALANCE_ROUNDED:
+            case EARNINGS_PER_MINUTE:
+            case ESTIMATED_TOTAL:
                 return "0.00";
                 
-            case "pending_balance_formatted":
+            case PENDING_BALANCE_FORMATTED:
                 return "$0.00";
                 
-            case "is_ready":
+            case IS_READY:
                 return "false";
                 
-            case "status":
+            case STATUS:
                 return "Not Started";
                 
-            case "status_color":
+            case STATUS_COLOR:
                 return "&7";
                 
-            case "last_updated":
+            case LAST_UPDATED:
                 return "Never";
                 
-            case "progress_bar":
+            case PROGRESS_BAR:
                 return "&7████████████████████";
                 
-            case "progress_bar_short":
+            case PROGRESS_BAR_SHORT:
                 return "&7██████████";
                 
-            case "progress_bar_mini":
+            case PROGRESS_BAR_MINI:
                 return "&7█████";
                 
-            case "next_payday":
-            case "time_played_formatted":
+            case NEXT_PAYDAY:
+            case TIME_PLAYED_FORMATTED:
                 return "0m";
                 
-            case "time_required_formatted":
-                return formatMinutesToTime(configManager.getPaydayIntervalMinutes());
+            case TIME_REQUIRED_FORMATTED:
+                return configManager.getProgressTables().formatTime(configManager.getPaydayIntervalMinutes());
                 
             default:
                 return "";
         }
     }
     
-    /**
-     * Create a visual progress bar
-     */
-    private String createProgressBar(double percentage, int length) {
-        int filledBars = (int) (percentage / 100.0 * length);
-        int emptyBars = length - filledBars;
-        
-        StringBuilder progressBar = new StringBuilder("&a");
-        
-        // Add filled bars
-        for (int i = 0; i < filledBars; i++) {
-            progressBar.append("█");
-        }
-        
-        // Add empty bars
-        progressBar.append("&7");
-        for (int i = 0; i < emptyBars; i++) {
-            progressBar.append("█");
-        }
-        
-        return progressBar.toString();
-    }
-    
     /**
      * Format balance with currency symbol
      */
-    private String formatBalance(double balance) {
-        return String.format("$%.2f", balance);
+    private String formatBalance(long balance) {
+        return "$" + Money.format(balance);
     }
     
     /**
@@ -251,22 +420,4 @@ public class PlaceholderAPIIntegration extends PlaceholderExpansion {
         java.time.format.DateTimeFormatter formatter = java.time.format.DateTimeFormatter.ofPattern("MM/dd HH:mm");
         return dateTime.format(formatter);
     }
-    
-    /**
-     * Format minutes to human-readable time format
-     */
-    private String formatMinutesToTime(long minutes) {
-        if (minutes < 60) {
-            return minutes + "m";
-        } else {
-            long hours = minutes / 60;
-            long remainingMinutes = minutes % 60;
-            
-            if (remainingMinutes == 0) {
-                return hours + "h";
-            } else {
-                return hours + "h " + remainingMinutes + "m";
-            }
-        }
-    }
 }
\ No newline at end of file
@@ -0,0 +1,313 @@
+package me.devupdates.vaultPayday.manager;
+
+import me.devupdates.vaultPayday.VaultPayday;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Event;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.plugin.EventExecutor;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Detects AFK players for advanced.afk.pause_when_afk and reports them to the payday manager
+ * Built in: each online player's block position and view direction are hashed every sample_interval_seconds
+ * into a ring buffer, a full window with at most two distinct samples (standing still or an AFK machine
+ * moving them back and forth) counts as AFK
+ * Essentials or CMI AFK status is added on top through their events, looked up by reflection so neither is required
+ */
+public class AfkDetector implements Listener {
+    // Samples a window may hold and still count as AFK
+    private static final int MAX_DISTINCT_SAMPLES = 2;
+    
+    private final VaultPayday plugin;
+    private final PaydayManager paydayManager;
+    private final ConfigManager configManager;
+    
+    // Per-slot state in flat primitive arrays, a player keeps their slot for the whole session
+    private final Map<UUID, Integer> slots = new HashMap<>();
+    private Player[] players = new Player[64];
+    private int[] samples = new int[0]; // Ring buffers of window entries each, slot-major
+    private int[] cursors = new int[64];
+    private int[] filled = new int[64];
+    private boolean[] movementAfk = new boolean[64];
+    private int[] freeSlots = new int[0];
+    private int freeCount;
+    private int slotCount;
+    private int window;
+    
+    // Reused for every sample, Player#getLocation(Location) fills it in place
+    private final Location scratch = new Location(null, 0, 0, 0);
+    
+    // AFK according to Essentials or CMI, updated from their events
+    private final Set<UUID> pluginAfk = ConcurrentHashMap.newKeySet();
+    
+    private BukkitTask sampleTask;
+    private String hookedPlugin;
+    
+    public AfkDetector(VaultPayday plugin, PaydayManager paydayManager, ConfigManager configManager) {
+        this.plugin = plugin;
+        this.paydayManager = paydayManager;
+        this.configManager = configManager;
+    }
+    
+    /**
+     * (Re)start detection from the current config, must be called on the main thread
+     */
+    public void start() {
+        shutdown();
+        hookedPlugin = null;
+        
+        if (!configManager.isAfkPauseEnabled()) {
+            // Nobody is paused for being AFK any more
+            for (Player player : Bukkit.getOnlinePlayers()) {
+                paydayManager.setAfk(player, false);
+            }
+            return;
+        }
+        
+        int interval = configManager.getAfkSampleIntervalSeconds();
+        window = Math.max(MAX_DISTINCT_SAMPLES + 1, (configManager.getAfkTimeoutSeconds() + interval - 1) / interval);
+        samples = new int[players.length * window];
+        
+        hookPlugin(configManager.getAfkDetectionPlugin());
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            track(player);
+            refresh(player);
+        }
+        
+        long intervalTicks = interval * 20L;
+        sampleTask = new BukkitRunnable() {
+            @Override
+            public void run() {
+                sample();
+            }
+        }.runTaskTimer(plugin, intervalTicks, intervalTicks);
+        
+        plugin.getLogger().info("AFK detection started (window " + window + " x " + interval + "s" +
+            (hookedPlugin != null ? ", " + hookedPlugin + " AFK status" : "") + ")");
+    }
+    
+    /**
+     * Take one sample of every tracked player, O(online players) and allocation-free
+     */
+    private void sample() {
+        for (int slot = 0; slot < slotCount; slot++) {
+            Player player = players[slot];
+            if (player == null) {
+                continue;
+            }
+            
+            player.getLocation(scratch);
+            int hash = scratch.getBlockX();
+            hash = 31 * hash + scratch.getBlockY();
+            hash = 31 * hash + scratch.getBlockZ();
+            hash = 31 * hash + Float.floatToIntBits(scratch.getYaw());
+            hash = 31 * hash + Float.floatToIntBits(scratch.getPitch());
+            
+            int base = slot * window;
+            samples[base + cursors[slot]] = hash;
+            cursors[slot] = (cursors[slot] + 1) % window;
+            if (filled[slot] < window) {
+                filled[slot]++;
+            }
+            
+            boolean afk = filled[slot] == window && isIdle(base);
+            if (afk != movementAfk[slot]) {
+                movementAfk[slot] = afk;
+                refresh(player);
+            }
+        }
+        scratch.setWorld(null); // Don't keep a world alive through the scratch location
+    }
+    
+    /**
+     * Check if a full window holds at most MAX_DISTINCT_SAMPLES different hashes
+     */
+    private boolean isIdle(int base) {
+        int first = samples[base];
+        int second = first;
+        for (int i = 1; i < window; i++) {
+            int sample = samples[base + i];
+            if (sample == first || sample == second) {
+                continue;
+            }
+            if (second != first) {
+                return false;
+            }
+            second = sample;
+        }
+        return true;
+    }
+    
+    /**
+     * Report the combined built-in and plugin AFK state
+     */
+    private void refresh(Player player) {
+        Integer slot = slots.get(player.getUniqueId());
+        boolean afk = (slot != null && movementAfk[slot]) || pluginAfk.contains(player.getUniqueId());
+        paydayManager.setAfk(player, afk);
+    }
+    
+    /**
+     * Start sampling a player, called on join
+     */
+    public void track(Player player) {
+        if (!configManager.isAfkPauseEnabled() || slots.containsKey(player.getUniqueId())) {
+            return;
+        }
+        
+        int slot = freeCount > 0 ? freeSlots[--freeCount] : slotCount++;
+        if (slot >= players.length) {
+            grow(players.length * 2);
+        }
+        
+        slots.put(player.getUniqueId(), slot);
+        players[slot] = player;
+        cursors[slot] = 0;
+        filled[slot] = 0;
+        movementAfk[slot] = false;
+    }
+    
+    /**
+     * Stop sampling a player, called on quit
+     */
+    public void untrack(UUID playerUUID) {
+        pluginAfk.remove(playerUUID);
+        Integer slot = slots.remove(playerUUID);
+        if (slot == null) {
+            return;
+        }
+        
+        players[slot] = null;
+        movementAfk[slot] = false;
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, Math.max(16, freeSlots.length * 2));
+        }
+        freeSlots[freeCount++] = slot;
+    }
+    
+    private void grow(int capacity) {
+        players = Arrays.copyOf(players, capacity);
+        samples = Arrays.copyOf(samples, capacity * window);
+        cursors = Arrays.copyOf(cursors, capacity);
+        filled = Arrays.copyOf(filled, capacity);
+        movementAfk = Arrays.copyOf(movementAfk, capacity);
+    }
+    
+    /**
+     * Listen to the AFK events of Essentials or CMI, whichever is configured or installed
+     */
+    private void hookPlugin(String detectionPlugin) {
+        boolean auto = detectionPlugin.equals("auto");
+        
+        if ((auto || detectionPlugin.equals("essentials")) && hookEssentials()) {
+            hookedPlugin = "Essentials";
+        } else if ((auto || detectionPlugin.equals("cmi")) && hookCmi()) {
+            hookedPlugin = "CMI";
+        } else if (!auto && !detectionPlugin.equals("none")) {
+            plugin.getLogger().warning("AFK detection plugin " + detectionPlugin + " not found, using movement sampling only");
+        }
+    }
+    
+    private boolean hookEssentials() {
+        Plugin essentials = Bukkit.getPluginManager().getPlugin("Essentials");
+        if (essentials == null || !essentials.isEnabled()) {
+            return false;
+        }
+        
+        try {
+            // net.ess3.api.events.AfkStatusChangeEvent: getAffected() is the IUser, getValue() the new status
+            Class<? extends Event> eventClass = eventClass(essentials, "net.ess3.api.events.AfkStatusChangeEvent");
+            Method getAffected = eventClass.getMethod("getAffected");
+            Method getValue = eventClass.getMethod("getValue");
+            
+            register(eventClass, (listener, event) -> {
+                try {
+                    Object user = getAffected.invoke(event);
+                    Player player = (Player) user.getClass().getMethod("getBase").invoke(user);
+                    setPluginAfk(player, (Boolean) getValue.invoke(event));
+                } catch (ReflectiveOperationException e) {
+                    plugin.getLogger().warning("Failed to read Essentials AFK status: " + e.getMessage());
+                }
+            });
+            return true;
+        } catch (ReflectiveOperationException e) {
+            plugin.getLogger().warning("Essentials found but its AFK events are not available: " + e.getMessage());
+            return false;
+        }
+    }
+    
+    private boolean hookCmi() {
+        Plugin cmi = Bukkit.getPluginManager().getPlugin("CMI");
+        if (cmi == null || !cmi.isEnabled()) {
+            return false;
+        }
+        
+        try {
+            Class<? extends Event> enterClass = eventClass(cmi, "com.Zrips.CMI.events.CMIAfkEnterEvent");
+            Class<? extends Event> leaveClass = eventClass(cmi, "com.Zrips.CMI.events.CMIAfkLeaveEvent");
+            Method enterPlayer = enterClass.getMethod("getPlayer");
+            Method leavePlayer = leaveClass.getMethod("getPlayer");
+            
+            register(enterClass, (listener, event) -> setPluginAfk(event, enterPlayer, true));
+            register(leaveClass, (listener, event) -> setPluginAfk(event, leavePlayer, false));
+            return true;
+        } catch (ReflectiveOperationException e) {
+            plugin.getLogger().warning("CMI found but its AFK events are not available: " + e.getMessage());
+            return false;
+        }
+    }
+    
+    private void setPluginAfk(Event event, Method getPlayer, boolean afk) {
+        try {
+            setPluginAfk((Player) getPlayer.invoke(event), afk);
+        } catch (ReflectiveOperationException e) {
+            plugin.getLogger().warning("Failed to read CMI AFK status: " + e.getMessage());
+        }
+    }
+    
+    private void setPluginAfk(Player player, boolean afk) {
+        boolean changed = afk ? pluginAfk.add(player.getUniqueId()) : pluginAfk.remove(player.getUniqueId());
+        if (changed) {
+            refresh(player);
+        }
+    }
+    
+    private void register(Class<? extends Event> eventClass, EventExecutor executor) {
+        Bukkit.getPluginManager().registerEvent(eventClass, this, EventPriority.MONITOR, executor, plugin, true);
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static Class<? extends Event> eventClass(Plugin owner, String name) throws ClassNotFoundException {
+        return (Class<? extends Event>) Class.forName(name, true, owner.getClass().getClassLoader());
+    }
+    
+    /**
+     * Stop sampling and drop every player
+     */
+    public void shutdown() {
+        if (sampleTask != null) {
+            sampleTask.cancel();
+            sampleTask = null;
+        }
+        HandlerList.unregisterAll(this);
+        slots.clear();
+        Arrays.fill(players, null);
+        slotCount = 0;
+        freeCount = 0;
+        pluginAfk.clear();
+    }
+}
\ No newline at end of file
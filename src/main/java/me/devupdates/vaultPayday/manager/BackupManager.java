@@ -0,0 +1,223 @@
+package me.devupdates.vaultPayday.manager;
+
+import me.devupdates.vaultPayday.VaultPayday;
+import me.devupdates.vaultPayday.data.DataManager;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Scheduled, compressed and rotated backups of the payday data
+ * Snapshots and compression run on their own low-priority thread, so neither the server nor the storage writer waits on them
+ */
+public class BackupManager {
+    private static final String FILE_PREFIX = "payday_backup_";
+    private static final int BUFFER_SIZE = 64 * 1024;
+    
+    private final VaultPayday plugin;
+    private final DataManager dataManager;
+    private final ConfigManager configManager;
+    private final File backupDir;
+    private final ExecutorService executor;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private BukkitTask scheduleTask;
+    
+    // Last completed backup, for the debug command
+    private volatile BackupResult lastResult;
+    
+    /**
+     * Outcome of one backup
+     * @param bytes Size of the final file
+     */
+    public record BackupResult(String fileName, long bytes, long durationMillis) {}
+    
+    public BackupManager(VaultPayday plugin, DataManager dataManager, ConfigManager configManager) {
+        this.plugin = plugin;
+        this.dataManager = dataManager;
+        this.configManager = configManager;
+        this.backupDir = new File(plugin.getDataFolder(), "backups");
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "VaultPayday-Backup");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+    }
+    
+    /**
+     * (Re)start the backup schedule from the current config
+     * The first run is timed from the newest existing backup, so restarts don't trigger a backup each time
+     */
+    public void start() {
+        if (scheduleTask != null) {
+            scheduleTask.cancel();
+            scheduleTask = null;
+        }
+        if (!configManager.isBackupEnabled()) {
+            return;
+        }
+        
+        long intervalMillis = TimeUnit.HOURS.toMillis(configManager.getBackupIntervalHours());
+        long sinceLast = System.currentTimeMillis() - newestBackupTime();
+        long delayMillis = Math.max(TimeUnit.MINUTES.toMillis(1), intervalMillis - sinceLast);
+        
+        scheduleTask = new BukkitRunnable() {
+            @Override
+            public void run() {
+                createBackup();
+            }
+        }.runTaskTimer(plugin, delayMillis / 50L, intervalMillis / 50L);
+    }
+    
+    /**
+     * Take a backup on the backup thread
+     * @return The result, or null if a backup was already running or it failed
+     */
+    public CompletableFuture<BackupResult> createBackup() {
+        if (!running.compareAndSet(false, true)) {
+            plugin.getLogger().warning("Backup skipped, the previous one is still running");
+            return CompletableFuture.completedFuture(null);
+        }
+        
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                BackupResult result = runBackup();
+                lastResult = result;
+                plugin.getLogger().info("Database backup created: " + result.fileName() + " (" +
+                    result.bytes() / 1024 + " KiB in " + result.durationMillis() + "ms)");
+                return result;
+            } catch (Exception e) {
+                plugin.getLogger().severe("Failed to create database backup: " + e.getMessage());
+                return null;
+            } finally {
+                running.set(false);
+            }
+        }, executor);
+    }
+    
+    private BackupResult runBackup() throws Exception {
+        long start = System.currentTimeMillis();
+        if (!backupDir.exists()) {
+            backupDir.mkdirs();
+        }
+        
+        File snapshot = new File(backupDir, FILE_PREFIX + start + dataManager.getSnapshotExtension());
+        File result = snapshot;
+        try {
+            dataManager.writeSnapshot(snapshot);
+            
+            if (configManager.isBackupCompress()) {
+                result = new File(backupDir, snapshot.getName() + ".gz");
+                compress(snapshot, result);
+                snapshot.delete();
+            }
+        } catch (Exception e) {
+            // Never leave a partial file behind to be mistaken for a backup
+            snapshot.delete();
+            result.delete();
+            throw e;
+        }
+        
+        rotate();
+        return new BackupResult(result.getName(), result.length(), System.currentTimeMillis() - start);
+    }
+    
+    /**
+     * GZIP the snapshot, sleeping between chunks to stay under the configured rate
+     */
+    private void compress(File source, File target) throws IOException {
+        long bytesPerSecond = configManager.getBackupMaxMbPerSecond() * 1024L * 1024L;
+        byte[] buffer = new byte[BUFFER_SIZE];
+        long copied = 0;
+        long start = System.nanoTime();
+        
+        try (InputStream in = new FileInputStream(source);
+             OutputStream out = new GZIPOutputStream(new FileOutputStream(target), BUFFER_SIZE)) {
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                out.write(buffer, 0, read);
+                copied += read;
+                
+                if (bytesPerSecond > 0) {
+                    long aheadMillis = copied * 1000L / bytesPerSecond - (System.nanoTime() - start) / 1_000_000L;
+                    if (aheadMillis > 0) {
+                        sleep(aheadMillis);
+                    }
+                }
+            }
+        }
+    }
+    
+    /**
+     * Delete the oldest backups beyond max_backups
+     */
+    private void rotate() {
+        File[] backups = listBackups();
+        Arrays.sort(backups, Comparator.comparingLong(File::lastModified).reversed());
+        
+        for (int i = configManager.getMaxBackups(); i < backups.length; i++) {
+            if (backups[i].delete()) {
+                plugin.getLogger().info("Deleted old backup: " + backups[i].getName());
+            }
+        }
+    }
+    
+    private long newestBackupTime() {
+        long newest = 0;
+        for (File backup : listBackups()) {
+            newest = Math.max(newest, backup.lastModified());
+        }
+        return newest;
+    }
+    
+    private File[] listBackups() {
+        File[] backups = backupDir.listFiles((dir, name) -> name.startsWith(FILE_PREFIX));
+        return backups != null ? backups : new File[0];
+    }
+    
+    private static void sleep(long millis) throws IOException {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Backup interrupted", e);
+        }
+    }
+    
+    /**
+     * Stop the schedule and let a running backup finish before storage closes
+     */
+    public void shutdown() {
+        if (scheduleTask != null) {
+            scheduleTask.cancel();
+        }
+        
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                plugin.getLogger().warning("Backup did not finish in time and was interrupted");
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    // Getters
+    public BackupResult getLastResult() { return lastResult; }
+    public boolean isRunning() { return running.get(); }
+}
\ No newline at end of file
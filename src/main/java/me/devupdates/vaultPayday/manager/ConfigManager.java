@@ -1,12 +1,18 @@
 package me.devupdates.vaultPayday.manager;
 
 import me.devupdates.vaultPayday.VaultPayday;
+import me.devupdates.vaultPayday.util.JobTable;
+import me.devupdates.vaultPayday.util.MessageTemplate;
+import me.devupdates.vaultPayday.util.ProgressTables;
+import me.devupdates.vaultPayday.util.WorldRules;
+import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.FileConfiguration;
 
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
 
 /**
  * Manages plugin configuration and provides easy access to settings
@@ -22,23 +28,70 @@ public class ConfigManager {
     private int paydayCommandCooldown;
     private String storageType;
     private String sqliteFilename;
+    private String sqliteJournalMode;
+    private String sqliteSynchronous;
+    private int sqliteMmapSizeMb;
+    private int sqliteCacheSizeKb;
+    private int sqliteBusyTimeoutMillis;
+    private int sqliteReadConnections;
+    private String mysqlHost;
+    private int mysqlPort;
+    private String mysqlDatabase;
+    private String mysqlUsername;
+    private String mysqlPassword;
+    private boolean mysqlUseSsl;
+    private int mysqlMaximumPoolSize;
+    private int mysqlMinimumIdle;
+    private long mysqlConnectionTimeoutMillis;
+    private long mysqlMaxLifetimeMillis;
+    private int mysqlBatchRows;
+    private String mysqlServerId;
+    private int mysqlLeaseSeconds;
+    private long mysqlHandoffWaitMillis;
     private int yamlSaveInterval;
     private boolean autoSaveOnEvents;
+    private int writeBehindFlushIntervalSeconds;
+    private int writeBehindMaxBatchSize;
+    private int storageReaderThreads;
+    private int storageQueueCapacity;
+    private boolean storageVirtualThreads;
     private int timeUpdateInterval;
     private int maxPlayersPerCycle;
+    private boolean compactStateStore;
+    private double settlementTickBudgetMillis;
     private boolean multipliersEnabled;
     private Map<String, Double> permissionMultipliers;
+    private String[] permissionMultiplierNodes = new String[0]; // Sorted by multiplier, highest first
+    private double[] permissionMultiplierValues = new double[0];
+    private int multiplierCacheTtlSeconds;
     private Map<String, Double> jobMultipliers;
     private boolean placeholderAPIEnabled;
+    private String placeholderLoadingPolicy;
+    private String placeholderLoadingText;
     private boolean interceptAllPayments;
     private List<String> specificJobs;
+    private JobTable jobTable = JobTable.build(true, List.of(), Map.of());
     private double minimumPayment;
     private String messagePrefix;
+    private Map<String, MessageTemplate> messageTemplates = Map.of();
+    private Map<String, MessageTemplate> prefixedMessageTemplates = Map.of();
     private boolean debugMode;
+    private boolean afkPauseEnabled;
+    private String afkDetectionPlugin;
+    private int afkSampleIntervalSeconds;
+    private int afkTimeoutSeconds;
+    private boolean backupEnabled;
+    private int backupIntervalHours;
+    private int maxBackups;
+    private boolean backupCompress;
+    private int backupMaxMbPerSecond;
     private boolean showProgressNotifications;
+    private int interceptionNotificationWindowMillis;
     private boolean worldWhitelistMode;
     private List<String> whitelistedWorlds;
     private List<String> blacklistedWorlds;
+    private WorldRules worldRules;
+    private ProgressTables progressTables;
     
     public ConfigManager(VaultPayday plugin) {
         this.plugin = plugin;
@@ -65,6 +118,7 @@ public class ConfigManager {
     private void cacheConfigValues() {
         // Payday system settings
         paydayIntervalMinutes = config.getLong("payday_interval_minutes", 60);
+        progressTables = ProgressTables.build(paydayIntervalMinutes);
         messageType = config.getString("notifications.message_type", "chat");
         showProgressCommand = config.getBoolean("commands.show_progress_command", true);
         paydayCommandCooldown = config.getInt("commands.payday_command_cooldown", 30);
@@ -72,36 +126,84 @@ public class ConfigManager {
         // Storage settings
         storageType = config.getString("storage.type", "sqlite");
         sqliteFilename = config.getString("storage.sqlite_filename", "payday_data.db");
+        sqliteJournalMode = config.getString("storage.sqlite.journal_mode", "WAL").toUpperCase();
+        sqliteSynchronous = config.getString("storage.sqlite.synchronous", "NORMAL").toUpperCase();
+        sqliteMmapSizeMb = config.getInt("storage.sqlite.mmap_size_mb", 64);
+        sqliteCacheSizeKb = config.getInt("storage.sqlite.cache_size_kb", 8192);
+        sqliteBusyTimeoutMillis = config.getInt("storage.sqlite.busy_timeout_ms", 5000);
+        sqliteReadConnections = config.getInt("storage.sqlite.read_connections", 2);
+        mysqlHost = config.getString("storage.mysql.host", "localhost");
+        mysqlPort = config.getInt("storage.mysql.port", 3306);
+        mysqlDatabase = config.getString("storage.mysql.database", "vaultpayday");
+        mysqlUsername = config.getString("storage.mysql.username", "root");
+        mysqlPassword = config.getString("storage.mysql.password", "");
+        mysqlUseSsl = config.getBoolean("storage.mysql.use_ssl", false);
+        mysqlMaximumPoolSize = config.getInt("storage.mysql.pool.maximum_pool_size", 8);
+        mysqlMinimumIdle = config.getInt("storage.mysql.pool.minimum_idle", 2);
+        mysqlConnectionTimeoutMillis = config.getLong("storage.mysql.pool.connection_timeout_ms", 5000L);
+        mysqlMaxLifetimeMillis = config.getLong("storage.mysql.pool.max_lifetime_ms", 1800000L);
+        mysqlBatchRows = config.getInt("storage.mysql.batch_rows", 100);
+        mysqlServerId = config.getString("storage.mysql.handoff.server_id", "");
+        if (mysqlServerId.isBlank()) {
+            mysqlServerId = UUID.randomUUID().toString(); // Unique per start, stale leases simply expire
+        }
+        mysqlLeaseSeconds = config.getInt("storage.mysql.handoff.lease_seconds", 60);
+        mysqlHandoffWaitMillis = config.getLong("storage.mysql.handoff.wait_ms", 5000L);
         yamlSaveInterval = config.getInt("storage.yaml_save_interval", 300);
         autoSaveOnEvents = config.getBoolean("storage.auto_save_on_events", true);
+        writeBehindFlushIntervalSeconds = config.getInt("storage.write_behind.flush_interval_seconds", 5);
+        writeBehindMaxBatchSize = config.getInt("storage.write_behind.max_batch_size", 200);
+        storageReaderThreads = config.getInt("storage.io.reader_threads", 2);
+        storageQueueCapacity = config.getInt("storage.io.queue_capacity", 1000);
+        storageVirtualThreads = config.getBoolean("storage.io.virtual_threads", true);
         
         // Performance settings
         timeUpdateInterval = config.getInt("performance.time_update_interval", 60);
         maxPlayersPerCycle = config.getInt("performance.max_players_per_cycle", 50);
+        compactStateStore = config.getBoolean("performance.compact_state_store", false);
+        settlementTickBudgetMillis = config.getDouble("performance.settlement.tick_budget_ms", 2.0);
         
         // Multiplier settings
         multipliersEnabled = config.getBoolean("multipliers.enabled", true);
+        multiplierCacheTtlSeconds = config.getInt("multipliers.cache_ttl_seconds", 300);
         loadMultipliers();
         
         // Integration settings
         placeholderAPIEnabled = config.getBoolean("integrations.placeholderapi.enabled", true);
+        placeholderLoadingPolicy = config.getString("integrations.placeholderapi.loading_policy", "default");
+        placeholderLoadingText = config.getString("integrations.placeholderapi.loading_text", "...");
         interceptAllPayments = config.getBoolean("integrations.jobs.intercept_all_payments", true);
         specificJobs = config.getStringList("integrations.jobs.specific_jobs");
         minimumPayment = config.getDouble("integrations.jobs.minimum_payment", 0.01);
+        jobTable = JobTable.build(interceptAllPayments, specificJobs, jobMultipliers);
         
         // Message settings
         messagePrefix = config.getString("messages.prefix", "&8[&6VaultPayday&8] &r");
+        compileMessages();
         
         // Advanced settings
         debugMode = config.getBoolean("advanced.debug", false);
+        afkPauseEnabled = config.getBoolean("advanced.afk.pause_when_afk", false);
+        afkDetectionPlugin = config.getString("advanced.afk.detection_plugin", "auto").toLowerCase();
+        afkSampleIntervalSeconds = config.getInt("advanced.afk.sample_interval_seconds", 15);
+        afkTimeoutSeconds = config.getInt("advanced.afk.timeout_seconds", 300);
+        
+        // Backup settings
+        backupEnabled = config.getBoolean("advanced.backup.enabled", true);
+        backupIntervalHours = config.getInt("advanced.backup.interval_hours", 24);
+        maxBackups = config.getInt("advanced.backup.max_backups", 7);
+        backupCompress = config.getBoolean("advanced.backup.compress", true);
+        backupMaxMbPerSecond = config.getInt("advanced.backup.max_mb_per_second", 16);
         
         // Notification settings
         showProgressNotifications = config.getBoolean("notifications.show_progress", true);
+        interceptionNotificationWindowMillis = config.getInt("notifications.interception_window_ms", 1000);
         
         // World settings
         worldWhitelistMode = config.getBoolean("advanced.worlds.whitelist_mode", false);
         whitelistedWorlds = config.getStringList("advanced.worlds.whitelisted_worlds");
         blacklistedWorlds = config.getStringList("advanced.worlds.blacklisted_worlds");
+        worldRules = WorldRules.build(worldWhitelistMode, whitelistedWorlds, blacklistedWorlds);
     }
     
     private void loadMultipliers() {
@@ -126,37 +228,117 @@ public class ConfigManager {
                     jobMultipliers.put(job, multiplier);
                 }
             }
+            
+            // Lookup arrays for the multiplier cache, nodes that cannot raise the multiplier are skipped
+            var boosting = permissionMultipliers.entrySet().stream()
+                .filter(entry -> entry.getValue() > 1.0)
+                .sorted(Map.Entry.<String, Double>comparingByValue().reversed())
+                .toList();
+            permissionMultiplierNodes = boosting.stream().map(Map.Entry::getKey).toArray(String[]::new);
+            permissionMultiplierValues = boosting.stream().mapToDouble(Map.Entry::getValue).toArray();
+        } else {
+            permissionMultiplierNodes = new String[0];
+            permissionMultiplierValues = new double[0];
         }
     }
     
+    /**
+     * Compile every message once, with and without prefix, so sending one never re-parses it
+     */
+    private void compileMessages() {
+        Map<String, MessageTemplate> templates = new HashMap<>();
+        Map<String, MessageTemplate> prefixedTemplates = new HashMap<>();
+        
+        ConfigurationSection messages = config.getConfigurationSection("messages");
+        if (messages != null) {
+            for (String key : messages.getKeys(false)) {
+                if (key.equals("prefix") || !messages.isString(key)) {
+                    continue;
+                }
+                
+                String message = messages.getString(key);
+                templates.put(key, MessageTemplate.compile(message));
+                prefixedTemplates.put(key, MessageTemplate.compile(messagePrefix + message));
+            }
+        }
+        
+        messageTemplates = Map.copyOf(templates);
+        prefixedMessageTemplates = Map.copyOf(prefixedTemplates);
+    }
+    
     public void reloadConfig() {
         loadConfig();
     }
     
     // Getter methods for cached values
     public long getPaydayIntervalMinutes() { return paydayIntervalMinutes; }
+    public ProgressTables getProgressTables() { return progressTables; }
     public String getMessageType() { return messageType; }
     public boolean isShowProgressCommand() { return showProgressCommand; }
     public int getPaydayCommandCooldown() { return paydayCommandCooldown; }
     public String getStorageType() { return storageType; }
     public String getSqliteFilename() { return sqliteFilename; }
+    public String getSqliteJournalMode() { return sqliteJournalMode; }
+    public String getSqliteSynchronous() { return sqliteSynchronous; }
+    public int getSqliteMmapSizeMb() { return sqliteMmapSizeMb; }
+    public int getSqliteCacheSizeKb() { return sqliteCacheSizeKb; }
+    public int getSqliteBusyTimeoutMillis() { return sqliteBusyTimeoutMillis; }
+    public int getSqliteReadConnections() { return sqliteReadConnections; }
+    public String getMysqlHost() { return mysqlHost; }
+    public int getMysqlPort() { return mysqlPort; }
+    public String getMysqlDatabase() { return mysqlDatabase; }
+    public String getMysqlUsername() { return mysqlUsername; }
+    public String getMysqlPassword() { return mysqlPassword; }
+    public boolean isMysqlUseSsl() { return mysqlUseSsl; }
+    public int getMysqlMaximumPoolSize() { return mysqlMaximumPoolSize; }
+    public int getMysqlMinimumIdle() { return mysqlMinimumIdle; }
+    public long getMysqlConnectionTimeoutMillis() { return mysqlConnectionTimeoutMillis; }
+    public long getMysqlMaxLifetimeMillis() { return mysqlMaxLifetimeMillis; }
+    public int getMysqlBatchRows() { return mysqlBatchRows; }
+    public String getMysqlServerId() { return mysqlServerId; }
+    public int getMysqlLeaseSeconds() { return mysqlLeaseSeconds; }
+    public long getMysqlHandoffWaitMillis() { return mysqlHandoffWaitMillis; }
     public int getYamlSaveInterval() { return yamlSaveInterval; }
     public boolean isAutoSaveOnEvents() { return autoSaveOnEvents; }
+    public int getWriteBehindFlushIntervalSeconds() { return writeBehindFlushIntervalSeconds; }
+    public int getWriteBehindMaxBatchSize() { return writeBehindMaxBatchSize; }
+    public int getStorageReaderThreads() { return storageReaderThreads; }
+    public int getStorageQueueCapacity() { return storageQueueCapacity; }
+    public boolean isStorageVirtualThreads() { return storageVirtualThreads; }
     public int getTimeUpdateInterval() { return timeUpdateInterval; }
     public int getMaxPlayersPerCycle() { return maxPlayersPerCycle; }
+    public boolean isCompactStateStore() { return compactStateStore; }
+    public double getSettlementTickBudgetMillis() { return settlementTickBudgetMillis; }
     public boolean isMultipliersEnabled() { return multipliersEnabled; }
     public Map<String, Double> getPermissionMultipliers() { return new HashMap<>(permissionMultipliers); }
+    public String[] getPermissionMultiplierNodes() { return permissionMultiplierNodes; } // Shared, do not modify
+    public double[] getPermissionMultiplierValues() { return permissionMultiplierValues; } // Shared, do not modify
+    public int getMultiplierCacheTtlSeconds() { return multiplierCacheTtlSeconds; }
     public Map<String, Double> getJobMultipliers() { return new HashMap<>(jobMultipliers); }
     public boolean isPlaceholderAPIEnabled() { return placeholderAPIEnabled; }
+    public String getPlaceholderLoadingPolicy() { return placeholderLoadingPolicy; }
+    public String getPlaceholderLoadingText() { return placeholderLoadingText; }
     public boolean isInterceptAllPayments() { return interceptAllPayments; }
     public List<String> getSpecificJobs() { return specificJobs; }
+    public JobTable getJobTable() { return jobTable; }
     public double getMinimumPayment() { return minimumPayment; }
     public String getMessagePrefix() { return messagePrefix; }
     public boolean isDebugMode() { return debugMode; }
+    public boolean isAfkPauseEnabled() { return afkPauseEnabled; }
+    public String getAfkDetectionPlugin() { return afkDetectionPlugin; }
+    public int getAfkSampleIntervalSeconds() { return afkSampleIntervalSeconds; }
+    public int getAfkTimeoutSeconds() { return afkTimeoutSeconds; }
+    public boolean isBackupEnabled() { return backupEnabled; }
+    public int getBackupIntervalHours() { return backupIntervalHours; }
+    public int getMaxBackups() { return maxBackups; }
+    public boolean isBackupCompress() { return backupCompress; }
+    public int getBackupMaxMbPerSecond() { return backupMaxMbPerSecond; }
     public boolean isShowProgressNotifications() { return showProgressNotifications; }
+    public int getInterceptionNotificationWindowMillis() { return interceptionNotificationWindowMillis; }
     public boolean isWorldWhitelistMode() { return worldWhitelistMode; }
     public List<String> getWhitelistedWorlds() { return whitelistedWorlds; }
     public List<String> getBlacklistedWorlds() { return blacklistedWorlds; }
+    public WorldRules getWorldRules() { return worldRules; }
     
     // Message retrieval methods
     public String getMessage(String key) {
@@ -168,6 +350,26 @@ public class ConfigManager {
         return (messagePrefix + message).replace("&", "§");
     }
     
+    /**
+     * Get the compiled template for a message, without prefix
+     * @param key Message key
+     * @return Compiled template
+     */
+    public MessageTemplate getMessageTemplate(String key) {
+        MessageTemplate template = messageTemplates.get(key);
+        return template != null ? template : MessageTemplate.compile(getMessage(key));
+    }
+    
+    /**
+     * Get the compiled template for a message, with the message prefix
+     * @param key Message key
+     * @return Compiled template
+     */
+    public MessageTemplate getPrefixedMessageTemplate(String key) {
+        MessageTemplate template = prefixedMessageTemplates.get(key);
+        return template != null ? template : MessageTemplate.compile(messagePrefix + getMessage(key));
+    }
+    
     /**
      * Get message with color codes converted but without prefix
      * @param key Message key
@@ -186,8 +388,57 @@ public class ConfigManager {
             valid = false;
         }
         
-        if (!storageType.equals("sqlite") && !storageType.equals("yaml")) {
-            plugin.getLogger().warning("storage.type must be either 'sqlite' or 'yaml'!");
+        if (!storageType.equals("sqlite") && !storageType.equals("yaml") && !storageType.equals("mysql")) {
+            plugin.getLogger().warning("storage.type must be one of 'sqlite', 'yaml' or 'mysql'!");
+            valid = false;
+        }
+        
+        if (storageType.equals("mysql")) {
+            if (mysqlMaximumPoolSize < 2 || mysqlMinimumIdle < 0 || mysqlMinimumIdle > mysqlMaximumPoolSize) {
+                plugin.getLogger().warning("storage.mysql.pool.maximum_pool_size must be at least 2 and not below minimum_idle!");
+                valid = false;
+            }
+            
+            if (mysqlBatchRows <= 0) {
+                plugin.getLogger().warning("storage.mysql.batch_rows must be greater than 0!");
+                valid = false;
+            }
+            
+            if (mysqlServerId.length() > 64) {
+                plugin.getLogger().warning("storage.mysql.handoff.server_id must be at most 64 characters!");
+                valid = false;
+            }
+            
+            // Leases are renewed every third of their length, well within the write-behind cadence
+            if (mysqlLeaseSeconds < 15 || mysqlHandoffWaitMillis < 0) {
+                plugin.getLogger().warning("storage.mysql.handoff.lease_seconds must be at least 15 and wait_ms not negative!");
+                valid = false;
+            }
+        }
+        
+        if (yamlSaveInterval <= 0) {
+            plugin.getLogger().warning("storage.yaml_save_interval must be greater than 0!");
+            valid = false;
+        }
+        
+        // Interpolated into PRAGMA statements, so only known values are accepted
+        if (!List.of("WAL", "DELETE", "TRUNCATE", "PERSIST", "MEMORY", "OFF").contains(sqliteJournalMode)) {
+            plugin.getLogger().warning("storage.sqlite.journal_mode must be one of WAL, DELETE, TRUNCATE, PERSIST, MEMORY or OFF!");
+            valid = false;
+        }
+        
+        if (!List.of("OFF", "NORMAL", "FULL", "EXTRA").contains(sqliteSynchronous)) {
+            plugin.getLogger().warning("storage.sqlite.synchronous must be one of OFF, NORMAL, FULL or EXTRA!");
+            valid = false;
+        }
+        
+        if (sqliteMmapSizeMb < 0 || sqliteCacheSizeKb < 0 || sqliteBusyTimeoutMillis < 0) {
+            plugin.getLogger().warning("storage.sqlite.mmap_size_mb, cache_size_kb and busy_timeout_ms must not be negative!");
+            valid = false;
+        }
+        
+        if (sqliteReadConnections <= 0) {
+            plugin.getLogger().warning("storage.sqlite.read_connections must be greater than 0!");
             valid = false;
         }
         
@@ -196,11 +447,71 @@ public class ConfigManager {
             valid = false;
         }
         
+        if (writeBehindFlushIntervalSeconds <= 0) {
+            plugin.getLogger().warning("storage.write_behind.flush_interval_seconds must be greater than 0!");
+            valid = false;
+        }
+        
+        if (writeBehindMaxBatchSize <= 0) {
+            plugin.getLogger().warning("storage.write_behind.max_batch_size must be greater than 0!");
+            valid = false;
+        }
+        
+        if (storageReaderThreads <= 0) {
+            plugin.getLogger().warning("storage.io.reader_threads must be greater than 0!");
+            valid = false;
+        }
+        
+        if (storageQueueCapacity <= 0) {
+            plugin.getLogger().warning("storage.io.queue_capacity must be greater than 0!");
+            valid = false;
+        }
+        
         if (maxPlayersPerCycle <= 0) {
             plugin.getLogger().warning("performance.max_players_per_cycle must be greater than 0!");
             valid = false;
         }
         
+        if (interceptionNotificationWindowMillis < 50) {
+            plugin.getLogger().warning("notifications.interception_window_ms must be at least 50 (one tick)!");
+            valid = false;
+        }
+        
+        if (backupIntervalHours <= 0 || maxBackups <= 0) {
+            plugin.getLogger().warning("advanced.backup.interval_hours and max_backups must be greater than 0!");
+            valid = false;
+        }
+        
+        if (backupMaxMbPerSecond < 0) {
+            plugin.getLogger().warning("advanced.backup.max_mb_per_second must not be negative!");
+            valid = false;
+        }
+        
+        if (multiplierCacheTtlSeconds <= 0) {
+            plugin.getLogger().warning("multipliers.cache_ttl_seconds must be greater than 0!");
+            valid = false;
+        }
+        
+        if (settlementTickBudgetMillis <= 0) {
+            plugin.getLogger().warning("performance.settlement.tick_budget_ms must be greater than 0!");
+            valid = false;
+        }
+        
+        if (afkSampleIntervalSeconds <= 0) {
+            plugin.getLogger().warning("advanced.afk.sample_interval_seconds must be greater than 0!");
+            valid = false;
+        }
+        
+        if (afkTimeoutSeconds < afkSampleIntervalSeconds) {
+            plugin.getLogger().warning("advanced.afk.timeout_seconds must be at least sample_interval_seconds!");
+            valid = false;
+        }
+        
+        if (!Set.of("auto", "essentials", "cmi", "none").contains(afkDetectionPlugin)) {
+            plugin.getLogger().warning("advanced.afk.detection_plugin must be auto, essentials, cmi or none!");
+            valid = false;
+        }
+        
         return valid;
     }
 }
\ No newline at end of file
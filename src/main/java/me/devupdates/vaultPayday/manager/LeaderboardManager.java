@@ -0,0 +1,90 @@
+package me.devupdates.vaultPayday.manager;
+
+import me.devupdates.vaultPayday.VaultPayday;
+import me.devupdates.vaultPayday.data.DataManager;
+import me.devupdates.vaultPayday.model.PaydayData;
+import me.devupdates.vaultPayday.util.RankedIndex;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.ToLongFunction;
+
+/**
+ * In-memory leaderboards over total paydays and pending balance
+ * Seeded with one storage scan at startup and kept current by the payday manager on every change,
+ * so ranks and top positions are answered from memory on any thread
+ */
+public class LeaderboardManager {
+    private final VaultPayday plugin;
+    private final DataManager dataManager;
+    private final RankedIndex[] indexes = new RankedIndex[Board.values().length];
+    
+    /**
+     * A ranked player statistic
+     */
+    public enum Board {
+        PAYDAYS(PaydayData::getTotalPaydays),
+        PENDING(PaydayData::getPendingMicros);
+        
+        private final ToLongFunction<PaydayData> score;
+        
+        Board(ToLongFunction<PaydayData> score) {
+            this.score = score;
+        }
+    }
+    
+    public LeaderboardManager(VaultPayday plugin, DataManager dataManager) {
+        this.plugin = plugin;
+        this.dataManager = dataManager;
+        for (Board board : Board.values()) {
+            indexes[board.ordinal()] = new RankedIndex();
+        }
+    }
+    
+    /**
+     * Index every stored player, players updated meanwhile keep their newer values
+     */
+    public CompletableFuture<Void> seed() {
+        long start = System.currentTimeMillis();
+        return dataManager.forEachPlayer(data -> {
+            for (Board board : Board.values()) {
+                indexes[board.ordinal()].putIfAbsent(data.getPlayerUUID(), data.getPlayerName(), board.score.applyAsLong(data));
+            }
+        }).thenRun(() -> plugin.getLogger().info("Leaderboards seeded with " + indexes[0].size() + " players in " +
+            (System.currentTimeMillis() - start) + "ms")
+        ).exceptionally(throwable -> {
+            plugin.getLogger().severe("Failed to seed leaderboards: " + throwable.getMessage());
+            return null;
+        });
+    }
+    
+    /**
+     * Re-rank a player after their paydays or pending balance changed
+     */
+    public void update(PaydayData data) {
+        for (Board board : Board.values()) {
+            indexes[board.ordinal()].update(data.getPlayerUUID(), data.getPlayerName(), board.score.applyAsLong(data));
+        }
+    }
+    
+    /**
+     * @param position 1-based position
+     * @return The player at that position, or null if fewer players are ranked
+     */
+    public RankedIndex.Entry getTop(Board board, int position) {
+        return indexes[board.ordinal()].get(position);
+    }
+    
+    /**
+     * @return 1-based rank, or 0 if the player isn't ranked
+     */
+    public int getRank(Board board, UUID playerUUID) {
+        return indexes[board.ordinal()].rank(playerUUID);
+    }
+    
+    public void clear() {
+        for (RankedIndex index : indexes) {
+            index.clear();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,107 @@
+package me.devupdates.vaultPayday.manager;
+
+import org.bukkit.entity.Player;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-player cache of the resolved permission multiplier
+ * Entries are computed on the main thread (join, reload, or lazily at settlement) and invalidated
+ * by permission change events, or expire after a TTL when no such events are available
+ */
+public class MultiplierCache {
+    private final ConfigManager configManager;
+    private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+    
+    // Set when a permission plugin reports changes, entries then never expire on their own
+    private volatile boolean eventDriven;
+    
+    private record Entry(double multiplier, long expiresAt) {}
+    
+    public MultiplierCache(ConfigManager configManager) {
+        this.configManager = configManager;
+    }
+    
+    /**
+     * Get a player's multiplier, computing it if missing or expired
+     * Must be called on the main thread
+     */
+    public double getMultiplier(Player player) {
+        Entry entry = entries.get(player.getUniqueId());
+        if (entry == null || (!eventDriven && System.currentTimeMillis() >= entry.expiresAt())) {
+            return compute(player);
+        }
+        return entry.multiplier();
+    }
+    
+    /**
+     * Get the last multiplier computed for a player without any permission checks
+     * @return cached multiplier, or 1.0 if none is cached
+     */
+    public double getCachedMultiplier(UUID playerUUID) {
+        Entry entry = entries.get(playerUUID);
+        return entry != null ? entry.multiplier() : 1.0;
+    }
+    
+    /**
+     * Resolve and cache a player's multiplier, the highest of all matching permission nodes
+     * Must be called on the main thread
+     */
+    public double compute(Player player) {
+        double multiplier = 1.0;
+        
+        // Nodes are sorted by multiplier, highest first, so the first match wins
+        String[] nodes = configManager.getPermissionMultiplierNodes();
+        double[] values = configManager.getPermissionMultiplierValues();
+        for (int i = 0; i < nodes.length; i++) {
+            if (player.hasPermission(nodes[i])) {
+                multiplier = values[i];
+                break;
+            }
+        }
+        
+        long ttlMillis = configManager.getMultiplierCacheTtlSeconds() * 1000L;
+        entries.put(player.getUniqueId(), new Entry(multiplier, System.currentTimeMillis() + ttlMillis));
+        return multiplier;
+    }
+    
+    /**
+     * Drop a player's entry so it is recomputed on next use, safe to call from any thread
+     */
+    public void invalidate(UUID playerUUID) {
+        entries.remove(playerUUID);
+    }
+    
+    /**
+     * Drop all entries and recompute them for the given online players (after a reload)
+     * Must be called on the main thread
+     */
+    public void invalidateAll(Iterable<? extends Player> onlinePlayers) {
+        entries.clear();
+        for (Player player : onlinePlayers) {
+            compute(player);
+        }
+    }
+    
+    /**
+     * Remove every player not in the given set
+     */
+    public void retainAll(Set<UUID> playerUUIDs) {
+        entries.keySet().retainAll(playerUUIDs);
+    }
+    
+    public void clear() {
+        entries.clear();
+    }
+    
+    public void setEventDriven(boolean eventDriven) {
+        this.eventDriven = eventDriven;
+    }
+    
+    // Getters
+    public boolean isEventDriven() { return eventDriven; }
+    public int size() { return entries.size(); }
+}
\ No newline at end of file
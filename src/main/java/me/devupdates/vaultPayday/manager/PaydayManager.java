@@ -2,7 +2,13 @@ package me.devupdates.vaultPayday.manager;
 
 import me.devupdates.vaultPayday.VaultPayday;
 import me.devupdates.vaultPayday.data.DataManager;
+import me.devupdates.vaultPayday.data.WriteBehindQueue;
+import me.devupdates.vaultPayday.model.CompactPlayerStateStore;
+import me.devupdates.vaultPayday.model.HeapPlayerStateStore;
 import me.devupdates.vaultPayday.model.PaydayData;
+import me.devupdates.vaultPayday.model.PlayerStateStore;
+import me.devupdates.vaultPayday.util.MessageTemplate;
+import me.devupdates.vaultPayday.util.Money;
 import net.milkbowl.vault.economy.Economy;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
@@ -10,22 +16,51 @@ import org.bukkit.scheduler.BukkitRunnable;
 import org.bukkit.scheduler.BukkitTask;
 
 import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Manages the core payday system logic
  */
 public class PaydayManager {
+    private static final long NANOS_PER_MINUTE = TimeUnit.MINUTES.toNanos(1);
+    
     private final VaultPayday plugin;
     private final DataManager dataManager;
     private final ConfigManager configManager;
+    private final WriteBehindQueue writeBehindQueue;
+    private final SettlementQueue settlementQueue;
+    private final MultiplierCache multiplierCache;
+    private final AfkDetector afkDetector;
     private Economy economy;
     
-    // Cache for active player data
-    private final Map<UUID, PaydayData> activePlayerData;
-    private final Map<UUID, Long> joinTimes; // Track when players joined
+    // Cache for active player data, join times and credited playtime
+    private final PlayerStateStore playerStates;
+    private final LeaderboardManager leaderboards;
+    
+    // Whether each online player is in a world with the payday system enabled, updated on join and world change
+    private final Map<UUID, Boolean> paydayWorlds;
+    
+    // Players reported AFK
+    private final Set<UUID> afkPlayers;
+    
+    // Session times are nanoTime values relative to this origin, so a running ledger is never negative
+    // and a paused one is stored in the same slot as -1 - remainder, updated by the same CAS
+    // The origin lies a minute back, playtime carried from the last session moves a new ledger up to that far back
+    private final long clockOrigin = System.nanoTime() - NANOS_PER_MINUTE;
+    
+    // Round-robin cursor over online players for time tracking
+    private final Queue<UUID> trackingQueue;
+    
+    // In-flight loads, shared by every caller asking for the same player
+    private final Map<UUID, CompletableFuture<PaydayData>> pendingLoads;
+    private final AtomicLong avoidedSyncLoads = new AtomicLong();
     
     // Task management
     private BukkitTask timeTrackingTask;
@@ -35,8 +70,16 @@ public class PaydayManager {
         this.plugin = plugin;
         this.dataManager = dataManager;
         this.configManager = configManager;
-        this.activePlayerData = new ConcurrentHashMap<>();
-        this.joinTimes = new ConcurrentHashMap<>();
+        this.writeBehindQueue = new WriteBehindQueue(plugin, dataManager, configManager);
+        this.settlementQueue = new SettlementQueue(plugin, this, writeBehindQueue, configManager);
+        this.multiplierCache = new MultiplierCache(configManager);
+        this.leaderboards = new LeaderboardManager(plugin, dataManager);
+        this.afkDetector = new AfkDetector(plugin, this, configManager);
+        this.playerStates = configManager.isCompactStateStore() ? new CompactPlayerStateStore() : new HeapPlayerStateStore();
+        this.trackingQueue = new ConcurrentLinkedQueue<>();
+        this.paydayWorlds = new ConcurrentHashMap<>();
+        this.afkPlayers = ConcurrentHashMap.newKeySet();
+        this.pendingLoads = new ConcurrentHashMap<>();
     }
     
     /**
@@ -50,8 +93,21 @@ public class PaydayManager {
             return;
         }
         
+        // Start write-behind persistence and payday settlement
+        writeBehindQueue.start();
+        settlementQueue.start();
+        
+        // Build the leaderboards in the background, live changes are applied on top
+        leaderboards.seed();
+        
         // Start time tracking task
         startTimeTrackingTask();
+        afkDetector.start();
+        
+        // Players already online after a plugin reload join like everyone else, loads only cache players with a session
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            onPlayerJoin(player);
+        }
         
         // Start cache cleanup task
         startCacheCleanupTask();
@@ -78,9 +134,11 @@ public class PaydayManager {
     
     /**
      * Start the central time tracking task
+     * Runs every second and visits a slice of the online players, so each player
+     * is accounted roughly once per time_update_interval
      */
     private void startTimeTrackingTask() {
-        int intervalTicks = configManager.getTimeUpdateInterval() * 20; // Convert seconds to ticks
+        int intervalTicks = 20; // One wheel slot per second
         
         timeTrackingTask = new BukkitRunnable() {
             @Override
@@ -108,24 +166,39 @@ public class PaydayManager {
     }
     
     /**
-     * Update playtime for all online players
+     * Update playtime for the next slice of online players
      */
     private void updatePlayerTimes() {
-        var onlinePlayers = Bukkit.getOnlinePlayers();
-        int maxPlayersPerCycle = configManager.getMaxPlayersPerCycle();
+        int trackedPlayers = trackingQueue.size();
+        if (trackedPlayers == 0) {
+            return;
+        }
+        
+        // Spread the whole population over time_update_interval slots, bounded per slot
+        int slots = Math.max(1, configManager.getTimeUpdateInterval());
+        int sliceSize = Math.min((trackedPlayers + slots - 1) / slots, configManager.getMaxPlayersPerCycle());
         int processed = 0;
         
-        for (Player player : onlinePlayers) {
-            if (processed >= maxPlayersPerCycle) {
-                break; // Prevent processing too many players at once
+        for (int i = 0; i < sliceSize; i++) {
+            UUID playerUUID = trackingQueue.poll();
+            if (playerUUID == null) {
+                break;
+            }
+            
+            Player player = Bukkit.getPlayer(playerUUID);
+            if (player == null || !player.isOnline()) {
+                continue; // Left the server, drop from rotation
             }
             
-            updatePlayerTime(player);
+            if (!isAccrualPaused(playerUUID)) {
+                updatePlayerTime(player); // Paused players, AFK or outside payday worlds, have nothing to credit
+            }
+            trackingQueue.offer(playerUUID); // Back of the line
             processed++;
         }
         
         if (configManager.isDebugMode() && processed > 0) {
-            plugin.getLogger().info("Updated playtime for " + processed + " players");
+            plugin.getLogger().info("Updated playtime for " + processed + "/" + trackedPlayers + " players");
         }
     }
     
@@ -134,114 +207,170 @@ public class PaydayManager {
      */
     private void updatePlayerTime(Player player) {
         UUID playerUUID = player.getUniqueId();
-        PaydayData data = activePlayerData.get(playerUUID);
+        PaydayData data = playerStates.get(playerUUID);
         
         if (data == null) {
-            return; // Player data not loaded yet
+            return; // Player data not loaded yet, the time is credited once it is
         }
         
-        // Calculate minutes to add based on time tracking interval
-        long minutesToAdd = configManager.getTimeUpdateInterval() / 60; // Convert seconds to minutes
-        if (minutesToAdd < 1) {
-            minutesToAdd = 1; // Always add at least 1 minute
+        if (commitPlayTime(playerUUID, data, now()) <= 0) {
+            return;
         }
         
-        data.addMinutes(minutesToAdd);
-        
         // Check if player is ready for payday
         if (data.isReadyForPayday(configManager.getPaydayIntervalMinutes())) {
             processPayday(player, data);
         }
         
-        // Save data asynchronously
+        // Queue data for the next write-behind flush
         if (configManager.isAutoSaveOnEvents()) {
-            dataManager.savePlayerData(data);
+            queueSave(data);
         }
     }
     
+    /**
+     * Credit the whole minutes accrued since the last commit, the remainder carries over to the next one
+     * Safe to call from any thread, each interval is credited exactly once however many callers race
+     * @return Minutes credited
+     */
+    private long commitPlayTime(UUID playerUUID, PaydayData data, long nowNanos) {
+        long accountedUntil = playerStates.getAccountedUntil(playerUUID);
+        if (accountedUntil < 0) {
+            return 0; // No session, or paused and nothing accrues
+        }
+        
+        long minutes = (nowNanos - accountedUntil) / NANOS_PER_MINUTE;
+        if (minutes <= 0 || !playerStates.compareAndSetAccountedUntil(playerUUID, accountedUntil, accountedUntil + minutes * NANOS_PER_MINUTE)) {
+            return 0; // Less than a minute, or committed concurrently
+        }
+        
+        data.addMinutes(minutes);
+        return minutes;
+    }
+    
+    /**
+     * Pause or resume a player's playtime to match their state
+     * Paused while in a world without payday, or while AFK if pause_when_afk is enabled
+     */
+    private void updateAccrual(UUID playerUUID) {
+        boolean paused = !isInPaydayWorld(playerUUID) || (configManager.isAfkPauseEnabled() && afkPlayers.contains(playerUUID));
+        if (!paused) {
+            resumeAccrual(playerUUID);
+            return;
+        }
+        
+        while (true) {
+            long accountedUntil = playerStates.getAccountedUntil(playerUUID);
+            if (accountedUntil < 0) {
+                return; // No session, or already paused
+            }
+            
+            // Keep the time not credited yet, it counts again once the player is active
+            long remainder = Math.max(0, now() - accountedUntil);
+            if (playerStates.compareAndSetAccountedUntil(playerUUID, accountedUntil, -1 - remainder)) {
+                return;
+            }
+        }
+    }
+    
+    private void resumeAccrual(UUID playerUUID) {
+        while (true) {
+            long accountedUntil = playerStates.getAccountedUntil(playerUUID);
+            if (accountedUntil >= 0 || accountedUntil == PlayerStateStore.NO_TIME) {
+                return; // Not paused
+            }
+            
+            long remainder = -1 - accountedUntil;
+            if (playerStates.compareAndSetAccountedUntil(playerUUID, accountedUntil, now() - remainder)) {
+                return;
+            }
+        }
+    }
+    
+    private boolean isAccrualPaused(UUID playerUUID) {
+        long accountedUntil = playerStates.getAccountedUntil(playerUUID);
+        return accountedUntil < 0 && accountedUntil != PlayerStateStore.NO_TIME;
+    }
+    
+    private long now() {
+        return System.nanoTime() - clockOrigin;
+    }
+    
+    /**
+     * Report a player's AFK state, called on the main thread by the AFK detection
+     */
+    public void setAfk(Player player, boolean afk) {
+        UUID playerUUID = player.getUniqueId();
+        boolean changed = afk ? afkPlayers.add(playerUUID) : afkPlayers.remove(playerUUID);
+        if (changed) {
+            updatePlayerTime(player); // Credit the time so far under the previous state
+            updateAccrual(playerUUID);
+        }
+    }
+    
+    public boolean isAfk(UUID playerUUID) {
+        return afkPlayers.contains(playerUUID);
+    }
+    
     /**
      * Process payday for a player
      */
     private void processPayday(Player player, PaydayData data) {
-        double baseAmount = data.getPendingBalance();
+        // Close the cycle atomically, later Jobs payments go into the next one
+        PaydayData.CycleSnapshot cycle = data.snapshotAndReset(configManager.getPaydayIntervalMinutes());
+        if (cycle == null) {
+            return; // Already closed by a concurrent update
+        }
+        leaderboards.update(data);
+        
+        long baseAmount = cycle.pendingMicros();
         
         if (baseAmount <= 0) {
-            // No pending balance, just reset the cycle
-            data.resetPaydayCycle();
+            // No pending balance, the cycle is simply reset
+            queueSave(data);
             return;
         }
         
-        // Apply multipliers
-        final double finalAmount = applyMultipliers(player, baseAmount);
-        
-        // Give payment through Vault
-        Bukkit.getScheduler().runTask(plugin, () -> {
-            if (economy.depositPlayer(player, finalAmount).transactionSuccess()) {
-                // Payment successful
-                String message = configManager.getMessage("payday_received")
-                    .replace("%amount%", String.format("%.2f", finalAmount))
-                    .replace("%time%", String.valueOf(configManager.getPaydayIntervalMinutes()));
-                
-                // Add prefix and send notification (color codes will be converted in sendNotification)
-                String fullMessage = configManager.getMessagePrefix() + message;
-                sendNotification(player, fullMessage);
-                
-                // Reset payday cycle
-                data.resetPaydayCycle();
-                
-                // Save data
-                dataManager.savePlayerData(data);
-                
-                plugin.getLogger().info("Payday processed for " + player.getName() + ": $" + String.format("%.2f", finalAmount));
-                
-            } else {
-                plugin.getLogger().warning("Failed to deposit payday amount for " + player.getName());
-            }
-        });
+        // Deposit through Vault in the next settlement slice on the main thread, multipliers are applied there
+        settlementQueue.submit(player.getUniqueId(), data, cycle, baseAmount);
     }
     
     /**
-     * Apply multipliers to the payday amount
+     * Apply multipliers to the payday amount, must be called on the main thread
+     * @param player The online player, or null to use the last cached multiplier
+     * @param baseAmount Amount in micro-units
+     * @return Multiplied amount in micro-units
      */
-    private double applyMultipliers(Player player, double baseAmount) {
+    long applyMultipliers(UUID playerUUID, Player player, long baseAmount) {
         if (!configManager.isMultipliersEnabled()) {
             return baseAmount;
         }
         
-        double multiplier = 1.0;
-        
-        // Check permission-based multipliers
-        for (Map.Entry<String, Double> entry : configManager.getPermissionMultipliers().entrySet()) {
-            if (player.hasPermission(entry.getKey())) {
-                multiplier = Math.max(multiplier, entry.getValue());
-            }
-        }
+        double multiplier = player != null
+            ? multiplierCache.getMultiplier(player)
+            : multiplierCache.getCachedMultiplier(playerUUID);
         
-        return baseAmount * multiplier;
+        return Money.multiply(baseAmount, multiplier);
     }
     
     /**
      * Send notification to player based on configuration
+     * @param placeholders Alternating placeholder names and values, see {@link MessageTemplate#render}
      */
-    private void sendNotification(Player player, String message) {
+    void sendNotification(Player player, MessageTemplate template, Object... placeholders) {
         String messageType = configManager.getMessageType().toLowerCase();
         
-        // Convert color codes (&) to section symbols (§) for display
-        String coloredMessage = message.replace("&", "§");
-        
         switch (messageType) {
-            case "chat" -> player.sendMessage(coloredMessage);
+            case "chat" -> player.sendMessage(template.render(placeholders));
             case "actionbar" -> {
                 // Use Adventure API with proper color support
-                player.sendActionBar(net.kyori.adventure.text.Component.text(coloredMessage));
+                player.sendActionBar(template.render(placeholders));
             }
             case "title" -> {
-                String[] parts = coloredMessage.split("\\n", 2);
-                String title = parts[0];
-                String subtitle = parts.length > 1 ? parts[1] : "";
+                // First line is the title, the rest the subtitle
                 player.showTitle(net.kyori.adventure.title.Title.title(
-                    net.kyori.adventure.text.Component.text(title),
-                    net.kyori.adventure.text.Component.text(subtitle),
+                    template.renderLine(0, placeholders),
+                    template.renderLine(1, placeholders),
                     net.kyori.adventure.title.Title.Times.times(
                         java.time.Duration.ofMillis(500),
                         java.time.Duration.ofMillis(3500),
@@ -252,7 +381,7 @@ public class PaydayManager {
             case "none" -> {
                 // Do nothing
             }
-            default -> player.sendMessage(coloredMessage); // Fallback to chat
+            default -> player.sendMessage(template.render(placeholders)); // Fallback to chat
         }
     }
     
@@ -261,10 +390,19 @@ public class PaydayManager {
      */
     public void onPlayerJoin(Player player) {
         UUID playerUUID = player.getUniqueId();
-        joinTimes.put(playerUUID, System.currentTimeMillis());
+        playerStates.startSession(playerUUID, now());
+        multiplierCache.compute(player);
+        updatePaydayWorld(player);
+        updateAccrual(playerUUID);
+        afkDetector.track(player);
+        
+        // Join the time tracking rotation
+        if (!trackingQueue.contains(playerUUID)) {
+            trackingQueue.offer(playerUUID);
+        }
         
         // Check if data is already loaded (reconnect case)
-        PaydayData existingData = activePlayerData.get(playerUUID);
+        PaydayData existingData = playerStates.get(playerUUID);
         if (existingData != null) {
             if (configManager.isDebugMode()) {
                 plugin.getLogger().info("Player data already loaded for " + player.getName());
@@ -273,13 +411,11 @@ public class PaydayManager {
         }
         
         // Load player data asynchronously
-        dataManager.loadPlayerData(playerUUID, player.getName())
+        loadIntoCache(playerUUID, player.getName())
             .thenAccept(data -> {
-                activePlayerData.put(playerUUID, data);
-                
                 if (configManager.isDebugMode()) {
                     plugin.getLogger().info("Loaded payday data for " + player.getName() + 
-                        " (Minutes: " + data.getMinutesPlayed() + ", Balance: $" + String.format("%.2f", data.getPendingBalance()) + ")");
+                        " (Minutes: " + data.getMinutesPlayed() + ", Balance: $" + Money.format(data.getPendingMicros()) + ")");
                 }
             })
             .exceptionally(throwable -> {
@@ -288,45 +424,135 @@ public class PaydayManager {
             });
     }
     
+    /**
+     * Handle player changing worlds
+     */
+    public void onPlayerChangedWorld(Player player) {
+        refreshPlayer(player);
+    }
+    
+    /**
+     * Re-evaluate a player's world and whether their playtime accrues, after a world change or a config reload
+     */
+    public void refreshPlayer(Player player) {
+        updatePlayerTime(player); // Credit the time spent so far before the rules may change
+        updatePaydayWorld(player);
+        updateAccrual(player.getUniqueId());
+    }
+    
+    /**
+     * Resolve whether the player's current world has the payday system enabled, must be called on the main thread
+     */
+    public void updatePaydayWorld(Player player) {
+        paydayWorlds.put(player.getUniqueId(), configManager.getWorldRules().isEnabled(player.getWorld()));
+    }
+    
+    /**
+     * Check if the player is in a world with the payday system enabled, safe to call from any thread
+     */
+    public boolean isInPaydayWorld(UUID playerUUID) {
+        return paydayWorlds.getOrDefault(playerUUID, Boolean.TRUE);
+    }
+    
     /**
      * Handle player leaving
      */
     public void onPlayerLeave(Player player) {
         UUID playerUUID = player.getUniqueId();
+        PaydayData data = null;
+        boolean dirty = true;
         
-        // Calculate and add final playtime
-        Long joinTime = joinTimes.remove(playerUUID);
-        if (joinTime != null) {
-            PaydayData data = activePlayerData.get(playerUUID);
+        // Commit the playtime since the last commit, earlier minutes were already credited by the tracking task
+        if (hasSession(playerUUID)) {
+            data = playerStates.get(playerUUID);
             if (data != null) {
-                long sessionTime = System.currentTimeMillis() - joinTime;
-                long minutesPlayed = TimeUnit.MILLISECONDS.toMinutes(sessionTime);
-                
-                if (minutesPlayed > 0) {
-                    data.addMinutes(minutesPlayed);
-                }
-                
-                // Save data before removing from cache
-                dataManager.savePlayerData(data);
+                dirty = endSession(playerUUID, data, now());
             }
         }
         
-        // Remove from active cache
-        activePlayerData.remove(playerUUID);
+        // Remove from active cache and time tracking rotation
+        afkDetector.untrack(playerUUID);
+        PaydayData removed = playerStates.remove(playerUUID);
+        paydayWorlds.remove(playerUUID);
+        afkPlayers.remove(playerUUID);
+        trackingQueue.remove(playerUUID);
+        
+        // Cached by a load that finished while the player was leaving, saved and released like any other
+        // A load still running releases the player itself once it finds the session gone
+        if (data == null) {
+            data = removed;
+        }
+        if (data == null) {
+            return;
+        }
+        
+        // Save unless nothing changed since the last save
+        PaydayData finalData = data;
+        if (dataManager.isShared()) {
+            // Written right away, the server the player moves to waits for this handoff
+            writeBehindQueue.discard(playerUUID);
+            dataManager.releasePlayer(finalData).exceptionally(throwable -> {
+                plugin.getLogger().severe("Failed to hand off payday data for " + player.getName() + ": " + throwable.getMessage());
+                writeBehindQueue.enqueue(finalData); // Still ours, saved with the next flush
+                return null;
+            });
+        } else if (dirty) {
+            writeBehindQueue.enqueue(finalData);
+        }
+    }
+    
+    /**
+     * Commit a session that ends now, the playtime under a minute is kept with the data for the next session
+     * @return true if the data changed since the last save
+     */
+    private boolean endSession(UUID playerUUID, PaydayData data, long nowNanos) {
+        resumeAccrual(playerUUID); // Whole minutes held back by a pause still count
+        commitPlayTime(playerUUID, data, nowNanos);
+        
+        long accountedUntil = playerStates.getAccountedUntil(playerUUID);
+        long remainder = accountedUntil < 0 ? 0 : Math.min(NANOS_PER_MINUTE - 1, Math.max(0, nowNanos - accountedUntil));
+        data.setCarriedMillis(TimeUnit.NANOSECONDS.toMillis(remainder));
+        
+        // Dirty tracking only covers the counters, and a carried remainder is only 0 in storage if nothing was credited
+        return playerStates.clearDirty(playerUUID) || data.getCarriedMillis() > 0;
+    }
+    
+    /**
+     * Credit the playtime the last session carried over, as if the current session had started that much earlier
+     */
+    private void restoreCarriedTime(UUID playerUUID, long carriedMillis) {
+        long carried = Math.min(NANOS_PER_MINUTE - 1, TimeUnit.MILLISECONDS.toNanos(carriedMillis));
+        while (carried > 0) {
+            long accountedUntil = playerStates.getAccountedUntil(playerUUID);
+            if (accountedUntil == PlayerStateStore.NO_TIME) {
+                return; // Left meanwhile
+            }
+            
+            // Lowering the value adds time to a running ledger and to a paused remainder (-1 - remainder) alike
+            if (playerStates.compareAndSetAccountedUntil(playerUUID, accountedUntil, accountedUntil - carried)) {
+                return;
+            }
+        }
+    }
+    
+    private boolean hasSession(UUID playerUUID) {
+        return playerStates.getJoinTime(playerUUID) != PlayerStateStore.NO_TIME;
     }
     
     /**
      * Add pending balance to a player (called by JobsReborn integration)
+     * @param amount Amount in micro-units
      */
-    public void addPendingBalance(UUID playerUUID, double amount) {
-        PaydayData data = activePlayerData.get(playerUUID);
+    public void addPendingBalance(UUID playerUUID, long amount) {
+        PaydayData data = playerStates.get(playerUUID);
         
         if (data != null) {
             // Data is loaded, add immediately
-            data.addPendingBalance(amount);
+            data.addPendingMicros(amount);
+            leaderboards.update(data);
             
             if (configManager.isDebugMode()) {
-                plugin.getLogger().info("Added $" + String.format("%.2f", amount) + 
+                plugin.getLogger().info("Added $" + Money.format(amount) + 
                     " to pending balance for " + data.getPlayerName());
             }
         } else {
@@ -336,17 +562,17 @@ public class PaydayManager {
             if (player != null) {
                 if (configManager.isDebugMode()) {
                     plugin.getLogger().info("Player data not loaded yet for " + player.getName() + 
-                        ", loading synchronously to add $" + String.format("%.2f", amount));
+                        ", deferring $" + Money.format(amount) + " until load completes");
                 }
                 
-                // Load data synchronously and add balance
-                dataManager.loadPlayerData(playerUUID, player.getName())
+                // Join the pending load and add balance once it is cached
+                loadIntoCache(playerUUID, player.getName())
                     .thenAccept(loadedData -> {
-                        activePlayerData.put(playerUUID, loadedData);
-                        loadedData.addPendingBalance(amount);
+                        loadedData.addPendingMicros(amount);
+                        leaderboards.update(loadedData);
                         
                         if (configManager.isDebugMode()) {
-                            plugin.getLogger().info("Loaded data and added $" + String.format("%.2f", amount) + 
+                            plugin.getLogger().info("Loaded data and added $" + Money.format(amount) + 
                                 " to pending balance for " + player.getName());
                         }
                     })
@@ -359,29 +585,46 @@ public class PaydayManager {
     }
     
     /**
-     * Get player data from cache or load it synchronously if needed
+     * Get player data from cache without ever touching storage
+     * @return cached PaydayData or null if not loaded
+     */
+    public PaydayData getIfCached(UUID playerUUID) {
+        return playerStates.get(playerUUID);
+    }
+    
+    /**
+     * Get player data, loading it in the background for online players on a cache miss
+     * @return CompletableFuture containing the PaydayData, or null if the player is offline and not cached
+     */
+    public CompletableFuture<PaydayData> getPlayerDataAsync(UUID playerUUID) {
+        PaydayData data = playerStates.get(playerUUID);
+        if (data != null) {
+            return CompletableFuture.completedFuture(data);
+        }
+        
+        Player player = plugin.getServer().getPlayer(playerUUID);
+        if (player == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        
+        return loadIntoCache(playerUUID, player.getName());
+    }
+    
+    /**
+     * Get player data from cache, scheduling a background load on a miss
+     * Never blocks; callers must handle null while the data is loading
      */
     public PaydayData getPlayerData(UUID playerUUID) {
-        PaydayData data = activePlayerData.get(playerUUID);
+        PaydayData data = playerStates.get(playerUUID);
         
         if (data == null) {
-            // Try to get player and load data if they're online
             Player player = plugin.getServer().getPlayer(playerUUID);
             if (player != null) {
-                if (configManager.isDebugMode()) {
-                    plugin.getLogger().info("Player data not in cache for " + player.getName() + ", attempting to load...");
-                }
+                avoidedSyncLoads.incrementAndGet();
+                loadIntoCache(playerUUID, player.getName());
                 
-                // Load synchronously by joining the future
-                try {
-                    data = dataManager.loadPlayerData(playerUUID, player.getName()).get();
-                    activePlayerData.put(playerUUID, data);
-                    
-                    if (configManager.isDebugMode()) {
-                        plugin.getLogger().info("Successfully loaded player data for " + player.getName());
-                    }
-                } catch (Exception e) {
-                    plugin.getLogger().severe("Failed to load player data synchronously for " + player.getName() + ": " + e.getMessage());
+                if (configManager.isDebugMode()) {
+                    plugin.getLogger().info("Player data not in cache for " + player.getName() + ", loading in background");
                 }
             }
         }
@@ -389,15 +632,92 @@ public class PaydayManager {
         return data;
     }
     
+    /**
+     * Load player data into the cache, sharing a single load between concurrent callers
+     */
+    private CompletableFuture<PaydayData> loadIntoCache(UUID playerUUID, String playerName) {
+        CompletableFuture<PaydayData> pending = pendingLoads.get(playerUUID);
+        if (pending != null) {
+            return pending;
+        }
+        
+        CompletableFuture<PaydayData> future = new CompletableFuture<>();
+        pending = pendingLoads.putIfAbsent(playerUUID, future);
+        if (pending != null) {
+            return pending;
+        }
+        
+        loadLatest(playerUUID, playerName).whenComplete((data, throwable) -> {
+            pendingLoads.remove(playerUUID, future);
+            
+            if (throwable != null) {
+                future.completeExceptionally(throwable);
+                return;
+            }
+            
+            // Only cache players that are still online, keep whatever was cached meanwhile
+            boolean online = hasSession(playerUUID);
+            PaydayData cached = online ? playerStates.putIfAbsent(data) : data;
+            
+            // Whoever takes the data out of the cache releases the claim, this load or the leave that removed it
+            if (!online || (!hasSession(playerUUID) && playerStates.remove(playerUUID) != null)) {
+                releaseClaim(cached);
+            } else {
+                restoreCarriedTime(playerUUID, cached.takeCarriedMillis());
+            }
+            leaderboards.update(cached);
+            future.complete(cached);
+        });
+        
+        return future;
+    }
+    
+    /**
+     * Give back the claim of a load whose player left before it finished, other servers would wait for it otherwise
+     */
+    private void releaseClaim(PaydayData data) {
+        dataManager.releaseClaim(data).exceptionally(throwable -> {
+            plugin.getLogger().severe("Failed to release payday data for " + data.getPlayerName() + ": " + throwable.getMessage());
+            return null;
+        });
+    }
+    
+    /**
+     * Load a player's newest state, which is still in the write-behind queue if they rejoin before it is flushed
+     */
+    private CompletableFuture<PaydayData> loadLatest(UUID playerUUID, String playerName) {
+        PaydayData queued = writeBehindQueue.getQueued(playerUUID);
+        if (queued == null) {
+            return dataManager.loadPlayerData(playerUUID, playerName);
+        }
+        
+        if (dataManager.isShared()) {
+            // Loading claims the player again, so write the queued state first and load it back
+            return writeBehindQueue.flush(playerUUID).thenCompose(ignored -> dataManager.loadPlayerData(playerUUID, playerName));
+        }
+        
+        // Newer than the stored row, and it stays queued so its values still get written
+        return CompletableFuture.completedFuture(queued);
+    }
+    
+    /**
+     * Queue player data for the next write-behind flush, clearing its unsaved-changes flag
+     */
+    void queueSave(PaydayData data) {
+        playerStates.clearDirty(data.getPlayerUUID());
+        writeBehindQueue.enqueue(data);
+    }
+    
     /**
      * Reset player's payday progress
      */
     public void resetPlayerProgress(UUID playerUUID) {
-        PaydayData data = activePlayerData.get(playerUUID);
+        PaydayData data = playerStates.get(playerUUID);
         if (data != null) {
             data.setMinutesPlayed(0);
-            data.setPendingBalance(0.0);
-            dataManager.savePlayerData(data);
+            data.setPendingMicros(0);
+            leaderboards.update(data);
+            queueSave(data);
         }
     }
     
@@ -405,10 +725,10 @@ public class PaydayManager {
      * Set player's playtime
      */
     public void setPlayerTime(UUID playerUUID, long minutes) {
-        PaydayData data = activePlayerData.get(playerUUID);
+        PaydayData data = playerStates.get(playerUUID);
         if (data != null) {
             data.setMinutesPlayed(Math.max(0, Math.min(minutes, configManager.getPaydayIntervalMinutes())));
-            dataManager.savePlayerData(data);
+            queueSave(data);
         }
     }
     
@@ -420,11 +740,14 @@ public class PaydayManager {
             .map(Player::getUniqueId)
             .collect(java.util.stream.Collectors.toSet());
         
-        activePlayerData.entrySet().removeIf(entry -> !onlineUUIDs.contains(entry.getKey()));
-        joinTimes.entrySet().removeIf(entry -> !onlineUUIDs.contains(entry.getKey()));
+        playerStates.retainAll(onlineUUIDs);
+        paydayWorlds.keySet().retainAll(onlineUUIDs);
+        afkPlayers.retainAll(onlineUUIDs);
+        multiplierCache.retainAll(onlineUUIDs);
+        trackingQueue.removeIf(uuid -> !onlineUUIDs.contains(uuid));
         
         if (configManager.isDebugMode()) {
-            plugin.getLogger().info("Cache cleanup completed. Active players: " + activePlayerData.size());
+            plugin.getLogger().info("Cache cleanup completed. Active players: " + playerStates.size());
         }
     }
     
@@ -439,20 +762,38 @@ public class PaydayManager {
         if (cacheCleanupTask != null) {
             cacheCleanupTask.cancel();
         }
-        
-        // Save all active player data
-        for (PaydayData data : activePlayerData.values()) {
-            dataManager.savePlayerData(data);
-        }
+        afkDetector.shutdown();
+        
+        // Settle queued paydays, then save all active player data and drain the write-behind queue
+        settlementQueue.shutdown();
+        long now = now();
+        playerStates.forEach(data -> {
+            // Commit the sessions still running, like a leave
+            if (endSession(data.getPlayerUUID(), data, now)) {
+                writeBehindQueue.enqueue(data);
+            }
+        });
+        writeBehindQueue.shutdown();
         
         // Clear caches
-        activePlayerData.clear();
-        joinTimes.clear();
+        playerStates.clear();
+        paydayWorlds.clear();
+        afkPlayers.clear();
+        multiplierCache.clear();
+        trackingQueue.clear();
+        leaderboards.clear();
         
         plugin.getLogger().info("PaydayManager shutdown completed");
     }
     
     // Getters
     public Economy getEconomy() { return economy; }
-    public int getActivePlayersCount() { return activePlayerData.size(); }
-}
\ No newline at end of file
+    public WriteBehindQueue getWriteBehindQueue() { return writeBehindQueue; }
+    public SettlementQueue getSettlementQueue() { return settlementQueue; }
+    public MultiplierCache getMultiplierCache() { return multiplierCache; }
+    public LeaderboardManager getLeaderboards() { return leaderboards; }
+    public AfkDetector getAfkDetector() { return afkDetector; }
+    public PlayerStateStore getPlayerStates() { return playerStates; }
+    public int getActivePlayersCount() { return playerStates.size(); }
+    public long getAvoidedSyncLoads() { return avoidedSyncLoads.get(); }
+}
@@ -0,0 +1,184 @@
+package me.devupdates.vaultPayday.manager;
+
+import me.devupdates.vaultPayday.VaultPayday;
+import me.devupdates.vaultPayday.data.WriteBehindQueue;
+import me.devupdates.vaultPayday.model.PaydayData;
+import me.devupdates.vaultPayday.util.Money;
+import net.milkbowl.vault.economy.Economy;
+import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Collects closed payday cycles and settles them on the main thread
+ * Deposits run in per-tick slices bounded by a time budget, each slice is handed to the write-behind queue and flushed
+ */
+public class SettlementQueue {
+    private final VaultPayday plugin;
+    private final PaydayManager paydayManager;
+    private final WriteBehindQueue writeBehindQueue;
+    private final ConfigManager configManager;
+    
+    private final Queue<Settlement> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private BukkitTask settlementTask;
+    
+    // Statistics, only touched on the main thread
+    private long settledCount;
+    private long failedCount;
+    private long totalLatencyNanos;
+    private long maxLatencyNanos;
+    private long lastSliceNanos;
+    
+    /**
+     * A closed cycle waiting for its deposit
+     */
+    private record Settlement(UUID playerUUID, PaydayData data, PaydayData.CycleSnapshot cycle,
+                              long amount, long queuedAtNanos) {}
+    
+    public SettlementQueue(VaultPayday plugin, PaydayManager paydayManager, WriteBehindQueue writeBehindQueue,
+                           ConfigManager configManager) {
+        this.plugin = plugin;
+        this.paydayManager = paydayManager;
+        this.writeBehindQueue = writeBehindQueue;
+        this.configManager = configManager;
+    }
+    
+    /**
+     * Start the per-tick settlement task
+     */
+    public void start() {
+        settlementTask = new BukkitRunnable() {
+            @Override
+            public void run() {
+                settleSlice(TimeUnit.MICROSECONDS.toNanos(Math.round(configManager.getSettlementTickBudgetMillis() * 1000)));
+            }
+        }.runTaskTimer(plugin, 1L, 1L);
+    }
+    
+    /**
+     * Queue a closed cycle for deposit, safe to call from any thread
+     * @param amount Base amount in micro-units, multipliers are applied at settlement
+     */
+    public void submit(UUID playerUUID, PaydayData data, PaydayData.CycleSnapshot cycle, long amount) {
+        pending.offer(new Settlement(playerUUID, data, cycle, amount, System.nanoTime()));
+        pendingCount.incrementAndGet();
+    }
+    
+    /**
+     * Settle queued cycles until the time budget is used up, always at least one
+     */
+    private void settleSlice(long budgetNanos) {
+        if (pendingCount.get() == 0) {
+            return;
+        }
+        
+        Economy economy = paydayManager.getEconomy();
+        long start = System.nanoTime();
+        List<PaydayData> settled = new ArrayList<>();
+        long settledAmount = 0;
+        
+        Settlement settlement;
+        while ((settlement = pending.poll()) != null) {
+            pendingCount.decrementAndGet();
+            
+            long amount = settle(economy, settlement);
+            if (amount >= 0) {
+                settled.add(settlement.data());
+                settledAmount += amount;
+            }
+            
+            if (System.nanoTime() - start >= budgetNanos) {
+                break;
+            }
+        }
+        
+        lastSliceNanos = System.nanoTime() - start;
+        if (!settled.isEmpty()) {
+            persist(settled);
+        }
+        
+        // Slice timing on top of the per-payout lines
+        if (configManager.isDebugMode() && !settled.isEmpty()) {
+            plugin.getLogger().info("Settled " + settled.size() + " paydays ($" + Money.format(settledAmount) + ") in " +
+                String.format("%.2f", lastSliceNanos / 1_000_000.0) + " ms" +
+                (pendingCount.get() > 0 ? ", " + pendingCount.get() + " still queued" : ""));
+        }
+    }
+    
+    /**
+     * Deposit a single payday and notify the player
+     * @return The deposited amount in micro-units, or -1 if the deposit failed
+     */
+    private long settle(Economy economy, Settlement settlement) {
+        Player player = Bukkit.getPlayer(settlement.playerUUID());
+        OfflinePlayer target = player != null ? player : Bukkit.getOfflinePlayer(settlement.playerUUID());
+        long amount = paydayManager.applyMultipliers(settlement.playerUUID(), player, settlement.amount());
+        
+        if (!economy.depositPlayer(target, Money.toDouble(amount)).transactionSuccess()) {
+            // Put the cycle back so the payout is retried on the next update
+            settlement.data().restoreCycle(settlement.cycle());
+            paydayManager.getLeaderboards().update(settlement.data());
+            paydayManager.queueSave(settlement.data()); // The player may be gone, the restored balance must reach storage
+            failedCount++;
+            plugin.getLogger().warning("Failed to deposit payday amount for " + settlement.data().getPlayerName());
+            return -1;
+        }
+        
+        long latency = System.nanoTime() - settlement.queuedAtNanos();
+        settledCount++;
+        totalLatencyNanos += latency;
+        maxLatencyNanos = Math.max(maxLatencyNanos, latency);
+        
+        if (player != null) {
+            paydayManager.sendNotification(player, configManager.getPrefixedMessageTemplate("payday_received"),
+                "amount", Money.format(amount),
+                "time", configManager.getPaydayIntervalMinutes());
+        }
+        
+        // Audit trail, one line per payout whatever the debug setting
+        plugin.getLogger().info("Payday processed for " + settlement.data().getPlayerName() + ": $" + Money.format(amount));
+        return amount;
+    }
+    
+    /**
+     * Queue settled players on the write-behind queue and flush it right away, so the closed cycles are
+     * written in one batch off the main thread with the usual retry and handoff handling
+     */
+    private void persist(List<PaydayData> settled) {
+        settled.forEach(paydayManager::queueSave);
+        writeBehindQueue.flush();
+    }
+    
+    /**
+     * Stop the settlement task and settle everything still queued, ignoring the time budget
+     */
+    public void shutdown() {
+        if (settlementTask != null) {
+            settlementTask.cancel();
+        }
+        
+        if (pendingCount.get() > 0) {
+            plugin.getLogger().info("Settling " + pendingCount.get() + " queued paydays before shutdown");
+            settleSlice(Long.MAX_VALUE);
+        }
+    }
+    
+    // Getters
+    public int getQueueLength() { return pendingCount.get(); }
+    public long getSettledCount() { return settledCount; }
+    public long getFailedCount() { return failedCount; }
+    public double getAverageLatencyMillis() { return settledCount == 0 ? 0.0 : totalLatencyNanos / (double) settledCount / 1_000_000.0; }
+    public double getMaxLatencyMillis() { return maxLatencyNanos / 1_000_000.0; }
+    public double getLastSliceMillis() { return lastSliceNanos / 1_000_000.0; }
+}
\ No newline at end of file
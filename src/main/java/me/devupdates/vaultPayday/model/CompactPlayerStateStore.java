@@ -0,0 +1,580 @@
+package me.devupdates.vaultPayday.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+import java.util.function.IntBinaryOperator;
+
+/**
+ * Compact player state store for servers with thousands of cached players
+ * Players are indexed by the two UUID longs in an open-addressing table; minutes, pending balance,
+ * session timing and dirty flags live in primitive columns. Columns grow in fixed-size chunks that are
+ * published once and never reallocated, so a slot never moves and cached PaydayData views update their
+ * counters without any store lock. The lock only guards the index and slot allocation.
+ * Only cached players have a view, lookups of session times read the columns without allocating.
+ * Removing a player detaches their view: its counters are copied out of the slot, which is reused right away,
+ * so views handed out earlier keep working with their last values.
+ */
+public class CompactPlayerStateStore implements PlayerStateStore {
+    private static final int CHUNK_SHIFT = 8;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final int INITIAL_INDEX_SIZE = 64; // Must be a power of two
+    
+    private static final int FLAG_DIRTY = 1;
+    private static final IntBinaryOperator BIT_OR = (flags, bits) -> flags | bits;
+    private static final IntBinaryOperator BIT_AND = (flags, bits) -> flags & bits;
+    private static final AtomicIntegerArray DETACHED_FLAGS = new AtomicIntegerArray(1); // Written, never read
+    
+    // Rough footprint: four long columns, one int column and one view reference per slot
+    private static final int SLOT_FOOTPRINT_BYTES = 4 * Long.BYTES + Integer.BYTES + 8;
+    private static final int INDEX_BUCKET_BYTES = 2 * Long.BYTES + Integer.BYTES;
+    // Per cached player on top of the slot: PaydayData view (56) with its AtomicInteger (16), UUID (32),
+    // SlotCounters (32) and a typical name String (64)
+    private static final long VIEW_FOOTPRINT_BYTES = 200;
+    
+    private final StampedLock lock = new StampedLock();
+    
+    // UUID index, replaced as a whole when it grows
+    private Index index = new Index(INITIAL_INDEX_SIZE);
+    private int indexedPlayers;
+    
+    // Slot columns, one chunk per CHUNK_SIZE slots
+    private AtomicLongArray[] minutes = new AtomicLongArray[4];
+    private AtomicLongArray[] pendingMicros = new AtomicLongArray[4];
+    private AtomicLongArray[] joinTimes = new AtomicLongArray[4];
+    private AtomicLongArray[] accountedUntil = new AtomicLongArray[4];
+    private AtomicIntegerArray[] flags = new AtomicIntegerArray[4];
+    private PaydayData[][] views = new PaydayData[4][]; // Cached views of indexed players
+    private int allocatedChunks;
+    
+    // Slot allocation
+    private int[] freeSlots = new int[CHUNK_SIZE];
+    private int freeSlotCount;
+    private int nextSlot;
+    private int viewCount;
+    
+    /**
+     * Open-addressing table with linear probing, keyed on the UUID halves
+     */
+    static final class Index {
+        final long[] mostSigBits;
+        final long[] leastSigBits;
+        final int[] slots; // slot + 1, 0 marks an empty bucket
+        
+        Index(int size) {
+            this.mostSigBits = new long[size];
+            this.leastSigBits = new long[size];
+            this.slots = new int[size];
+        }
+        
+        int bucketOf(long msb, long lsb) {
+            long hash = (msb ^ lsb) * 0x9E3779B97F4A7C15L;
+            return (int) (hash ^ (hash >>> 32)) & (slots.length - 1);
+        }
+        
+        /**
+         * @return bucket holding the key, or -1
+         */
+        int find(long msb, long lsb) {
+            int mask = slots.length - 1;
+            int bucket = bucketOf(msb, lsb);
+            for (int probes = 0; probes <= mask; probes++, bucket = (bucket + 1) & mask) {
+                if (slots[bucket] == 0) {
+                    return -1;
+                }
+                if (mostSigBits[bucket] == msb && leastSigBits[bucket] == lsb) {
+                    return bucket;
+                }
+            }
+            return -1;
+        }
+        
+        void insert(long msb, long lsb, int slot) {
+            int mask = slots.length - 1;
+            int bucket = bucketOf(msb, lsb);
+            while (slots[bucket] != 0) {
+                bucket = (bucket + 1) & mask;
+            }
+            mostSigBits[bucket] = msb;
+            leastSigBits[bucket] = lsb;
+            slots[bucket] = slot + 1;
+        }
+        
+        /**
+         * Remove a bucket, shifting later entries of the probe chain back so lookups need no tombstones
+         */
+        void delete(int bucket) {
+            int mask = slots.length - 1;
+            int hole = bucket;
+            slots[hole] = 0;
+            
+            for (int next = (hole + 1) & mask; slots[next] != 0; next = (next + 1) & mask) {
+                int home = bucketOf(mostSigBits[next], leastSigBits[next]);
+                // Move the entry into the hole unless its home lies cyclically in (hole, next]
+                boolean stays = hole <= next ? (hole < home && home <= next) : (hole < home || home <= next);
+                if (!stays) {
+                    mostSigBits[hole] = mostSigBits[next];
+                    leastSigBits[hole] = leastSigBits[next];
+                    slots[hole] = slots[next];
+                    slots[next] = 0;
+                    hole = next;
+                }
+            }
+        }
+    }
+    
+    @Override
+    public PaydayData get(UUID playerUUID) {
+        long stamp = lock.tryOptimisticRead();
+        PaydayData data = viewOf(playerUUID);
+        if (lock.validate(stamp)) {
+            return data;
+        }
+        
+        stamp = lock.readLock();
+        try {
+            return viewOf(playerUUID);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+    
+    /**
+     * Look up a view, tolerating torn state during an optimistic read
+     */
+    private PaydayData viewOf(UUID playerUUID) {
+        Index current = index;
+        int bucket = current.find(playerUUID.getMostSignificantBits(), playerUUID.getLeastSignificantBits());
+        if (bucket < 0) {
+            return null;
+        }
+        
+        int slot = current.slots[bucket] - 1;
+        PaydayData[][] viewChunks = views;
+        if (slot < 0 || (slot >> CHUNK_SHIFT) >= viewChunks.length || viewChunks[slot >> CHUNK_SHIFT] == null) {
+            return null;
+        }
+        return viewChunks[slot >> CHUNK_SHIFT][slot & CHUNK_MASK];
+    }
+    
+    @Override
+    public PaydayData putIfAbsent(PaydayData data) {
+        // Read the source before locking, it may itself be a view of this store
+        UUID playerUUID = data.getPlayerUUID();
+        long minutesPlayed = data.getMinutesPlayed();
+        long pending = data.getPendingMicros();
+        
+        long stamp = lock.writeLock();
+        try {
+            int slot = acquireSlot(playerUUID);
+            PaydayData existing = views[slot >> CHUNK_SHIFT][slot & CHUNK_MASK];
+            if (existing != null) {
+                return existing;
+            }
+            
+            minutes[slot >> CHUNK_SHIFT].set(slot & CHUNK_MASK, minutesPlayed);
+            pendingMicros[slot >> CHUNK_SHIFT].set(slot & CHUNK_MASK, pending);
+            
+            PaydayData view = new PaydayData(playerUUID, data.getPlayerName(), new SlotCounters(slot),
+                data.getLastUpdated(), data.getTotalPaydays());
+            view.setVersion(data.getVersion());
+            view.setCarriedMillis(data.getCarriedMillis());
+            views[slot >> CHUNK_SHIFT][slot & CHUNK_MASK] = view;
+            viewCount++;
+            return view;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+    
+    @Override
+    public void startSession(UUID playerUUID, long now) {
+        long stamp = lock.writeLock();
+        try {
+            int slot = acquireSlot(playerUUID);
+            joinTimes[slot >> CHUNK_SHIFT].set(slot & CHUNK_MASK, now);
+            accountedUntil[slot >> CHUNK_SHIFT].set(slot & CHUNK_MASK, now);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+    
+    @Override
+    public long getJoinTime(UUID playerUUID) {
+        return readTime(true, playerUUID);
+    }
+    
+    @Override
+    public long getAccountedUntil(UUID playerUUID) {
+        return readTime(false, playerUUID);
+    }
+    
+    /**
+     * Read a session time, optimistically first since these reads run for every tracked player
+     */
+    private long readTime(boolean joinTime, UUID playerUUID) {
+        long stamp = lock.tryOptimisticRead();
+        long value = timeOf(joinTime ? joinTimes : accountedUntil, playerUUID);
+        if (lock.validate(stamp)) {
+            return value;
+        }
+        
+        stamp = lock.readLock();
+        try {
+            return timeOf(joinTime ? joinTimes : accountedUntil, playerUUID);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+    
+    /**
+     * Look up a session time, tolerating torn state during an optimistic read
+     */
+    private long timeOf(AtomicLongArray[] column, UUID playerUUID) {
+        Index current = index;
+        int bucket = current.find(playerUUID.getMostSignificantBits(), playerUUID.getLeastSignificantBits());
+        if (bucket < 0) {
+            return NO_TIME;
+        }
+        
+        int slot = current.slots[bucket] - 1;
+        if (slot < 0 || (slot >> CHUNK_SHIFT) >= column.length || column[slot >> CHUNK_SHIFT] == null) {
+            return NO_TIME;
+        }
+        return column[slot >> CHUNK_SHIFT].get(slot & CHUNK_MASK);
+    }
+    
+    @Override
+    public void setAccountedUntil(UUID playerUUID, long timestamp) {
+        long stamp = lock.readLock();
+        try {
+            int slot = slotOf(playerUUID);
+            if (slot >= 0) {
+                accountedUntil[slot >> CHUNK_SHIFT].set(slot & CHUNK_MASK, timestamp);
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+    
+    @Override
+    public boolean compareAndSetAccountedUntil(UUID playerUUID, long expected, long timestamp) {
+        long stamp = lock.readLock();
+        try {
+            int slot = slotOf(playerUUID);
+            return slot >= 0 && accountedUntil[slot >> CHUNK_SHIFT].compareAndSet(slot & CHUNK_MASK, expected, timestamp);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+    
+    @Override
+    public boolean clearDirty(UUID playerUUID) {
+        long stamp = lock.readLock();
+        try {
+            int slot = slotOf(playerUUID);
+            if (slot < 0) {
+                return false;
+            }
+            int previous = flags[slot >> CHUNK_SHIFT].getAndAccumulate(slot & CHUNK_MASK, ~FLAG_DIRTY, BIT_AND);
+            return (previous & FLAG_DIRTY) != 0;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+    
+    @Override
+    public PaydayData remove(UUID playerUUID) {
+        long stamp = lock.writeLock();
+        try {
+            int bucket = index.find(playerUUID.getMostSignificantBits(), playerUUID.getLeastSignificantBits());
+            return bucket < 0 ? null : releaseSlot(bucket);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+    
+    @Override
+    public void retainAll(Set<UUID> playerUUIDs) {
+        long stamp = lock.writeLock();
+        try {
+            List<UUID> stale = new ArrayList<>();
+            Index current = index;
+            for (int bucket = 0; bucket < current.slots.length; bucket++) {
+                if (current.slots[bucket] != 0) {
+                    UUID playerUUID = new UUID(current.mostSigBits[bucket], current.leastSigBits[bucket]);
+                    if (!playerUUIDs.contains(playerUUID)) {
+                        stale.add(playerUUID);
+                    }
+                }
+            }
+            
+            for (UUID playerUUID : stale) {
+                releaseSlot(index.find(playerUUID.getMostSignificantBits(), playerUUID.getLeastSignificantBits()));
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+    
+    @Override
+    public void forEach(Consumer<PaydayData> action) {
+        List<PaydayData> snapshot;
+        long stamp = lock.readLock();
+        try {
+            snapshot = new ArrayList<>(viewCount);
+            for (int chunk = 0; chunk < allocatedChunks; chunk++) {
+                for (PaydayData view : views[chunk]) {
+                    if (view != null) {
+                        snapshot.add(view);
+                    }
+                }
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+        
+        // Run outside the lock, actions may call back into the store
+        snapshot.forEach(action);
+    }
+    
+    @Override
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return viewCount;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+    
+    @Override
+    public void clear() {
+        long stamp = lock.writeLock();
+        try {
+            Index current = index;
+            for (int bucket = current.slots.length - 1; bucket >= 0; bucket--) {
+                // Walk backwards so entries shifted by a deletion are not skipped
+                while (current.slots[bucket] != 0) {
+                    releaseSlot(bucket);
+                }
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+    
+    @Override
+    public long estimateFootprintBytes() {
+        long stamp = lock.readLock();
+        try {
+            return (long) allocatedChunks * CHUNK_SIZE * SLOT_FOOTPRINT_BYTES
+                + (long) index.slots.length * INDEX_BUCKET_BYTES
+                + viewCount * VIEW_FOOTPRINT_BYTES;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+    
+    @Override
+    public String getType() {
+        return "compact";
+    }
+    
+    /**
+     * Find a player's slot, caller holds the lock
+     * @return slot or -1
+     */
+    private int slotOf(UUID playerUUID) {
+        int bucket = index.find(playerUUID.getMostSignificantBits(), playerUUID.getLeastSignificantBits());
+        return bucket < 0 ? -1 : index.slots[bucket] - 1;
+    }
+    
+    /**
+     * Find or allocate a player's slot, caller holds the write lock
+     */
+    private int acquireSlot(UUID playerUUID) {
+        int slot = slotOf(playerUUID);
+        if (slot >= 0) {
+            return slot;
+        }
+        
+        slot = freeSlotCount > 0 ? freeSlots[--freeSlotCount] : nextSlot++;
+        ensureChunk(slot >> CHUNK_SHIFT);
+        
+        int chunk = slot >> CHUNK_SHIFT;
+        int offset = slot & CHUNK_MASK;
+        minutes[chunk].set(offset, 0);
+        pendingMicros[chunk].set(offset, 0);
+        joinTimes[chunk].set(offset, NO_TIME);
+        accountedUntil[chunk].set(offset, NO_TIME);
+        flags[chunk].set(offset, 0);
+        
+        // Keep the index at most half full
+        if ((indexedPlayers + 1) * 2 > index.slots.length) {
+            growIndex();
+        }
+        index.insert(playerUUID.getMostSignificantBits(), playerUUID.getLeastSignificantBits(), slot);
+        indexedPlayers++;
+        return slot;
+    }
+    
+    /**
+     * Remove the player referenced by an index bucket and free the slot, caller holds the write lock
+     */
+    private PaydayData releaseSlot(int bucket) {
+        int slot = index.slots[bucket] - 1;
+        int chunk = slot >> CHUNK_SHIFT;
+        int offset = slot & CHUNK_MASK;
+        
+        PaydayData view = views[chunk][offset];
+        views[chunk][offset] = null;
+        index.delete(bucket);
+        indexedPlayers--;
+        
+        if (view != null) {
+            ((SlotCounters) view.getCounters()).detach();
+            viewCount--;
+        }
+        freeSlot(slot);
+        return view;
+    }
+    
+    private void freeSlot(int slot) {
+        if (freeSlotCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeSlots.length * 2);
+        }
+        freeSlots[freeSlotCount++] = slot;
+    }
+    
+    private void growIndex() {
+        Index current = index;
+        Index grown = new Index(current.slots.length * 2);
+        for (int bucket = 0; bucket < current.slots.length; bucket++) {
+            if (current.slots[bucket] != 0) {
+                grown.insert(current.mostSigBits[bucket], current.leastSigBits[bucket], current.slots[bucket] - 1);
+            }
+        }
+        index = grown;
+    }
+    
+    private void ensureChunk(int chunk) {
+        if (chunk < allocatedChunks) {
+            return;
+        }
+        
+        if (chunk >= minutes.length) {
+            int length = minutes.length * 2;
+            minutes = Arrays.copyOf(minutes, length);
+            pendingMicros = Arrays.copyOf(pendingMicros, length);
+            joinTimes = Arrays.copyOf(joinTimes, length);
+            accountedUntil = Arrays.copyOf(accountedUntil, length);
+            flags = Arrays.copyOf(flags, length);
+            views = Arrays.copyOf(views, length);
+        }
+        
+        minutes[chunk] = new AtomicLongArray(CHUNK_SIZE);
+        pendingMicros[chunk] = new AtomicLongArray(CHUNK_SIZE);
+        joinTimes[chunk] = new AtomicLongArray(CHUNK_SIZE);
+        accountedUntil[chunk] = new AtomicLongArray(CHUNK_SIZE);
+        flags[chunk] = new AtomicIntegerArray(CHUNK_SIZE);
+        views[chunk] = new PaydayData[CHUNK_SIZE];
+        allocatedChunks = chunk + 1;
+    }
+    
+    /**
+     * Counters of a cached view, reading and writing the store columns without the store lock
+     * The chunks are captured once, they never move. The view's own monitor orders updates against
+     * {@link #detach()}, so nothing is written to a slot after it was freed.
+     */
+    private final class SlotCounters implements PaydayCounters {
+        private AtomicLongArray minutesChunk;
+        private AtomicLongArray pendingChunk;
+        private AtomicIntegerArray flagsChunk;
+        private int offset;
+        
+        SlotCounters(int slot) {
+            int chunk = slot >> CHUNK_SHIFT;
+            this.minutesChunk = minutes[chunk];
+            this.pendingChunk = pendingMicros[chunk];
+            this.flagsChunk = flags[chunk];
+            this.offset = slot & CHUNK_MASK;
+        }
+        
+        /**
+         * Move the counters off the store slot into arrays of their own, called when the player is removed
+         */
+        synchronized void detach() {
+            AtomicLongArray detachedMinutes = new AtomicLongArray(1);
+            AtomicLongArray detachedPending = new AtomicLongArray(1);
+            detachedMinutes.set(0, minutesChunk.get(offset));
+            detachedPending.set(0, pendingChunk.get(offset));
+            
+            minutesChunk = detachedMinutes;
+            pendingChunk = detachedPending;
+            flagsChunk = DETACHED_FLAGS;
+            offset = 0;
+        }
+        
+        private void markDirty() {
+            flagsChunk.getAndAccumulate(offset, FLAG_DIRTY, BIT_OR);
+        }
+        
+        @Override
+        public synchronized long getMinutes() {
+            return minutesChunk.get(offset);
+        }
+        
+        @Override
+        public synchronized void setMinutes(long value) {
+            minutesChunk.set(offset, value);
+            markDirty();
+        }
+        
+        @Override
+        public synchronized void addMinutes(long value) {
+            minutesChunk.addAndGet(offset, value);
+            markDirty();
+        }
+        
+        @Override
+        public synchronized boolean compareAndSetMinutes(long expected, long value) {
+            boolean updated = minutesChunk.compareAndSet(offset, expected, value);
+            if (updated) {
+                markDirty();
+            }
+            return updated;
+        }
+        
+        @Override
+        public synchronized long getPendingMicros() {
+            return pendingChunk.get(offset);
+        }
+        
+        @Override
+        public synchronized void setPendingMicros(long value) {
+            pendingChunk.set(offset, value);
+            markDirty();
+        }
+        
+        @Override
+        public synchronized void addPendingMicros(long amountMicros) {
+            pendingChunk.addAndGet(offset, amountMicros);
+            markDirty();
+        }
+        
+        @Override
+        public synchronized long drainPendingMicros() {
+            long drained = pendingChunk.getAndSet(offset, 0);
+            markDirty();
+            return drained;
+        }
+    }
+}
\ No newline at end of file
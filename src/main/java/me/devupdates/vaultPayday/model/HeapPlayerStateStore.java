@@ -0,0 +1,103 @@
+package me.devupdates.vaultPayday.model;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Default player state store backed by concurrent maps
+ */
+public class HeapPlayerStateStore implements PlayerStateStore {
+    // Rough per-player cost: PaydayData with counters, UUID key, three map nodes and two boxed Longs
+    private static final long ENTRY_FOOTPRINT_BYTES = 360;
+    
+    private final Map<UUID, PaydayData> activePlayerData = new ConcurrentHashMap<>();
+    private final Map<UUID, Long> joinTimes = new ConcurrentHashMap<>(); // Track when players joined
+    private final Map<UUID, Long> accountedUntil = new ConcurrentHashMap<>(); // Playtime credited up to this timestamp
+    
+    @Override
+    public PaydayData get(UUID playerUUID) {
+        return activePlayerData.get(playerUUID);
+    }
+    
+    @Override
+    public PaydayData putIfAbsent(PaydayData data) {
+        PaydayData existing = activePlayerData.putIfAbsent(data.getPlayerUUID(), data);
+        return existing != null ? existing : data;
+    }
+    
+    @Override
+    public void startSession(UUID playerUUID, long now) {
+        joinTimes.put(playerUUID, now);
+        accountedUntil.put(playerUUID, now);
+    }
+    
+    @Override
+    public long getJoinTime(UUID playerUUID) {
+        return joinTimes.getOrDefault(playerUUID, NO_TIME);
+    }
+    
+    @Override
+    public long getAccountedUntil(UUID playerUUID) {
+        return accountedUntil.getOrDefault(playerUUID, NO_TIME);
+    }
+    
+    @Override
+    public void setAccountedUntil(UUID playerUUID, long timestamp) {
+        accountedUntil.put(playerUUID, timestamp);
+    }
+    
+    @Override
+    public boolean compareAndSetAccountedUntil(UUID playerUUID, long expected, long timestamp) {
+        return accountedUntil.replace(playerUUID, expected, timestamp);
+    }
+    
+    @Override
+    public boolean clearDirty(UUID playerUUID) {
+        return true; // Changes are not tracked, always save
+    }
+    
+    @Override
+    public PaydayData remove(UUID playerUUID) {
+        joinTimes.remove(playerUUID);
+        accountedUntil.remove(playerUUID);
+        return activePlayerData.remove(playerUUID);
+    }
+    
+    @Override
+    public void retainAll(Set<UUID> playerUUIDs) {
+        activePlayerData.keySet().retainAll(playerUUIDs);
+        joinTimes.keySet().retainAll(playerUUIDs);
+        accountedUntil.keySet().retainAll(playerUUIDs);
+    }
+    
+    @Override
+    public void forEach(Consumer<PaydayData> action) {
+        new ArrayList<>(activePlayerData.values()).forEach(action);
+    }
+    
+    @Override
+    public int size() {
+        return activePlayerData.size();
+    }
+    
+    @Override
+    public void clear() {
+        activePlayerData.clear();
+        joinTimes.clear();
+        accountedUntil.clear();
+    }
+    
+    @Override
+    public long estimateFootprintBytes() {
+        return (long) Math.max(activePlayerData.size(), joinTimes.size()) * ENTRY_FOOTPRINT_BYTES;
+    }
+    
+    @Override
+    public String getType() {
+        return "heap";
+    }
+}
\ No newline at end of file
@@ -0,0 +1,47 @@
+package me.devupdates.vaultPayday.model;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Backing storage for the hot counters of a PaydayData
+ * Either plain heap atomics or a slot in a {@link CompactPlayerStateStore}
+ */
+interface PaydayCounters {
+    long getMinutes();
+    void setMinutes(long minutes);
+    void addMinutes(long minutes);
+    boolean compareAndSetMinutes(long expected, long minutes);
+    
+    // Pending balance in fixed-point micro-units, see Money
+    long getPendingMicros();
+    void setPendingMicros(long pendingMicros);
+    void addPendingMicros(long amountMicros);
+    
+    /**
+     * Read the pending balance and reset it to zero in one atomic step
+     */
+    long drainPendingMicros();
+    
+    /**
+     * Counters held directly on the heap
+     */
+    final class Heap implements PaydayCounters {
+        private final AtomicLong minutes;
+        private final AtomicLong pendingMicros;
+        
+        Heap(long minutes, long pendingMicros) {
+            this.minutes = new AtomicLong(minutes);
+            this.pendingMicros = new AtomicLong(pendingMicros);
+        }
+        
+        @Override public long getMinutes() { return minutes.get(); }
+        @Override public void setMinutes(long minutes) { this.minutes.set(minutes); }
+        @Override public void addMinutes(long minutes) { this.minutes.addAndGet(minutes); }
+        @Override public boolean compareAndSetMinutes(long expected, long minutes) { return this.minutes.compareAndSet(expected, minutes); }
+        
+        @Override public long getPendingMicros() { return pendingMicros.get(); }
+        @Override public void setPendingMicros(long pendingMicros) { this.pendingMicros.set(pendingMicros); }
+        @Override public void addPendingMicros(long amountMicros) { pendingMicros.addAndGet(amountMicros); }
+        @Override public long drainPendingMicros() { return pendingMicros.getAndSet(0); }
+    }
+}
\ No newline at end of file
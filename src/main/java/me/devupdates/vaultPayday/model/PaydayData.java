@@ -1,104 +1,189 @@
 package me.devupdates.vaultPayday.model;
 
+import me.devupdates.vaultPayday.util.Money;
+
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Data model representing a player's payday information
+ * Counters are safe to update from the timer thread and the main thread at once
+ * The pending balance is fixed-point, in micro-units (see {@link Money})
+ * With the compact state store enabled, cached instances are thin views over a store slot
  */
 public class PaydayData {
     private final UUID playerUUID;
-    private String playerName;
-    private long minutesPlayed;
-    private double pendingBalance;
-    private long lastUpdated;
-    private int totalPaydays;
+    private volatile String playerName;
+    private final PaydayCounters counters; // Minutes and pending balance
+    private volatile long lastUpdated;
+    private final AtomicInteger totalPaydays;
+    private volatile long version; // Row version in a shared store, for optimistic concurrency
+    private volatile long carriedMillis; // Playtime under a minute left over when the last session ended
+    
+    /**
+     * A closed payday cycle, taken atomically by {@link #snapshotAndReset(long)}
+     */
+    public record CycleSnapshot(long minutesPlayed, long pendingMicros) {}
     
     public PaydayData(UUID playerUUID, String playerName) {
-        this.playerUUID = playerUUID;
-        this.playerName = playerName;
-        this.minutesPlayed = 0;
-        this.pendingBalance = 0.0;
-        this.lastUpdated = System.currentTimeMillis();
-        this.totalPaydays = 0;
+        this(playerUUID, playerName, 0, 0L, System.currentTimeMillis(), 0);
+    }
+    
+    public PaydayData(UUID playerUUID, String playerName, long minutesPlayed,
+                     long pendingMicros, long lastUpdated, int totalPaydays) {
+        this(playerUUID, playerName, new PaydayCounters.Heap(minutesPlayed, pendingMicros), lastUpdated, totalPaydays);
     }
     
-    public PaydayData(UUID playerUUID, String playerName, long minutesPlayed, 
-                     double pendingBalance, long lastUpdated, int totalPaydays) {
+    /**
+     * View whose counters live outside this object, e.g. in a compact state store slot
+     */
+    PaydayData(UUID playerUUID, String playerName, PaydayCounters counters, long lastUpdated, int totalPaydays) {
         this.playerUUID = playerUUID;
         this.playerName = playerName;
-        this.minutesPlayed = minutesPlayed;
-        this.pendingBalance = pendingBalance;
+        this.counters = counters;
         this.lastUpdated = lastUpdated;
-        this.totalPaydays = totalPaydays;
+        this.totalPaydays = new AtomicInteger(totalPaydays);
+    }
+    
+    /**
+     * Counters backing this instance, for the store that created a view
+     */
+    PaydayCounters getCounters() {
+        return counters;
     }
     
     // Getters
     public UUID getPlayerUUID() { return playerUUID; }
     public String getPlayerName() { return playerName; }
-    public long getMinutesPlayed() { return minutesPlayed; }
-    public double getPendingBalance() { return pendingBalance; }
+    public long getMinutesPlayed() { return counters.getMinutes(); }
+    public long getPendingMicros() { return counters.getPendingMicros(); }
+    public double getPendingBalance() { return Money.toDouble(counters.getPendingMicros()); }
     public long getLastUpdated() { return lastUpdated; }
-    public int getTotalPaydays() { return totalPaydays; }
+    public int getTotalPaydays() { return totalPaydays.get(); }
+    public long getVersion() { return version; }
+    public long getCarriedMillis() { return carriedMillis; }
     
     // Setters
-    public void setPlayerName(String playerName) { 
-        this.playerName = playerName; 
+    public void setPlayerName(String playerName) {
+        this.playerName = playerName;
         this.lastUpdated = System.currentTimeMillis();
     }
     
-    public void setMinutesPlayed(long minutesPlayed) { 
-        this.minutesPlayed = minutesPlayed; 
+    public void setMinutesPlayed(long minutesPlayed) {
+        counters.setMinutes(minutesPlayed);
         this.lastUpdated = System.currentTimeMillis();
     }
     
-    public void setPendingBalance(double pendingBalance) { 
-        this.pendingBalance = pendingBalance; 
+    /**
+     * Overwrite the pending balance (admin use)
+     * Payments added concurrently with this call may be overwritten
+     */
+    public void setPendingMicros(long pendingMicros) {
+        counters.setPendingMicros(pendingMicros);
         this.lastUpdated = System.currentTimeMillis();
     }
     
-    public void setLastUpdated(long lastUpdated) { 
-        this.lastUpdated = lastUpdated; 
+    public void setLastUpdated(long lastUpdated) {
+        this.lastUpdated = lastUpdated;
+    }
+    
+    /**
+     * Set the row version this data was loaded or last saved at, only used by shared stores
+     */
+    public void setVersion(long version) {
+        this.version = version;
+    }
+    
+    /**
+     * Set the playtime under a minute that the ended session did not credit, it counts towards the next session
+     */
+    public void setCarriedMillis(long carriedMillis) {
+        this.carriedMillis = carriedMillis;
     }
     
-    public void setTotalPaydays(int totalPaydays) { 
-        this.totalPaydays = totalPaydays; 
+    /**
+     * Take the carried playtime for a new session, so it is credited only once
+     * @return the carried milliseconds, 0 if another session already took them
+     */
+    public synchronized long takeCarriedMillis() {
+        long carried = carriedMillis;
+        carriedMillis = 0;
+        return carried;
+    }
+    
+    public void setTotalPaydays(int totalPaydays) {
+        this.totalPaydays.set(totalPaydays);
         this.lastUpdated = System.currentTimeMillis();
     }
     
     // Utility methods
     public void addMinute() {
-        this.minutesPlayed++;
+        counters.addMinutes(1);
         this.lastUpdated = System.currentTimeMillis();
     }
     
     public void addMinutes(long minutes) {
-        this.minutesPlayed += minutes;
+        counters.addMinutes(minutes);
         this.lastUpdated = System.currentTimeMillis();
     }
     
-    public void addPendingBalance(double amount) {
-        this.pendingBalance += amount;
+    public void addPendingMicros(long amountMicros) {
+        counters.addPendingMicros(amountMicros);
         this.lastUpdated = System.currentTimeMillis();
     }
     
     public void resetPaydayCycle() {
-        this.minutesPlayed = 0;
-        this.pendingBalance = 0.0;
-        this.totalPaydays++;
+        counters.setMinutes(0);
+        counters.drainPendingMicros();
+        this.totalPaydays.incrementAndGet();
+        this.lastUpdated = System.currentTimeMillis();
+    }
+    
+    /**
+     * Atomically close the current payday cycle if it is complete
+     * Minutes are reset and the pending balance is drained in one step, so payments
+     * arriving while the payout is deposited count towards the next cycle instead of being lost
+     * @param requiredMinutes Minutes needed for a payday
+     * @return the closed cycle, or null if not ready or already closed by another thread
+     */
+    public CycleSnapshot snapshotAndReset(long requiredMinutes) {
+        long minutes;
+        do {
+            minutes = counters.getMinutes();
+            if (minutes < requiredMinutes) {
+                return null;
+            }
+        } while (!counters.compareAndSetMinutes(minutes, 0));
+        
+        long balance = counters.drainPendingMicros();
+        this.totalPaydays.incrementAndGet();
+        this.lastUpdated = System.currentTimeMillis();
+        
+        return new CycleSnapshot(minutes, balance);
+    }
+    
+    /**
+     * Undo a cycle taken by {@link #snapshotAndReset(long)}, e.g. when the deposit failed
+     * Merges with anything accumulated since the snapshot
+     */
+    public void restoreCycle(CycleSnapshot snapshot) {
+        counters.addMinutes(snapshot.minutesPlayed());
+        counters.addPendingMicros(snapshot.pendingMicros());
+        this.totalPaydays.decrementAndGet();
         this.lastUpdated = System.currentTimeMillis();
     }
     
     public boolean isReadyForPayday(long requiredMinutes) {
-        return this.minutesPlayed >= requiredMinutes;
+        return counters.getMinutes() >= requiredMinutes;
     }
     
     public long getRemainingMinutes(long requiredMinutes) {
-        return Math.max(0, requiredMinutes - this.minutesPlayed);
+        return Math.max(0, requiredMinutes - counters.getMinutes());
     }
     
     public double getProgressPercentage(long requiredMinutes) {
         if (requiredMinutes <= 0) return 100.0;
-        return Math.min(100.0, (double) this.minutesPlayed / requiredMinutes * 100.0);
+        return Math.min(100.0, (double) counters.getMinutes() / requiredMinutes * 100.0);
     }
     
     @Override
@@ -106,8 +191,8 @@ public class PaydayData {
         return "PaydayData{" +
                 "playerUUID=" + playerUUID +
                 ", playerName='" + playerName + '\'' +
-                ", minutesPlayed=" + minutesPlayed +
-                ", pendingBalance=" + pendingBalance +
+                ", minutesPlayed=" + counters.getMinutes() +
+                ", pendingBalance=" + Money.format(counters.getPendingMicros()) +
                 ", lastUpdated=" + lastUpdated +
                 ", totalPaydays=" + totalPaydays +
                 '}';
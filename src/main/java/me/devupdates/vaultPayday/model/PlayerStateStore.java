@@ -0,0 +1,93 @@
+package me.devupdates.vaultPayday.model;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Cache of online players' payday state, owned by PaydayManager
+ * Besides the PaydayData itself it tracks session timing and unsaved changes
+ * Session times are {@link System#nanoTime()} values, so wall clock adjustments don't affect playtime
+ */
+public interface PlayerStateStore {
+    /**
+     * Returned by timing getters for players without a session
+     */
+    long NO_TIME = Long.MIN_VALUE;
+    
+    /**
+     * Get cached player data
+     * @return cached PaydayData or null if not cached
+     */
+    PaydayData get(UUID playerUUID);
+    
+    /**
+     * Cache loaded player data unless the player is already cached
+     * @return the instance held by the store, callers must use it instead of the argument
+     */
+    PaydayData putIfAbsent(PaydayData data);
+    
+    /**
+     * Start (or restart) a player's session, resetting join time and accounted time to now
+     */
+    void startSession(UUID playerUUID, long now);
+    
+    /**
+     * @return join timestamp of the current session, or {@link #NO_TIME}
+     */
+    long getJoinTime(UUID playerUUID);
+    
+    /**
+     * @return timestamp playtime has been credited up to, or {@link #NO_TIME}
+     * The store doesn't interpret the value, PaydayManager also encodes paused playtime in it
+     */
+    long getAccountedUntil(UUID playerUUID);
+    
+    void setAccountedUntil(UUID playerUUID, long timestamp);
+    
+    /**
+     * Move the accounted time only if it is still the expected value, so concurrent commits credit an interval once
+     * @return true if the value was updated, false if it changed meanwhile or the player has no session
+     */
+    boolean compareAndSetAccountedUntil(UUID playerUUID, long expected, long timestamp);
+    
+    /**
+     * Clear the unsaved-changes flag of a player
+     * @return true if the player may have changed since the last call and should be saved
+     */
+    boolean clearDirty(UUID playerUUID);
+    
+    /**
+     * Remove a player and their session
+     * Data handed out before stays usable and keeps its last values
+     * @return the removed PaydayData or null
+     */
+    PaydayData remove(UUID playerUUID);
+    
+    /**
+     * Remove every player not in the given set
+     */
+    void retainAll(Set<UUID> playerUUIDs);
+    
+    /**
+     * Run an action for every cached PaydayData, on a snapshot of the cache
+     */
+    void forEach(Consumer<PaydayData> action);
+    
+    /**
+     * @return number of players with cached data
+     */
+    int size();
+    
+    void clear();
+    
+    /**
+     * @return rough estimate of the memory held by the store, in bytes
+     */
+    long estimateFootprintBytes();
+    
+    /**
+     * @return store type for diagnostics
+     */
+    String getType();
+}
\ No newline at end of file
@@ -0,0 +1,123 @@
+package me.devupdates.vaultPayday.util;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Immutable per-job settings built once at config load
+ * Lookups are case-insensitive and allocation-free, using an open-addressing table over interned job names
+ */
+public final class JobTable {
+    private static final JobTable EMPTY = new JobTable(true, new String[1], new double[1], new boolean[1]);
+    
+    private final boolean interceptAll;
+    private final String[] names; // null marks a free slot
+    private final double[] multipliers;
+    private final boolean[] intercepted;
+    private final int mask;
+    
+    private JobTable(boolean interceptAll, String[] names, double[] multipliers, boolean[] intercepted) {
+        this.interceptAll = interceptAll;
+        this.names = names;
+        this.multipliers = multipliers;
+        this.intercepted = intercepted;
+        this.mask = names.length - 1;
+    }
+    
+    /**
+     * Build a table from the jobs section of the config
+     * @param interceptAll Intercept every job, otherwise only the specific jobs (all if that list is empty)
+     * @param specificJobs Jobs to intercept when not intercepting all
+     * @param jobMultipliers Multiplier per job name
+     */
+    public static JobTable build(boolean interceptAll, Collection<String> specificJobs, Map<String, Double> jobMultipliers) {
+        boolean all = interceptAll || specificJobs.isEmpty();
+        int entries = specificJobs.size() + jobMultipliers.size();
+        if (entries == 0) {
+            return EMPTY; // Nothing configured, intercept everything at 1.0
+        }
+        
+        // Power of two, at most half full so probe chains stay short
+        int capacity = Integer.highestOneBit(Math.max(2, entries) * 2 - 1) << 1;
+        String[] names = new String[capacity];
+        double[] multipliers = new double[capacity];
+        boolean[] intercepted = new boolean[capacity];
+        
+        for (String job : specificJobs) {
+            int slot = slotFor(names, job);
+            if (names[slot] == null) {
+                names[slot] = job.intern();
+                multipliers[slot] = 1.0;
+            }
+            intercepted[slot] = true;
+        }
+        for (Map.Entry<String, Double> entry : jobMultipliers.entrySet()) {
+            int slot = slotFor(names, entry.getKey());
+            if (names[slot] == null) {
+                names[slot] = entry.getKey().intern();
+            }
+            multipliers[slot] = entry.getValue();
+        }
+        
+        return new JobTable(all, names, multipliers, intercepted);
+    }
+    
+    /**
+     * Check if payments for the given job should be intercepted
+     */
+    public boolean shouldIntercept(String jobName) {
+        if (interceptAll) {
+            return true;
+        }
+        int slot = find(jobName);
+        return slot >= 0 && intercepted[slot];
+    }
+    
+    /**
+     * Get the multiplier for the given job
+     * @return The configured multiplier, or 1.0 if the job has none
+     */
+    public double getMultiplier(String jobName) {
+        int slot = find(jobName);
+        return slot >= 0 ? multipliers[slot] : 1.0;
+    }
+    
+    private int find(String jobName) {
+        if (jobName == null) {
+            return -1;
+        }
+        for (int slot = hash(jobName) & mask; names[slot] != null; slot = (slot + 1) & mask) {
+            String name = names[slot];
+            if (name == jobName || name.equalsIgnoreCase(jobName)) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * Slot holding the given name, or the free slot it should go into
+     */
+    private static int slotFor(String[] names, String jobName) {
+        int mask = names.length - 1;
+        int slot = hash(jobName) & mask;
+        while (names[slot] != null && !names[slot].equalsIgnoreCase(jobName)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+    
+    /**
+     * Case-insensitive string hash, consistent with equalsIgnoreCase for job names
+     */
+    private static int hash(String name) {
+        int h = 0;
+        for (int i = 0; i < name.length(); i++) {
+            h = 31 * h + Character.toLowerCase(Character.toUpperCase(name.charAt(i)));
+        }
+        return h ^ (h >>> 16);
+    }
+    
+    // Getters
+    public boolean isInterceptAll() { return interceptAll; }
+}
\ No newline at end of file
@@ -0,0 +1,161 @@
+package me.devupdates.vaultPayday.util;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.ComponentLike;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.kyori.adventure.text.format.Style;
+import net.kyori.adventure.text.format.TextColor;
+import net.kyori.adventure.text.format.TextDecoration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A config message compiled once into styled literal fragments and placeholder slots
+ * Color codes are translated at compile time, so rendering is a single pass without string replacement
+ */
+public final class MessageTemplate {
+    private static final String COLOR_CODES = "0123456789abcdef";
+    private static final TextColor[] COLORS = {
+        NamedTextColor.BLACK, NamedTextColor.DARK_BLUE, NamedTextColor.DARK_GREEN, NamedTextColor.DARK_AQUA,
+        NamedTextColor.DARK_RED, NamedTextColor.DARK_PURPLE, NamedTextColor.GOLD, NamedTextColor.GRAY,
+        NamedTextColor.DARK_GRAY, NamedTextColor.BLUE, NamedTextColor.GREEN, NamedTextColor.AQUA,
+        NamedTextColor.RED, NamedTextColor.LIGHT_PURPLE, NamedTextColor.YELLOW, NamedTextColor.WHITE
+    };
+    private static final String DECORATION_CODES = "klmno";
+    private static final TextDecoration[] DECORATIONS = {
+        TextDecoration.OBFUSCATED, TextDecoration.BOLD, TextDecoration.STRIKETHROUGH,
+        TextDecoration.UNDERLINED, TextDecoration.ITALIC
+    };
+    
+    private final Object[] parts; // Literal Components and placeholder Slots
+    private final int lineBreak; // Index of the first line break part, -1 for single line messages
+    
+    /**
+     * A placeholder position, rendered with the style active where it appears
+     * @param raw The placeholder as written, used when no value is given
+     */
+    private record Slot(String name, String raw, Style style) {}
+    
+    private MessageTemplate(Object[] parts, int lineBreak) {
+        this.parts = parts;
+        this.lineBreak = lineBreak;
+    }
+    
+    /**
+     * Compile a message with &amp; or § color codes and %name% placeholders
+     * @param raw The message as written in the config
+     * @return Compiled template
+     */
+    public static MessageTemplate compile(String raw) {
+        List<Object> parts = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        Style style = Style.empty();
+        int lineBreak = -1;
+        
+        int length = raw.length();
+        for (int i = 0; i < length; i++) {
+            char c = raw.charAt(i);
+            
+            if ((c == '&' || c == '§') && i + 1 < length) {
+                char code = Character.toLowerCase(raw.charAt(i + 1));
+                int color = COLOR_CODES.indexOf(code);
+                int decoration = DECORATION_CODES.indexOf(code);
+                
+                if (color >= 0 || decoration >= 0 || code == 'r') {
+                    flush(parts, literal, style);
+                    if (color >= 0) {
+                        style = Style.style(COLORS[color]); // Like legacy chat, a color resets decorations
+                    } else if (decoration >= 0) {
+                        style = style.decoration(DECORATIONS[decoration], true);
+                    } else {
+                        style = Style.empty();
+                    }
+                    i++;
+                    continue;
+                }
+            } else if (c == '%') {
+                int end = raw.indexOf('%', i + 1);
+                if (end > i + 1 && isPlaceholderName(raw, i + 1, end)) {
+                    flush(parts, literal, style);
+                    parts.add(new Slot(raw.substring(i + 1, end).intern(), raw.substring(i, end + 1), style));
+                    i = end;
+                    continue;
+                }
+            } else if (c == '\n' && lineBreak < 0) {
+                // Kept as its own part so titles can split the message into title and subtitle
+                flush(parts, literal, style);
+                lineBreak = parts.size();
+                parts.add(Component.newline());
+                continue;
+            }
+            
+            literal.append(c);
+        }
+        flush(parts, literal, style);
+        
+        return new MessageTemplate(parts.toArray(), lineBreak);
+    }
+    
+    /**
+     * Render the whole message
+     * @param placeholders Alternating placeholder names (without %) and values, values may be Components
+     */
+    public Component render(Object... placeholders) {
+        return render(0, parts.length, placeholders);
+    }
+    
+    /**
+     * Render the part before (line 0) or after (line 1) the first line break, used for title and subtitle
+     * @param placeholders Alternating placeholder names (without %) and values, values may be Components
+     */
+    public Component renderLine(int line, Object... placeholders) {
+        if (lineBreak < 0) {
+            return line == 0 ? render(placeholders) : Component.empty();
+        }
+        return line == 0 ? render(0, lineBreak, placeholders) : render(lineBreak + 1, parts.length, placeholders);
+    }
+    
+    private Component render(int from, int to, Object[] placeholders) {
+        TextComponent.Builder builder = Component.text();
+        for (int i = from; i < to; i++) {
+            if (parts[i] instanceof Slot slot) {
+                Object value = resolve(slot, placeholders);
+                builder.append(value instanceof ComponentLike component
+                    ? component
+                    : Component.text(String.valueOf(value), slot.style()));
+            } else {
+                builder.append((Component) parts[i]);
+            }
+        }
+        return builder.build();
+    }
+    
+    private static Object resolve(Slot slot, Object[] placeholders) {
+        for (int i = 0; i + 1 < placeholders.length; i += 2) {
+            Object name = placeholders[i];
+            if (name == slot.name() || slot.name().equals(name)) {
+                return placeholders[i + 1];
+            }
+        }
+        return slot.raw(); // Unknown placeholders are shown as written
+    }
+    
+    private static void flush(List<Object> parts, StringBuilder literal, Style style) {
+        if (!literal.isEmpty()) {
+            parts.add(Component.text(literal.toString(), style));
+            literal.setLength(0);
+        }
+    }
+    
+    private static boolean isPlaceholderName(String raw, int from, int to) {
+        for (int i = from; i < to; i++) {
+            char c = raw.charAt(i);
+            if (!(c >= 'a' && c <= 'z') && !(c >= '0' && c <= '9') && c != '_') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,61 @@
+package me.devupdates.vaultPayday.util;
+
+/**
+ * Fixed-point money arithmetic
+ * Amounts are plain longs in micro-units (1.0 = 1,000,000), so accumulation is exact and allocation-free
+ */
+public final class Money {
+    public static final long MICROS_PER_UNIT = 1_000_000L;
+    
+    private Money() {
+    }
+    
+    /**
+     * Convert a currency amount, e.g. from Vault or JobsReborn, to micro-units
+     * @param amount The amount in currency units
+     * @return Amount in micro-units, rounded to the nearest micro
+     */
+    public static long toMicros(double amount) {
+        return Math.round(amount * MICROS_PER_UNIT);
+    }
+    
+    /**
+     * Convert micro-units back to a currency amount for Vault and display
+     * @param micros The amount in micro-units
+     * @return Amount in currency units
+     */
+    public static double toDouble(long micros) {
+        return (double) micros / MICROS_PER_UNIT;
+    }
+    
+    /**
+     * Apply a multiplier to an amount
+     * @param micros The amount in micro-units
+     * @param multiplier The multiplier, e.g. 1.5
+     * @return Multiplied amount, rounded to the nearest micro
+     */
+    public static long multiply(long micros, double multiplier) {
+        return Math.round(micros * multiplier);
+    }
+    
+    /**
+     * Format an amount with two decimals, rounding half up like "%.2f" but without a Formatter
+     * @param micros The amount in micro-units
+     * @return Formatted amount, e.g. "12.50"
+     */
+    public static String format(long micros) {
+        long magnitude = Math.abs(micros);
+        long cents = (magnitude + 5_000L) / 10_000L;
+        int fraction = (int) (cents % 100);
+        
+        StringBuilder builder = new StringBuilder(24);
+        if (micros < 0 && cents > 0) {
+            builder.append('-');
+        }
+        builder.append(cents / 100).append('.');
+        if (fraction < 10) {
+            builder.append('0');
+        }
+        return builder.append(fraction).toString();
+    }
+}
\ No newline at end of file
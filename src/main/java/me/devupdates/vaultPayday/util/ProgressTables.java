@@ -0,0 +1,93 @@
+package me.devupdates.vaultPayday.util;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+
+/**
+ * Progress bars and formatted times rendered once at config load
+ * A bar of a given length only has length + 1 states and payday times are bounded by the interval,
+ * so rendering is an array lookup shared by the commands and the placeholders
+ */
+public final class ProgressTables {
+    public static final int MAX_BAR_LENGTH = 20;
+    private static final String BAR_CHAR = "█";
+    
+    // Larger intervals still get a table up to here, longer times are formatted on demand
+    private static final int MAX_TIME_ENTRIES = 7 * 24 * 60;
+    
+    private final String[][] legacyBars; // [length][filled], legacy color codes
+    private final Component[][] componentBars; // [length][filled]
+    private final String[] times; // [minutes]
+    
+    private ProgressTables(String[][] legacyBars, Component[][] componentBars, String[] times) {
+        this.legacyBars = legacyBars;
+        this.componentBars = componentBars;
+        this.times = times;
+    }
+    
+    /**
+     * Render every bar state and every time from 0 up to the payday interval
+     */
+    public static ProgressTables build(long paydayIntervalMinutes) {
+        String[][] legacyBars = new String[MAX_BAR_LENGTH + 1][];
+        Component[][] componentBars = new Component[MAX_BAR_LENGTH + 1][];
+        for (int length = 1; length <= MAX_BAR_LENGTH; length++) {
+            legacyBars[length] = new String[length + 1];
+            componentBars[length] = new Component[length + 1];
+            for (int filled = 0; filled <= length; filled++) {
+                String filledBars = BAR_CHAR.repeat(filled);
+                String emptyBars = BAR_CHAR.repeat(length - filled);
+                legacyBars[length][filled] = "&a" + filledBars + "&7" + emptyBars;
+                componentBars[length][filled] = Component.text()
+                    .append(Component.text(filledBars, NamedTextColor.GREEN))
+                    .append(Component.text(emptyBars, NamedTextColor.GRAY))
+                    .build();
+            }
+        }
+        
+        String[] times = new String[(int) Math.min(Math.max(paydayIntervalMinutes, 0), MAX_TIME_ENTRIES) + 1];
+        for (int minutes = 0; minutes < times.length; minutes++) {
+            times[minutes] = renderTime(minutes);
+        }
+        
+        return new ProgressTables(legacyBars, componentBars, times);
+    }
+    
+    /**
+     * Get a progress bar with legacy color codes, filled bars in green, empty bars in gray
+     * @param length Bar length, 1 to MAX_BAR_LENGTH
+     */
+    public String legacyBar(double percentage, int length) {
+        return legacyBars[length][filledBars(percentage, length)];
+    }
+    
+    /**
+     * Get a progress bar component, filled bars in green, empty bars in gray
+     * @param length Bar length, 1 to MAX_BAR_LENGTH
+     */
+    public Component componentBar(double percentage, int length) {
+        return componentBars[length][filledBars(percentage, length)];
+    }
+    
+    /**
+     * Format minutes to human-readable time format, e.g. 1h 30m
+     */
+    public String formatTime(long minutes) {
+        return minutes >= 0 && minutes < times.length ? times[(int) minutes] : renderTime(minutes);
+    }
+    
+    private static int filledBars(double percentage, int length) {
+        int filled = (int) (percentage / 100.0 * length);
+        return Math.max(0, Math.min(length, filled));
+    }
+    
+    private static String renderTime(long minutes) {
+        if (minutes < 60) {
+            return minutes + "m";
+        }
+        
+        long hours = minutes / 60;
+        long remainingMinutes = minutes % 60;
+        return remainingMinutes == 0 ? hours + "h" : hours + "h " + remainingMinutes + "m";
+    }
+}
\ No newline at end of file
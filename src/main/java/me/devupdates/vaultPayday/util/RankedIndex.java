@@ -0,0 +1,209 @@
+package me.devupdates.vaultPayday.util;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Players sorted by a score, highest first, as an indexable skip list
+ * Every link knows how many entries it skips, so updates, rank and n-th place lookups are all O(log n)
+ * Ties are ordered by UUID so every player has a stable rank, all methods are thread-safe
+ */
+public final class RankedIndex {
+    private static final int MAX_LEVEL = 32;
+    
+    private final Node head = new Node(null, null, 0L, MAX_LEVEL);
+    private final Map<UUID, Node> nodes = new HashMap<>();
+    private int level = 1;
+    private int length; // Entries in the list, the map may briefly hold one more during an update
+    
+    /**
+     * A ranked player, immutable so it can be handed out after the lock is released
+     */
+    public record Entry(UUID playerUUID, String playerName, long score) {}
+    
+    private static final class Node {
+        private final UUID playerUUID;
+        private final String playerName;
+        private final long score;
+        private final Node[] next;
+        private final int[] span; // Entries passed when following next at the same level
+        
+        private Node(UUID playerUUID, String playerName, long score, int level) {
+            this.playerUUID = playerUUID;
+            this.playerName = playerName;
+            this.score = score;
+            this.next = new Node[level];
+            this.span = new int[level];
+        }
+        
+        /**
+         * Whether this node sorts before the given position
+         */
+        private boolean before(long otherScore, UUID otherUUID) {
+            return score != otherScore ? score > otherScore : playerUUID.compareTo(otherUUID) < 0;
+        }
+    }
+    
+    /**
+     * Insert a player or move them to their new score, a no-op if nothing changed
+     */
+    public synchronized void update(UUID playerUUID, String playerName, long score) {
+        Node existing = nodes.get(playerUUID);
+        if (existing != null) {
+            if (existing.score == score && existing.playerName.equals(playerName)) {
+                return;
+            }
+            delete(existing);
+        }
+        nodes.put(playerUUID, insert(playerUUID, playerName, score));
+    }
+    
+    /**
+     * Insert a player only if they aren't indexed yet, used when seeding from storage
+     */
+    public synchronized void putIfAbsent(UUID playerUUID, String playerName, long score) {
+        if (!nodes.containsKey(playerUUID)) {
+            nodes.put(playerUUID, insert(playerUUID, playerName, score));
+        }
+    }
+    
+    public synchronized void remove(UUID playerUUID) {
+        Node existing = nodes.remove(playerUUID);
+        if (existing != null) {
+            delete(existing);
+        }
+    }
+    
+    /**
+     * @return 1-based rank, or 0 if the player isn't indexed
+     */
+    public synchronized int rank(UUID playerUUID) {
+        Node target = nodes.get(playerUUID);
+        if (target == null) {
+            return 0;
+        }
+        
+        int rank = 0;
+        Node node = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (node.next[i] != null && (node.next[i] == target || node.next[i].before(target.score, target.playerUUID))) {
+                rank += node.span[i];
+                node = node.next[i];
+            }
+            if (node == target) {
+                return rank;
+            }
+        }
+        return 0;
+    }
+    
+    /**
+     * @param rank 1-based rank
+     * @return The entry at that rank, or null if fewer players are indexed
+     */
+    public synchronized Entry get(int rank) {
+        if (rank < 1 || rank > length) {
+            return null;
+        }
+        
+        int traversed = 0;
+        Node node = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (node.next[i] != null && traversed + node.span[i] <= rank) {
+                traversed += node.span[i];
+                node = node.next[i];
+            }
+            if (traversed == rank) {
+                return new Entry(node.playerUUID, node.playerName, node.score);
+            }
+        }
+        return null;
+    }
+    
+    public synchronized int size() {
+        return nodes.size();
+    }
+    
+    public synchronized void clear() {
+        nodes.clear();
+        for (int i = 0; i < MAX_LEVEL; i++) {
+            head.next[i] = null;
+            head.span[i] = 0;
+        }
+        level = 1;
+        length = 0;
+    }
+    
+    private Node insert(UUID playerUUID, String playerName, long score) {
+        Node[] update = new Node[MAX_LEVEL];
+        int[] rank = new int[MAX_LEVEL];
+        
+        // Find the predecessor on every level and its rank
+        Node node = head;
+        for (int i = level - 1; i >= 0; i--) {
+            rank[i] = i == level - 1 ? 0 : rank[i + 1];
+            while (node.next[i] != null && node.next[i].before(score, playerUUID)) {
+                rank[i] += node.span[i];
+                node = node.next[i];
+            }
+            update[i] = node;
+        }
+        
+        int nodeLevel = randomLevel();
+        if (nodeLevel > level) {
+            for (int i = level; i < nodeLevel; i++) {
+                rank[i] = 0;
+                update[i] = head;
+                head.span[i] = length;
+            }
+            level = nodeLevel;
+        }
+        
+        Node inserted = new Node(playerUUID, playerName, score, nodeLevel);
+        for (int i = 0; i < nodeLevel; i++) {
+            inserted.next[i] = update[i].next[i];
+            update[i].next[i] = inserted;
+            inserted.span[i] = update[i].span[i] - (rank[0] - rank[i]);
+            update[i].span[i] = rank[0] - rank[i] + 1;
+        }
+        
+        // Links above the new node now pass one more entry
+        for (int i = nodeLevel; i < level; i++) {
+            update[i].span[i]++;
+        }
+        length++;
+        return inserted;
+    }
+    
+    private void delete(Node target) {
+        Node node = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (node.next[i] != null && node.next[i] != target && node.next[i].before(target.score, target.playerUUID)) {
+                node = node.next[i];
+            }
+            
+            if (node.next[i] == target) {
+                node.span[i] += target.span[i] - 1;
+                node.next[i] = target.next[i];
+            } else {
+                node.span[i]--;
+            }
+        }
+        
+        while (level > 1 && head.next[level - 1] == null) {
+            level--;
+        }
+        length--;
+    }
+    
+    private static int randomLevel() {
+        int nodeLevel = 1;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (nodeLevel < MAX_LEVEL && random.nextInt(4) == 0) {
+            nodeLevel++;
+        }
+        return nodeLevel;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,49 @@
+package me.devupdates.vaultPayday.util;
+
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * World whitelist/blacklist compiled once at config load
+ * Rules are resolved per world UUID, worlds loaded later are resolved by name the first time they are seen
+ */
+public final class WorldRules {
+    private final boolean whitelistMode;
+    private final Set<String> worldNames;
+    private final Map<UUID, Boolean> enabledWorlds = new ConcurrentHashMap<>();
+    
+    private WorldRules(boolean whitelistMode, Set<String> worldNames) {
+        this.whitelistMode = whitelistMode;
+        this.worldNames = worldNames;
+    }
+    
+    /**
+     * Build the rules and resolve every world loaded right now
+     * @param whitelistMode Only the whitelisted worlds are enabled, otherwise all but the blacklisted ones
+     */
+    public static WorldRules build(boolean whitelistMode, Collection<String> whitelistedWorlds, Collection<String> blacklistedWorlds) {
+        WorldRules rules = new WorldRules(whitelistMode, Set.copyOf(whitelistMode ? whitelistedWorlds : blacklistedWorlds));
+        for (World world : Bukkit.getWorlds()) {
+            rules.isEnabled(world);
+        }
+        return rules;
+    }
+    
+    /**
+     * Check if the payday system is enabled in the given world
+     */
+    public boolean isEnabled(World world) {
+        Boolean enabled = enabledWorlds.get(world.getUID());
+        if (enabled == null) {
+            enabled = whitelistMode == worldNames.contains(world.getName());
+            enabledWorlds.put(world.getUID(), enabled);
+        }
+        return enabled;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,234 @@
+package me.devupdates.vaultPayday.data;
+
+import com.zaxxer.hikari.HikariConfig;
+import me.devupdates.vaultPayday.VaultPayday;
+import me.devupdates.vaultPayday.manager.ConfigManager;
+import me.devupdates.vaultPayday.model.PaydayData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the MySQL backend against H2 in MySQL mode, several managers on one database act as separate servers
+ */
+class MySQLDataManagerTest {
+    private static final long LONG_WAIT_MILLIS = 10_000L;
+    
+    private final List<MySQLDataManager> managers = new ArrayList<>();
+    private String url;
+    
+    /**
+     * A payday_data row as stored
+     */
+    private record Row(long minutesPlayed, long version, String owner) {}
+    
+    @BeforeEach
+    void createDatabase() {
+        url = "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+    }
+    
+    @AfterEach
+    void closeManagers() {
+        managers.forEach(manager -> manager.close().join());
+    }
+    
+    @Test
+    void batchIsWrittenInFullChunksAndRemainder() throws SQLException {
+        MySQLDataManager server = server("a", 4, LONG_WAIT_MILLIS);
+        
+        // Two full chunks of four and a remainder of two
+        List<PaydayData> batch = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            batch.add(new PaydayData(UUID.randomUUID(), "Player" + i, i, i * 1_000L, 0L, 0));
+        }
+        server.savePlayerDataBatch(batch).join();
+        
+        for (PaydayData data : batch) {
+            assertEquals(1, data.getVersion());
+            assertEquals(new Row(data.getMinutesPlayed(), 1, "a"), row(data.getPlayerUUID()));
+        }
+        
+        // Same players again, now through the update branch of the upsert
+        batch.forEach(data -> data.addMinutes(100));
+        server.savePlayerDataBatch(batch).join();
+        
+        for (PaydayData data : batch) {
+            assertEquals(2, data.getVersion());
+            assertEquals(new Row(data.getMinutesPlayed(), 2, "a"), row(data.getPlayerUUID()));
+        }
+    }
+    
+    @Test
+    void staleSaveIsRejected() throws SQLException {
+        MySQLDataManager server = server("a", 4, LONG_WAIT_MILLIS);
+        UUID playerUUID = UUID.randomUUID();
+        
+        PaydayData data = server.loadPlayerData(playerUUID, "Player").join();
+        data.addMinutes(5);
+        server.savePlayerData(data).join();
+        assertEquals(new Row(5, 1, "a"), row(playerUUID));
+        
+        // A copy still at the version it was loaded at
+        PaydayData stale = new PaydayData(playerUUID, "Player", 99, 0L, 0L, 0);
+        stale.setVersion(0);
+        server.savePlayerData(stale).join();
+        
+        assertEquals(0, stale.getVersion());
+        assertEquals(new Row(5, 1, "a"), row(playerUUID));
+    }
+    
+    @Test
+    void releasedPlayerIsHandedOver() throws Exception {
+        MySQLDataManager first = server("a", 4, LONG_WAIT_MILLIS);
+        MySQLDataManager second = server("b", 4, LONG_WAIT_MILLIS);
+        UUID playerUUID = UUID.randomUUID();
+        
+        PaydayData data = first.loadPlayerData(playerUUID, "Player").join();
+        data.addMinutes(7);
+        data.setCarriedMillis(42_000);
+        
+        // The second server waits while the first still holds the player
+        long start = System.currentTimeMillis();
+        CompletableFuture<PaydayData> handedOver = second.loadPlayerData(playerUUID, "Player");
+        Thread.sleep(300);
+        assertFalse(handedOver.isDone());
+        
+        first.releasePlayer(data).join();
+        assertEquals(new Row(7, 1, null), row(playerUUID));
+        
+        PaydayData loaded = handedOver.join();
+        assertTrue(System.currentTimeMillis() - start < LONG_WAIT_MILLIS);
+        assertEquals(7, loaded.getMinutesPlayed());
+        assertEquals(42_000, loaded.getCarriedMillis());
+        assertEquals(1, loaded.getVersion());
+        assertEquals("b", row(playerUUID).owner());
+        
+        // A late save from the first server must not overwrite the new owner's row
+        data.addMinutes(1);
+        first.savePlayerData(data).join();
+        assertEquals(new Row(7, 1, "b"), row(playerUUID));
+    }
+    
+    @Test
+    void overduePlayerIsTakenOver() throws SQLException {
+        MySQLDataManager first = server("a", 4, LONG_WAIT_MILLIS);
+        MySQLDataManager second = server("b", 4, 300L);
+        UUID playerUUID = UUID.randomUUID();
+        
+        PaydayData held = first.loadPlayerData(playerUUID, "Player").join();
+        held.addMinutes(3);
+        first.savePlayerData(held).join();
+        
+        // Never released, the second server takes over once its handoff wait is over
+        long start = System.currentTimeMillis();
+        PaydayData taken = second.loadPlayerData(playerUUID, "Player").join();
+        assertTrue(System.currentTimeMillis() - start >= 300L);
+        assertEquals(3, taken.getMinutesPlayed());
+        assertEquals(new Row(3, 1, "b"), row(playerUUID));
+        
+        // The previous holder's saves are now stale
+        held.addMinutes(10);
+        first.savePlayerData(held).join();
+        assertEquals(new Row(3, 1, "b"), row(playerUUID));
+        
+        // The new owner keeps writing
+        taken.addMinutes(2);
+        second.savePlayerData(taken).join();
+        assertEquals(new Row(5, 2, "b"), row(playerUUID));
+    }
+    
+    @Test
+    void releasedClaimOnlyFreesTheSameVersion() throws SQLException {
+        MySQLDataManager first = server("a", 4, LONG_WAIT_MILLIS);
+        MySQLDataManager second = server("b", 4, LONG_WAIT_MILLIS);
+        UUID playerUUID = UUID.randomUUID();
+        
+        PaydayData stale = first.loadPlayerData(playerUUID, "Player").join();
+        PaydayData current = first.loadPlayerData(playerUUID, "Player").join();
+        current.addMinutes(4);
+        first.savePlayerData(current).join();
+        
+        // Claims of another version or another server are left alone
+        first.releaseClaim(stale).join();
+        second.releaseClaim(current).join();
+        assertEquals(new Row(4, 1, "a"), row(playerUUID));
+        
+        // Nothing is written, the row just becomes free for the next server
+        current.addMinutes(2);
+        first.releaseClaim(current).join();
+        assertEquals(new Row(4, 1, null), row(playerUUID));
+        assertEquals(4, second.loadPlayerData(playerUUID, "Player").join().getMinutesPlayed());
+        assertEquals("b", row(playerUUID).owner());
+    }
+    
+    @Test
+    void closeReleasesEveryLease() throws SQLException {
+        MySQLDataManager server = server("a", 4, LONG_WAIT_MILLIS);
+        UUID playerUUID = UUID.randomUUID();
+        
+        assertNotNull(server.loadPlayerData(playerUUID, "Player").join());
+        assertEquals("a", row(playerUUID).owner());
+        
+        managers.remove(server);
+        server.close().join();
+        assertNull(row(playerUUID).owner());
+    }
+    
+    /**
+     * Start a manager acting as one server of the shared database
+     */
+    private MySQLDataManager server(String serverId, int batchRows, long handoffWaitMillis) {
+        VaultPayday plugin = mock(VaultPayday.class);
+        when(plugin.getLogger()).thenReturn(Logger.getLogger("VaultPayday-" + serverId));
+        when(plugin.isEnabled()).thenReturn(true);
+        
+        ConfigManager configManager = mock(ConfigManager.class);
+        when(configManager.getStorageQueueCapacity()).thenReturn(64);
+        when(configManager.getStorageReaderThreads()).thenReturn(1);
+        when(configManager.getMysqlBatchRows()).thenReturn(batchRows);
+        when(configManager.getMysqlServerId()).thenReturn(serverId);
+        when(configManager.getMysqlLeaseSeconds()).thenReturn(60);
+        when(configManager.getMysqlHandoffWaitMillis()).thenReturn(handoffWaitMillis);
+        
+        HikariConfig pool = new HikariConfig();
+        pool.setPoolName("VaultPayday-Test-" + serverId);
+        pool.setJdbcUrl(url);
+        pool.setMaximumPoolSize(2);
+        
+        MySQLDataManager manager = new MySQLDataManager(plugin, configManager);
+        managers.add(manager);
+        manager.initialize(pool).join();
+        return manager;
+    }
+    
+    private Row row(UUID playerUUID) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url);
+             PreparedStatement stmt = connection.prepareStatement(
+                 "SELECT minutes_played, version, owner FROM payday_data WHERE uuid = ?")) {
+            stmt.setString(1, playerUUID.toString());
+            try (ResultSet rs = stmt.executeQuery()) {
+                assertTrue(rs.next(), "No row for " + playerUUID);
+                return new Row(rs.getLong(1), rs.getLong(2), rs.getString(3));
+            }
+        }
+    }
+}
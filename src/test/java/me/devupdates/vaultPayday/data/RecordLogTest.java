@@ -0,0 +1,182 @@
+package me.devupdates.vaultPayday.data;
+
+import me.devupdates.vaultPayday.model.PaydayData;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Replays, torn tails and compaction of the flat-file record log, on real files in a temporary directory
+ */
+class RecordLogTest {
+    @TempDir
+    File directory;
+    
+    private final UUID first = UUID.randomUUID();
+    private final UUID second = UUID.randomUUID();
+    
+    @Test
+    void replayKeepsLatestRecordPerPlayer() throws IOException {
+        RecordLog log = open(new HashMap<>());
+        log.appendPut(data(first, 1));
+        log.appendPut(data(second, 2));
+        PaydayData latest = data(first, 3);
+        latest.setCarriedMillis(12_345);
+        log.appendPut(latest);
+        log.appendDelete(second);
+        log.force();
+        log.close();
+        
+        Map<UUID, Integer> index = new HashMap<>();
+        RecordLog reopened = new RecordLog(directory, "payday_data");
+        assertFalse(reopened.open(visitor(index)));
+        
+        assertEquals(1, index.size());
+        PaydayData replayed = reopened.read(index.get(first));
+        assertEquals(3, replayed.getMinutesPlayed());
+        assertEquals(12_345, replayed.getCarriedMillis());
+        assertEquals("Player", replayed.getPlayerName());
+        reopened.close();
+    }
+    
+    @Test
+    void tornTailIsCutOff() throws IOException {
+        RecordLog log = open(new HashMap<>());
+        log.appendPut(data(first, 1));
+        int torn = log.appendPut(data(second, 2));
+        log.force();
+        log.close();
+        
+        // Damage the minutes of the last record, its checksum no longer matches
+        try (FileChannel channel = FileChannel.open(new File(directory, "payday_data.1.log").toPath(), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {(byte) 0x7F}), torn + 8 + 17);
+        }
+        
+        Map<UUID, Integer> index = new HashMap<>();
+        RecordLog reopened = new RecordLog(directory, "payday_data");
+        assertTrue(reopened.open(visitor(index)));
+        assertEquals(Map.of(first, RecordLog.HEADER_SIZE), index);
+        assertEquals(torn, reopened.getWritePosition());
+        
+        // A shorter record written over the torn one must not revive what is left of it
+        UUID third = UUID.randomUUID();
+        reopened.appendPut(new PaydayData(third, "P", 4, 0L, 0L, 0));
+        reopened.force();
+        reopened.close();
+        
+        index.clear();
+        RecordLog again = new RecordLog(directory, "payday_data");
+        assertFalse(again.open(visitor(index)));
+        assertEquals(2, index.size());
+        assertEquals(4, again.read(index.get(third)).getMinutesPlayed());
+        again.close();
+    }
+    
+    @Test
+    void compactionMovesLiveRecordsToNextGeneration() throws IOException {
+        RecordLog log = open(new HashMap<>());
+        log.appendPut(data(first, 1));
+        int firstOffset = log.appendPut(data(first, 2));
+        int secondOffset = log.appendPut(data(second, 5));
+        
+        int[] offsets = log.compact(new int[] {firstOffset, secondOffset});
+        assertEquals(2, log.getGeneration());
+        assertEquals(RecordLog.HEADER_SIZE, offsets[0]);
+        assertEquals(2, log.read(offsets[0]).getMinutesPlayed());
+        assertEquals(5, log.read(offsets[1]).getMinutesPlayed());
+        assertFalse(new File(directory, "payday_data.1.log").exists());
+        
+        // Appends continue right after the compacted records
+        assertEquals(offsets[1] + log.recordSize(offsets[1]), log.getWritePosition());
+        log.close();
+        
+        Map<UUID, Integer> index = new HashMap<>();
+        RecordLog reopened = new RecordLog(directory, "payday_data");
+        reopened.open(visitor(index));
+        assertEquals(2, reopened.getGeneration());
+        assertEquals(2, reopened.read(index.get(first)).getMinutesPlayed());
+        reopened.close();
+    }
+    
+    @Test
+    void unsealedGenerationIsDiscarded() throws IOException {
+        RecordLog log = open(new HashMap<>());
+        log.appendPut(data(first, 1));
+        log.force();
+        log.close();
+        
+        // A compaction that died before sealing its header
+        File interrupted = new File(directory, "payday_data.2.log");
+        try (FileChannel channel = FileChannel.open(interrupted.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(RecordLog.HEADER_SIZE).putInt(0x5650444C).putInt(1).putLong(2).putInt(0).putInt(0).flip());
+        }
+        
+        Map<UUID, Integer> index = new HashMap<>();
+        RecordLog reopened = new RecordLog(directory, "payday_data");
+        reopened.open(visitor(index));
+        assertEquals(1, reopened.getGeneration());
+        assertEquals(1, index.size());
+        assertFalse(interrupted.exists());
+        reopened.close();
+    }
+    
+    @Test
+    void snapshotOutlivesCompaction() throws IOException {
+        RecordLog log = open(new HashMap<>());
+        int firstOffset = log.appendPut(data(first, 1));
+        int secondOffset = log.appendPut(data(second, 2));
+        RecordLog.Snapshot snapshot = log.snapshot(new int[] {firstOffset, secondOffset});
+        
+        // Taken before the log moved on, still reads the records it captured
+        log.appendPut(data(first, 10));
+        log.compact(new int[] {secondOffset});
+        assertEquals(2, snapshot.size());
+        assertEquals(1, snapshot.read(0).getMinutesPlayed());
+        assertEquals(2, snapshot.read(1).getMinutesPlayed());
+        
+        // And copies into a standalone log
+        File backups = new File(directory, "backup");
+        backups.mkdirs();
+        RecordLog.copyTo(new File(backups, "payday_data.1.log"), snapshot);
+        log.close();
+        
+        Map<UUID, Integer> index = new HashMap<>();
+        RecordLog copy = new RecordLog(backups, "payday_data");
+        assertFalse(copy.open(visitor(index)));
+        assertEquals(1, copy.read(index.get(first)).getMinutesPlayed());
+        assertEquals(2, copy.read(index.get(second)).getMinutesPlayed());
+        copy.close();
+    }
+    
+    private RecordLog open(Map<UUID, Integer> index) throws IOException {
+        RecordLog log = new RecordLog(directory, "payday_data");
+        log.open(visitor(index));
+        return log;
+    }
+    
+    private static RecordLog.RecordVisitor visitor(Map<UUID, Integer> index) {
+        return (playerUUID, offset) -> {
+            if (offset >= 0) {
+                index.put(playerUUID, offset);
+            } else {
+                index.remove(playerUUID);
+            }
+        };
+    }
+    
+    private static PaydayData data(UUID playerUUID, long minutesPlayed) {
+        return new PaydayData(playerUUID, "Player", minutesPlayed, 0L, 0L, 0);
+    }
+}
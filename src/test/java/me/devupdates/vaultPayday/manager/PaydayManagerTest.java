@@ -0,0 +1,265 @@
+package me.devupdates.vaultPayday.manager;
+
+import me.devupdates.vaultPayday.VaultPayday;
+import me.devupdates.vaultPayday.data.DataManager;
+import me.devupdates.vaultPayday.data.StorageExecutor;
+import me.devupdates.vaultPayday.model.PaydayData;
+import me.devupdates.vaultPayday.util.WorldRules;
+import org.bukkit.Server;
+import org.bukkit.entity.Player;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs PaydayManager's join, leave and persistence paths against an in-memory store
+ */
+class PaydayManagerTest {
+    private final UUID playerUUID = UUID.randomUUID();
+    
+    private MemoryDataManager storage;
+    private PaydayManager paydayManager;
+    private Player player;
+    
+    /**
+     * Stores copies of the saved values, like a real backend, and can hold saves back to keep a flush in flight
+     */
+    private static class MemoryDataManager implements DataManager {
+        final Map<UUID, PaydayData> rows = new ConcurrentHashMap<>();
+        final List<PaydayData> releasedClaims = new CopyOnWriteArrayList<>();
+        volatile CompletableFuture<Void> loadGate = CompletableFuture.completedFuture(null);
+        volatile CountDownLatch saveStarted = new CountDownLatch(0);
+        volatile CountDownLatch saveReleased = new CountDownLatch(0);
+        
+        @Override
+        public CompletableFuture<Void> initialize() {
+            return CompletableFuture.completedFuture(null);
+        }
+        
+        @Override
+        public CompletableFuture<PaydayData> loadPlayerData(UUID playerUUID, String playerName) {
+            PaydayData row = rows.computeIfAbsent(playerUUID, uuid -> new PaydayData(uuid, playerName));
+            return loadGate.thenApply(ignored -> copy(row));
+        }
+        
+        @Override
+        public CompletableFuture<Void> savePlayerData(PaydayData data) {
+            rows.put(data.getPlayerUUID(), copy(data));
+            return CompletableFuture.completedFuture(null);
+        }
+        
+        @Override
+        public CompletableFuture<Void> savePlayerDataBatch(Collection<PaydayData> batch) {
+            saveStarted.countDown();
+            try {
+                saveReleased.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            batch.forEach(this::savePlayerData);
+            return CompletableFuture.completedFuture(null);
+        }
+        
+        @Override
+        public CompletableFuture<Void> releaseClaim(PaydayData data) {
+            releasedClaims.add(data);
+            return CompletableFuture.completedFuture(null);
+        }
+        
+        @Override
+        public CompletableFuture<Void> deletePlayerData(UUID playerUUID) {
+            rows.remove(playerUUID);
+            return CompletableFuture.completedFuture(null);
+        }
+        
+        @Override
+        public CompletableFuture<Void> forEachPlayer(Consumer<PaydayData> action) {
+            rows.values().forEach(action);
+            return CompletableFuture.completedFuture(null);
+        }
+        
+        @Override
+        public CompletableFuture<StatisticsSnapshot> getStatisticsSnapshot() {
+            return CompletableFuture.completedFuture(new StatisticsSnapshot(rows.size(), 0, 0L, 0L));
+        }
+        
+        @Override
+        public CompletableFuture<Void> close() {
+            return CompletableFuture.completedFuture(null);
+        }
+        
+        @Override
+        public void writeSnapshot(File target) {
+            throw new UnsupportedOperationException();
+        }
+        
+        @Override
+        public StorageExecutor getStorageExecutor() {
+            return null;
+        }
+        
+        private static PaydayData copy(PaydayData data) {
+            PaydayData copy = new PaydayData(data.getPlayerUUID(), data.getPlayerName(), data.getMinutesPlayed(),
+                data.getPendingMicros(), data.getLastUpdated(), data.getTotalPaydays());
+            copy.setVersion(data.getVersion());
+            copy.setCarriedMillis(data.getCarriedMillis());
+            return copy;
+        }
+    }
+    
+    @BeforeEach
+    void createManager() {
+        player = mock(Player.class);
+        when(player.getUniqueId()).thenReturn(playerUUID);
+        when(player.getName()).thenReturn("Player");
+        
+        Server server = mock(Server.class);
+        when(server.getPlayer(playerUUID)).thenReturn(player);
+        
+        VaultPayday plugin = mock(VaultPayday.class);
+        when(plugin.getLogger()).thenReturn(Logger.getLogger("VaultPayday"));
+        when(plugin.getServer()).thenReturn(server);
+        when(plugin.isEnabled()).thenReturn(true);
+        
+        WorldRules worldRules = mock(WorldRules.class);
+        when(worldRules.isEnabled(any())).thenReturn(true);
+        
+        ConfigManager configManager = mock(ConfigManager.class);
+        when(configManager.getWriteBehindMaxBatchSize()).thenReturn(64);
+        when(configManager.getWorldRules()).thenReturn(worldRules);
+        when(configManager.getPermissionMultiplierNodes()).thenReturn(new String[0]);
+        when(configManager.getPermissionMultiplierValues()).thenReturn(new double[0]);
+        when(configManager.getPaydayIntervalMinutes()).thenReturn(60L);
+        
+        storage = new MemoryDataManager();
+        paydayManager = new PaydayManager(plugin, storage, configManager);
+    }
+    
+    @AfterEach
+    void shutdownQueue() {
+        storage.saveReleased = new CountDownLatch(0);
+        paydayManager.getWriteBehindQueue().shutdown();
+    }
+    
+    @Test
+    void rejoinBeforeFlushKeepsQueuedSession() {
+        PaydayData data = join();
+        data.addMinutes(30);
+        data.addPendingMicros(5_000_000L);
+        paydayManager.onPlayerLeave(player);
+        
+        // Storage still has the row from before the session
+        assertEquals(0, storage.rows.get(playerUUID).getMinutesPlayed());
+        
+        PaydayData rejoined = join();
+        assertEquals(30, rejoined.getMinutesPlayed());
+        assertEquals(5_000_000L, rejoined.getPendingMicros());
+        
+        // The flush still writes the last session, and the new one is saved on top of it
+        paydayManager.getWriteBehindQueue().flush().join();
+        assertEquals(30, storage.rows.get(playerUUID).getMinutesPlayed());
+        
+        rejoined.addMinutes(5);
+        paydayManager.onPlayerLeave(player);
+        paydayManager.getWriteBehindQueue().flush().join();
+        assertEquals(35, storage.rows.get(playerUUID).getMinutesPlayed());
+        assertEquals(5_000_000L, storage.rows.get(playerUUID).getPendingMicros());
+    }
+    
+    @Test
+    void rejoinDuringFlushKeepsInFlightSession() throws InterruptedException {
+        PaydayData data = join();
+        data.addMinutes(30);
+        paydayManager.onPlayerLeave(player);
+        
+        // Hold the flush after it took the entry but before the write lands
+        storage.saveStarted = new CountDownLatch(1);
+        storage.saveReleased = new CountDownLatch(1);
+        CompletableFuture<Void> flush = paydayManager.getWriteBehindQueue().flush();
+        assertTrue(storage.saveStarted.await(10, TimeUnit.SECONDS));
+        assertEquals(0, paydayManager.getWriteBehindQueue().getPendingCount());
+        
+        PaydayData rejoined = join();
+        assertEquals(30, rejoined.getMinutesPlayed());
+        
+        storage.saveReleased.countDown();
+        flush.join();
+        assertEquals(30, storage.rows.get(playerUUID).getMinutesPlayed());
+        assertNull(paydayManager.getWriteBehindQueue().getQueued(playerUUID));
+    }
+    
+    @Test
+    void leaveBeforeLoadReleasesClaim() {
+        storage.loadGate = new CompletableFuture<>();
+        paydayManager.onPlayerJoin(player);
+        CompletableFuture<PaydayData> load = paydayManager.getPlayerDataAsync(playerUUID);
+        paydayManager.onPlayerLeave(player);
+        assertTrue(storage.releasedClaims.isEmpty());
+        
+        // The load lands after the player left, so it is neither cached nor left claimed
+        storage.loadGate.complete(null);
+        PaydayData loaded = load.join();
+        assertNull(paydayManager.getIfCached(playerUUID));
+        assertEquals(List.of(loaded), storage.releasedClaims);
+    }
+    
+    @Test
+    void loadForOnlinePlayerKeepsClaim() {
+        PaydayData data = join();
+        assertEquals(data, paydayManager.getIfCached(playerUUID));
+        assertTrue(storage.releasedClaims.isEmpty());
+    }
+    
+    @Test
+    void remainderIsCarriedToNextSession() throws InterruptedException {
+        join();
+        Thread.sleep(20);
+        paydayManager.onPlayerLeave(player);
+        paydayManager.getWriteBehindQueue().flush().join();
+        
+        PaydayData row = storage.rows.get(playerUUID);
+        assertEquals(0, row.getMinutesPlayed());
+        assertTrue(row.getCarriedMillis() >= 20 && row.getCarriedMillis() < 60_000, "carried " + row.getCarriedMillis());
+    }
+    
+    @Test
+    void carriedRemainderCompletesMinuteInNextSession() throws InterruptedException {
+        PaydayData row = new PaydayData(playerUUID, "Player");
+        row.setCarriedMillis(59_990);
+        storage.rows.put(playerUUID, row);
+        
+        PaydayData data = join();
+        assertEquals(0, data.getCarriedMillis());
+        Thread.sleep(20);
+        paydayManager.onPlayerLeave(player);
+        
+        // The carried time and this session make up the minute, only the new remainder is left
+        assertEquals(1, data.getMinutesPlayed());
+        assertTrue(data.getCarriedMillis() < 59_990, "carried " + data.getCarriedMillis());
+    }
+    
+    private PaydayData join() {
+        paydayManager.onPlayerJoin(player);
+        return paydayManager.getPlayerDataAsync(playerUUID).join();
+    }
+}
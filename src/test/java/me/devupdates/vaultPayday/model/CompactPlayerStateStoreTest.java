@@ -0,0 +1,186 @@
+package me.devupdates.vaultPayday.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Covers the compact store's index, slot reuse and view lifecycle
+ */
+class CompactPlayerStateStoreTest {
+    private final CompactPlayerStateStore store = new CompactPlayerStateStore();
+    
+    @Test
+    void insertedPlayerIsCachedOnce() {
+        PaydayData source = data(UUID.randomUUID(), 12, 3_000_000L);
+        source.setVersion(4);
+        
+        PaydayData view = store.putIfAbsent(source);
+        assertNotSame(source, view);
+        assertSame(view, store.get(source.getPlayerUUID()));
+        assertSame(view, store.putIfAbsent(data(source.getPlayerUUID(), 99, 0L)));
+        assertEquals(1, store.size());
+        
+        assertEquals(12, view.getMinutesPlayed());
+        assertEquals(3_000_000L, view.getPendingMicros());
+        assertEquals(4, view.getVersion());
+        
+        // Updates mark the slot dirty until the next save clears it
+        view.addMinutes(1);
+        assertTrue(store.clearDirty(source.getPlayerUUID()));
+        assertFalse(store.clearDirty(source.getPlayerUUID()));
+        assertEquals(13, store.get(source.getPlayerUUID()).getMinutesPlayed());
+    }
+    
+    @Test
+    void removedViewKeepsItsValues() {
+        UUID playerUUID = UUID.randomUUID();
+        store.startSession(playerUUID, 100L);
+        PaydayData view = store.putIfAbsent(data(playerUUID, 5, 10L));
+        
+        assertSame(view, store.remove(playerUUID));
+        assertNull(store.get(playerUUID));
+        assertNull(store.remove(playerUUID));
+        assertEquals(PlayerStateStore.NO_TIME, store.getJoinTime(playerUUID));
+        assertEquals(0, store.size());
+        
+        // Still usable after removal, like a heap instance
+        view.addMinutes(2);
+        view.addPendingMicros(5L);
+        assertEquals(7, view.getMinutesPlayed());
+        assertEquals(15L, view.getPendingMicros());
+        assertEquals(new PaydayData.CycleSnapshot(7, 15L), view.snapshotAndReset(7));
+        assertEquals(0L, view.getPendingMicros());
+    }
+    
+    @Test
+    void reinsertedPlayerStartsFromNewData() {
+        UUID playerUUID = UUID.randomUUID();
+        PaydayData first = store.putIfAbsent(data(playerUUID, 5, 0L));
+        store.remove(playerUUID);
+        
+        PaydayData second = store.putIfAbsent(data(playerUUID, 20, 0L));
+        assertNotSame(first, second);
+        assertEquals(20, second.getMinutesPlayed());
+        
+        // The old view no longer shares anything with the new one
+        first.addMinutes(100);
+        assertEquals(20, second.getMinutesPlayed());
+        assertEquals(105, first.getMinutesPlayed());
+    }
+    
+    @Test
+    void collidingPlayersShareOneProbeChain() {
+        // Equal msb ^ lsb, so every key hashes to the same home bucket
+        List<UUID> players = new ArrayList<>();
+        for (long i = 1; i <= 12; i++) {
+            UUID playerUUID = new UUID(i, i ^ 0x5DEECE66DL);
+            players.add(playerUUID);
+            store.putIfAbsent(data(playerUUID, i, 0L));
+        }
+        
+        // Deleting from the middle of the chain must not cut off the entries behind it
+        for (int i = 0; i < players.size(); i += 3) {
+            store.remove(players.get(i));
+        }
+        for (int i = 0; i < players.size(); i++) {
+            PaydayData view = store.get(players.get(i));
+            if (i % 3 == 0) {
+                assertNull(view);
+            } else {
+                assertEquals(i + 1, view.getMinutesPlayed());
+            }
+        }
+    }
+    
+    @Test
+    void deleteShiftsWrappedProbeChainBack() {
+        CompactPlayerStateStore.Index index = new CompactPlayerStateStore.Index(8);
+        long[] homeLast = keysWithHome(index, 7, 3);
+        long homeFirst = keysWithHome(index, 0, 1)[0];
+        
+        // Three keys for bucket 7 wrap around to 0 and 1, the key for bucket 0 lands in 2
+        for (int i = 0; i < homeLast.length; i++) {
+            index.insert(homeLast[i], 0L, i);
+        }
+        index.insert(homeFirst, 0L, 3);
+        assertEquals(2, index.find(homeFirst, 0L));
+        
+        index.delete(index.find(homeLast[0], 0L));
+        assertEquals(-1, index.find(homeLast[0], 0L));
+        assertEquals(7, index.find(homeLast[1], 0L));
+        assertEquals(0, index.find(homeLast[2], 0L));
+        assertEquals(1, index.find(homeFirst, 0L));
+        assertEquals(0, index.slots[2]);
+        assertEquals(4, index.slots[index.find(homeFirst, 0L)]);
+    }
+    
+    @Test
+    void growthKeepsEveryPlayer() {
+        // Past the initial index size and across several column chunks
+        List<UUID> players = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            UUID playerUUID = UUID.randomUUID();
+            players.add(playerUUID);
+            store.startSession(playerUUID, i);
+            store.putIfAbsent(data(playerUUID, i, i * 10L));
+        }
+        
+        assertEquals(1_000, store.size());
+        for (int i = 0; i < players.size(); i++) {
+            PaydayData view = store.get(players.get(i));
+            assertEquals(i, view.getMinutesPlayed());
+            assertEquals(i * 10L, view.getPendingMicros());
+            assertEquals(i, store.getJoinTime(players.get(i)));
+        }
+    }
+    
+    @Test
+    void removedSlotsAreReused() {
+        List<PaydayData> first = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            first.add(store.putIfAbsent(data(UUID.randomUUID(), 1, 0L)));
+        }
+        long footprint = store.estimateFootprintBytes();
+        first.forEach(view -> store.remove(view.getPlayerUUID()));
+        
+        // The next players take over the freed slots instead of allocating new chunks
+        List<PaydayData> second = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            second.add(store.putIfAbsent(data(UUID.randomUUID(), 2, 0L)));
+        }
+        assertEquals(footprint, store.estimateFootprintBytes());
+        
+        // Views of removed players still hold references but never write into the reused slots
+        first.forEach(view -> view.addMinutes(50));
+        second.forEach(view -> assertEquals(2, view.getMinutesPlayed()));
+        first.forEach(view -> assertEquals(51, view.getMinutesPlayed()));
+    }
+    
+    private static PaydayData data(UUID playerUUID, long minutesPlayed, long pendingMicros) {
+        return new PaydayData(playerUUID, "Player", minutesPlayed, pendingMicros, 0L, 0);
+    }
+    
+    /**
+     * Find keys (with lsb 0) whose home is the given bucket
+     */
+    private static long[] keysWithHome(CompactPlayerStateStore.Index index, int bucket, int count) {
+        long[] keys = new long[count];
+        int found = 0;
+        for (long msb = 1; found < count; msb++) {
+            if (index.bucketOf(msb, 0L) == bucket) {
+                keys[found++] = msb;
+            }
+        }
+        return keys;
+    }
+}